@@ -23,13 +23,15 @@ import app.musicplayer.model.Artist;
 import app.musicplayer.model.Library;
 import app.musicplayer.model.Song;
 import app.musicplayer.util.Resources;
+import app.musicplayer.util.UiScheduler;
+import app.musicplayer.util.UiScheduler.Priority;
+import app.musicplayer.util.ViewLoader;
 import app.musicplayer.util.XMLEditor;
 import app.musicplayer.view.ImportMusicDialogController;
 import app.musicplayer.view.MainController;
 import app.musicplayer.view.NowPlayingController;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.scene.layout.BorderPane;
@@ -45,8 +47,7 @@ public class MusicPlayer extends Application {
 
     private static MainController mainController;
     private static MediaPlayer mediaPlayer;
-    private static ArrayList<Song> nowPlayingList;
-    private static int nowPlayingIndex;
+    private static final PlayQueue nowPlayingList = new PlayQueue();
     private static Song nowPlaying;
     private static Timer timer;
     private static int timerCounter;
@@ -99,7 +100,7 @@ public class MusicPlayer extends Application {
 
         try {
             // Load main layout from fxml file.
-            FXMLLoader loader = new FXMLLoader(this.getClass().getResource(Resources.FXML + "SplashScreen.fxml"));
+            ViewLoader loader = new ViewLoader("SplashScreen.fxml");
             VBox view = loader.load();
 
             // Shows the scene containing the layout.
@@ -122,29 +123,28 @@ public class MusicPlayer extends Application {
             Library.getArtists();
             Library.getPlaylists();
 
-            nowPlayingList = Library.loadPlayingList();
+            ArrayList<Song> playingList = Library.loadPlayingList();
 
-            if (nowPlayingList.isEmpty()) {
+            if (playingList.isEmpty()) {
 
                 Artist artist = Library.getArtists().get(0);
 
                 for (Album album : artist.getAlbums()) {
-                    nowPlayingList.addAll(album.getSongs());
+                    playingList.addAll(album.getSongs());
                 }
 
-                Collections.sort(nowPlayingList, (first, second) -> {
-                    Album firstAlbum = Library.getAlbum(first.getAlbum());
-                    Album secondAlbum = Library.getAlbum(second.getAlbum());
-                    if (firstAlbum.compareTo(secondAlbum) != 0) {
-                        return firstAlbum.compareTo(secondAlbum);
+                Collections.sort(playingList, (first, second) -> {
+                    int result = first.getAlbumKey().compareTo(second.getAlbumKey());
+                    if (result != 0) {
+                        return result;
                     } else {
                         return first.compareTo(second);
                     }
                 });
             }
 
+            nowPlayingList.setAll(playingList);
             nowPlaying = nowPlayingList.get(0);
-            nowPlayingIndex = 0;
             nowPlaying.setPlaying(true);
             timer = new Timer();
             timerCounter = 0;
@@ -155,30 +155,10 @@ public class MusicPlayer extends Application {
             mediaPlayer.setVolume(0.5);
             mediaPlayer.setOnEndOfMedia(new SongSkipper());
 
-            File imgFolder = new File(Resources.JAR + "/img");
-            if (!imgFolder.exists()) {
-
-                Thread thread1 = new Thread(() -> {
-                    Library.getArtists().forEach(Artist::downloadArtistImage);
-                });
-
-                Thread thread2 = new Thread(() -> {
-                    Library.getAlbums().forEach(Album::downloadArtwork);
-                });
-
-                thread1.start();
-                thread2.start();
-            }
-
-            new Thread(() -> {
-                XMLEditor.getNewSongs().forEach(song -> {
-                    try {
-                        Library.getArtist(song.getArtist()).downloadArtistImage();
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
-                    }
-                });
-            }).start();
+            // Queues artwork downloads for the whole library. Images that have already been looked up
+            // are skipped by the fetcher, so this only requests artwork for new artists and albums.
+            Library.getArtists().forEach(Artist::downloadArtistImage);
+            Library.getAlbums().forEach(Album::downloadArtwork);
 
             // Calls the function to initialize the main layout.
             Platform.runLater(this::initMain);
@@ -337,7 +317,7 @@ public class MusicPlayer extends Application {
 
     private static void createLibraryXML() {
         try {
-            FXMLLoader loader = new FXMLLoader(MusicPlayer.class.getResource(Resources.FXML + "ImportMusicDialog.fxml"));
+            ViewLoader loader = new ViewLoader("ImportMusicDialog.fxml");
             BorderPane importView = loader.load();
 
             // Create the dialog Stage.
@@ -377,7 +357,7 @@ public class MusicPlayer extends Application {
     private void initMain() {
         try {
             // Load main layout from fxml file.
-            FXMLLoader loader = new FXMLLoader(this.getClass().getResource(Resources.FXML + "Main.fxml"));
+            ViewLoader loader = new ViewLoader("Main.fxml");
             BorderPane view = loader.load();
 
             // Shows the scene containing the layout.
@@ -411,7 +391,7 @@ public class MusicPlayer extends Application {
 
         @Override
         public void run() {
-            Platform.runLater(() -> {
+            UiScheduler.post(Priority.HIGH, () -> {
                 if (timerCounter < length) {
                     if (++timerCounter % 4 == 0) {
                         mainController.updateTimeLabels();
@@ -467,6 +447,7 @@ public class MusicPlayer extends Application {
      * Skips song.
      */
     public static void skip() {
+        int nowPlayingIndex = nowPlayingList.indexOf(nowPlaying);
         if (nowPlayingIndex < nowPlayingList.size() - 1) {
             boolean isPlaying = isPlaying();
             mainController.updatePlayPauseIcon(isPlaying);
@@ -477,20 +458,19 @@ public class MusicPlayer extends Application {
         } else if (isLoopActive) {
             boolean isPlaying = isPlaying();
             mainController.updatePlayPauseIcon(isPlaying);
-            nowPlayingIndex = 0;
-            setNowPlaying(nowPlayingList.get(nowPlayingIndex));
+            setNowPlaying(nowPlayingList.get(0));
             if (isPlaying) {
                 play();
             }
         } else {
             mainController.updatePlayPauseIcon(false);
-            nowPlayingIndex = 0;
-            setNowPlaying(nowPlayingList.get(nowPlayingIndex));
+            setNowPlaying(nowPlayingList.get(0));
         }
     }
 
     public static void back() {
-        if (timerCounter > 20 || nowPlayingIndex == 0) {
+        int nowPlayingIndex = nowPlayingList.indexOf(nowPlaying);
+        if (timerCounter > 20 || nowPlayingIndex <= 0) {
             mainController.initializeTimeSlider();
             seek(0);
         } else {
@@ -521,15 +501,12 @@ public class MusicPlayer extends Application {
 
         isShuffleActive = !isShuffleActive;
 
+        List<Song> songs = nowPlayingList.toList();
         if (isShuffleActive) {
-            Collections.shuffle(nowPlayingList);
+            Collections.shuffle(songs);
         } else {
-            Collections.sort(nowPlayingList, (first, second) -> {
-                int result = Library.getAlbum(first.getAlbum()).compareTo(Library.getAlbum(second.getAlbum()));
-                if (result != 0) {
-                    return result;
-                }
-                result = Library.getAlbum(first.getAlbum()).compareTo(Library.getAlbum(second.getAlbum()));
+            Collections.sort(songs, (first, second) -> {
+                int result = first.getAlbumKey().compareTo(second.getAlbumKey());
                 if (result != 0) {
                     return result;
                 }
@@ -537,8 +514,7 @@ public class MusicPlayer extends Application {
                 return result;
             });
         }
-
-        nowPlayingIndex = nowPlayingList.indexOf(nowPlaying);
+        nowPlayingList.setAll(songs);
 
         if (mainController.getSubViewController() instanceof NowPlayingController) {
             mainController.loadView("nowPlaying");
@@ -563,21 +539,37 @@ public class MusicPlayer extends Application {
 
     /**
      * Gets currently playing song list.
-     * @return arraylist of now playing songs
+     * @return read-only live view of the now playing songs
+     */
+    public static List<Song> getNowPlayingList() {
+        return nowPlayingList.view();
+    }
+
+    /**
+     * Gets the now playing list itself, for adding, removing and moving songs and following its changes.
+     * @return now playing queue
      */
-    public static ArrayList<Song> getNowPlayingList() {
-        return nowPlayingList == null ? new ArrayList<>() : new ArrayList<>(nowPlayingList);
+    public static PlayQueue getPlayQueue() {
+        return nowPlayingList;
     }
 
     public static void addSongToNowPlayingList(Song song) {
-        if (!nowPlayingList.contains(song)) {
-            nowPlayingList.add(song);
+        if (nowPlayingList.enqueue(song)) {
             Library.savePlayingList();
         }
     }
 
+    /**
+     * Queues a song to play after the current song.
+     * @param song song to play next
+     */
+    public static void playNext(Song song) {
+        nowPlayingList.playNext(song, nowPlaying);
+        Library.savePlayingList();
+    }
+
     public static void setNowPlayingList(List<Song> list) {
-        nowPlayingList = new ArrayList<>(list);
+        nowPlayingList.setAll(list);
         Library.savePlayingList();
     }
 
@@ -585,7 +577,6 @@ public class MusicPlayer extends Application {
         if (nowPlayingList.contains(song)) {
 
             updatePlayCount();
-            nowPlayingIndex = nowPlayingList.indexOf(song);
             if (nowPlaying != null) {
                 nowPlaying.setPlaying(false);
             }
@@ -617,6 +608,7 @@ public class MusicPlayer extends Application {
             int length = (int) nowPlaying.getLengthInSeconds();
             if ((100 * secondsPlayed / length) > 50) {
                 nowPlaying.played();
+                Library.getPlayHistory().record(nowPlaying.getId(), System.currentTimeMillis(), secondsPlayed);
             }
         }
     }
@@ -0,0 +1,323 @@
+package app.musicplayer;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import app.musicplayer.model.Song;
+import app.musicplayer.util.IndexedList;
+
+/**
+ * Songs of the now playing list, in play order, with each song at most once.
+ *
+ * The songs are kept in an IndexedList, so checking whether a song is queued takes constant time, and finding
+ * its position, adding it at a position, removing it or moving it takes logarithmic time whatever the size of
+ * the queue. Listeners are told about each change as a delta instead of reading the whole queue again.
+ * Every change increments the version of the queue, so a listener can tell when it missed a change.
+ */
+public final class PlayQueue {
+
+    /**
+     * Change of the queue.
+     */
+    public static final class Change {
+
+        /**
+         * Kinds of changes. A reset replaces all songs of the queue.
+         */
+        public enum Type { ADD, REMOVE, MOVE, RESET }
+
+        private final Type type;
+        private final Song song;
+        private final int from;
+        private final int to;
+        private final List<Song> songs;
+        private final long version;
+
+        private Change(Type type, Song song, int from, int to, List<Song> songs, long version) {
+            this.type = type;
+            this.song = song;
+            this.from = from;
+            this.to = to;
+            this.songs = songs;
+            this.version = version;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Gets the song that was added, removed or moved.
+         *
+         * @return changed song, or null for a reset
+         */
+        public Song getSong() {
+            return song;
+        }
+
+        /**
+         * Gets the position the song was removed or moved from.
+         *
+         * @return previous position, or -1 for an added song and a reset
+         */
+        public int getFrom() {
+            return from;
+        }
+
+        /**
+         * Gets the position the song was added or moved to.
+         *
+         * @return new position, or -1 for a removed song and a reset
+         */
+        public int getTo() {
+            return to;
+        }
+
+        /**
+         * Gets the songs of the queue after a reset.
+         *
+         * @return unmodifiable list of the songs, or an empty list if the change is not a reset
+         */
+        public List<Song> getSongs() {
+            return songs;
+        }
+
+        /**
+         * Gets the version of the queue after the change, which is one more than the version before it.
+         *
+         * @return version of the queue
+         */
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private final IndexedList<Song> songs = new IndexedList<>(Song::getId);
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+    // Number of changes made to the queue, counted under its lock.
+    private long version;
+    private final List<Song> view = new AbstractList<Song>() {
+
+        @Override
+        public Song get(int index) {
+            return songs.get(index);
+        }
+
+        @Override
+        public int size() {
+            return songs.size();
+        }
+
+        @Override
+        public boolean contains(Object item) {
+            return item instanceof Song && PlayQueue.this.contains((Song) item);
+        }
+
+        @Override
+        public int indexOf(Object item) {
+            return item instanceof Song ? PlayQueue.this.indexOf((Song) item) : -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object item) {
+            return indexOf(item);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return songs.toList().toArray();
+        }
+    };
+
+    /**
+     * Replaces the songs of the queue, leaving out songs that appear more than once.
+     *
+     * @param list songs in play order
+     */
+    public void setAll(List<Song> list) {
+        Change change;
+        synchronized (this) {
+            songs.clear();
+            for (Song song : list) {
+                if (song != null) {
+                    songs.add(song);
+                }
+            }
+            change = snapshot(++version);
+        }
+        fire(change);
+    }
+
+    /**
+     * Adds a song at the end of the queue, unless it is already queued.
+     *
+     * @param song song to add
+     * @return true if the song was added
+     */
+    public boolean enqueue(Song song) {
+        Change change;
+        synchronized (this) {
+            if (!songs.add(song)) {
+                return false;
+            }
+            change = new Change(Change.Type.ADD, song, -1, songs.size() - 1, Collections.emptyList(), ++version);
+        }
+        fire(change);
+        return true;
+    }
+
+    /**
+     * Queues a song to play after another song, moving it there if it is already queued.
+     *
+     * @param song song to play next
+     * @param current song it should play after, or null to play it first
+     */
+    public void playNext(Song song, Song current) {
+        if (song == current) {
+            return;
+        }
+        Change change;
+        synchronized (this) {
+            int from = indexOf(song);
+            int after = current == null ? -1 : indexOf(current);
+            if (from < 0) {
+                songs.add(after + 1, song);
+                change = new Change(Change.Type.ADD, song, -1, after + 1, Collections.emptyList(), ++version);
+            } else {
+                // Taking the song out shifts the songs after it back by one.
+                int to = from <= after ? after : after + 1;
+                if (to == from) {
+                    return;
+                }
+                songs.move(song.getId(), to);
+                change = new Change(Change.Type.MOVE, song, from, to, Collections.emptyList(), ++version);
+            }
+        }
+        fire(change);
+    }
+
+    /**
+     * Removes a song from the queue.
+     *
+     * @param song song to remove
+     * @return true if the song was queued
+     */
+    public boolean remove(Song song) {
+        Change change;
+        synchronized (this) {
+            int from = indexOf(song);
+            if (from < 0) {
+                return false;
+            }
+            songs.remove(song.getId());
+            change = new Change(Change.Type.REMOVE, song, from, -1, Collections.emptyList(), ++version);
+        }
+        fire(change);
+        return true;
+    }
+
+    /**
+     * Moves a queued song to a new position.
+     *
+     * @param song song to move
+     * @param index new position of the song
+     * @return true if the song was queued
+     * @throws IndexOutOfBoundsException if the position is not in the queue
+     */
+    public boolean move(Song song, int index) {
+        Change change = null;
+        synchronized (this) {
+            int from = indexOf(song);
+            if (from < 0) {
+                return false;
+            }
+            songs.move(song.getId(), index);
+            if (from != index) {
+                change = new Change(Change.Type.MOVE, song, from, index, Collections.emptyList(), ++version);
+            }
+        }
+        if (change != null) {
+            fire(change);
+        }
+        return true;
+    }
+
+    public boolean contains(Song song) {
+        return song != null && songs.contains(song.getId());
+    }
+
+    /**
+     * Gets the position of a song in the queue.
+     *
+     * @param song song to look for
+     * @return position of the song, or -1 if it is not queued
+     */
+    public int indexOf(Song song) {
+        return song == null ? -1 : songs.indexOf(song.getId());
+    }
+
+    public Song get(int index) {
+        return songs.get(index);
+    }
+
+    public int size() {
+        return songs.size();
+    }
+
+    public boolean isEmpty() {
+        return songs.size() == 0;
+    }
+
+    /**
+     * Gets a read-only view of the queue that follows its changes without copying it.
+     *
+     * @return unmodifiable live list of the songs
+     */
+    public List<Song> view() {
+        return view;
+    }
+
+    /**
+     * Gets a copy of the songs in the queue.
+     *
+     * @return new list of the songs in play order
+     */
+    public List<Song> toList() {
+        return songs.toList();
+    }
+
+    /**
+     * Gets the songs of the queue as a reset to the current version, for a listener that missed a change.
+     *
+     * @return reset change with the songs of the queue and its version
+     */
+    public synchronized Change snapshot() {
+        return snapshot(version);
+    }
+
+    /**
+     * Adds a listener that is told about every change of the queue, on the thread that made the change.
+     *
+     * @param listener change listener
+     */
+    public void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Change> listener) {
+        listeners.remove(listener);
+    }
+
+    private Change snapshot(long version) {
+        return new Change(Change.Type.RESET, null, -1, -1, Collections.unmodifiableList(songs.toList()), version);
+    }
+
+    private void fire(Change change) {
+        for (Consumer<Change> listener : listeners) {
+            listener.accept(change);
+        }
+    }
+}
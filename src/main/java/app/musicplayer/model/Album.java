@@ -1,24 +1,21 @@
 package app.musicplayer.model;
 
-import java.awt.Color;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.net.URL;
-import java.net.URLEncoder;
+import java.text.CollationKey;
 import java.util.ArrayList;
-
-import javax.imageio.ImageIO;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamReader;
+import java.util.Collections;
+import java.util.List;
 
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.AudioFileIO;
 import org.jaudiotagger.tag.Tag;
-import org.jaudiotagger.tag.images.Artwork;
-import org.jaudiotagger.tag.images.ArtworkFactory;
 
+import app.musicplayer.util.ArtworkFetcher;
+import app.musicplayer.util.Collation;
 import app.musicplayer.util.Resources;
+import app.musicplayer.util.UiScheduler;
+import app.musicplayer.util.UiScheduler.Priority;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.image.Image;
@@ -27,14 +24,16 @@ public final class Album implements Comparable<Album> {
 
     private int id;
     private String title;
+    private CollationKey sortKey;
     private String artist;
     private Image artwork;
     private ArrayList<Song> songs;
+    private List<Song> unmodifiableSongs;
     private SimpleObjectProperty<Image> artworkProperty;
 
     /**
      * Constructor for the Album class. 
-     * Creates an album object and obtains the album artwork.
+     * Creates an album object. The album artwork is obtained when it is first requested.
      *
      * @param id
      * @param title
@@ -44,9 +43,11 @@ public final class Album implements Comparable<Album> {
     public Album(int id, String title, String artist, ArrayList<Song> songs) {
         this.id = id;
         this.title = title;
+        this.sortKey = Collation.key(title);
         this.artist = artist;
         this.songs = songs;
-        this.artworkProperty = new SimpleObjectProperty<>(getArtwork());
+        this.unmodifiableSongs = Collections.unmodifiableList(songs);
+        this.artworkProperty = new SimpleObjectProperty<>();
     }
 
     /**
@@ -71,17 +72,33 @@ public final class Album implements Comparable<Album> {
         return this.artist;
     }
 
-    public ArrayList<Song> getSongs() {
-        return new ArrayList<>(this.songs);
+    public List<Song> getSongs() {
+        return this.unmodifiableSongs;
     }
 
     public ObjectProperty<Image> artworkProperty() {
+        if (this.artworkProperty.get() == null) {
+            this.artworkProperty.set(getArtwork());
+        }
         return this.artworkProperty;
     }
 
     public Image getArtwork() {
         if (this.artwork == null) {
 
+            File file = ArtworkFetcher.getInstance().getAlbumArtworkFile(this.artist, this.title);
+            if (file.exists()) {
+                try {
+                    this.artwork = new Image(file.toURI().toURL().toString(), 300, 300, true, true);
+                    if (!this.artwork.isError()) {
+                        return this.artwork;
+                    }
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+                file.delete();
+            }
+
             try {
                 String location = this.songs.get(0).getLocation();
                 AudioFile audioFile = AudioFileIO.read(new File(location));
@@ -101,98 +118,35 @@ public final class Album implements Comparable<Album> {
         return this.artwork;
     }
 
+    /**
+     * Queues the album artwork for download into the artwork cache.
+     * The artwork property is updated once the download completes.
+     */
     public void downloadArtwork() {
-        try {
-            XMLInputFactory factory = XMLInputFactory.newInstance();
-            URL xmlData = new URL(Resources.APIBASE
-                    + "method=album.getinfo"
-                    + "&artist=" + URLEncoder.encode(this.artist, "UTF-8")
-                    + "&album=" + URLEncoder.encode(this.title, "UTF-8")
-                    + "&api_key=" + Resources.APIKEY);
-
-            XMLStreamReader reader = factory.createXMLStreamReader(xmlData.openStream(), "UTF-8");
-
-            while (reader.hasNext()) {
-
-                reader.next();
-
-                if (reader.isStartElement()
-                        && reader.getName().getLocalPart().equals("image")
-                        && reader.getAttributeValue(0).equals("extralarge")) {
-
-                    reader.next();
-
-                    if (reader.hasText()) {
-                        BufferedImage bufferedImage = ImageIO.read(new URL(reader.getText()));
-                        BufferedImage newBufferedImage = new BufferedImage(bufferedImage.getWidth(),
-                                bufferedImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-                        newBufferedImage.createGraphics().drawImage(bufferedImage, 0, 0, Color.WHITE, null);
-                        File file = File.createTempFile("temp", "temp");
-                        ImageIO.write(newBufferedImage, "jpg", file);
-
-                        for (Song song : this.songs) {
-
-                            AudioFile audioFile = AudioFileIO.read(new File(song.getLocation()));
-                            Tag tag = audioFile.getTag();
-                            tag.deleteArtworkField();
-
-                            Artwork artwork = ArtworkFactory.createArtworkFromFile(file);
-                            tag.setField(artwork);
-                            AudioFileIO.write(audioFile);
-                        }
-
-                        file.delete();
-                    }
-                }
+        ArtworkFetcher.getInstance().fetchAlbumArtwork(this.artist, this.title).whenComplete((file, ex) -> {
+            if (ex != null) {
+                ex.printStackTrace();
+            } else if (file != null) {
+                UiScheduler.post(Priority.LOW, () -> {
+                    this.artwork = null;
+                    this.artworkProperty.setValue(getArtwork());
+                });
             }
-            String location = this.songs.get(0).getLocation();
-            AudioFile audioFile = AudioFileIO.read(new File(location));
-            Tag tag = audioFile.getTag();
-            byte[] bytes = tag.getFirstArtwork().getBinaryData();
-            ByteArrayInputStream in = new ByteArrayInputStream(bytes);
-            this.artwork = new Image(in, 300, 300, true, true);
-
-            if (this.artwork.isError()) {
-
-                this.artwork = new Image(Resources.IMG + "albumsIcon.png");
-            }
-
-            this.artworkProperty.setValue(artwork);
+        });
+    }
 
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
+    /**
+     * Gets the sort key of the title, which the albums are sorted and listed under letters by.
+     *
+     * @return sort key
+     */
+    public CollationKey getSortKey() {
+        return this.sortKey;
     }
 
     @Override
     public int compareTo(Album other) {
-        String first = removeArticle(this.title);
-        String second = removeArticle(other.title);
-
-        return first.compareTo(second);
-    }
-
-    private String removeArticle(String title) {
-
-        String arr[] = title.split(" ", 2);
-
-        if (arr.length < 2) {
-
-            return title;
-
-        } else {
-
-            String firstWord = arr[0];
-            String theRest = arr[1];
-
-            switch (firstWord) {
-                case "A":
-                case "An":
-                case "The":
-                    return theRest;
-                default:
-                    return title;
-            }
-        }
+        int result = this.sortKey.compareTo(other.sortKey);
+        return result != 0 ? result : this.title.compareTo(other.title);
     }
 }
@@ -1,17 +1,16 @@
 package app.musicplayer.model;
 
-import java.awt.Color;
-import java.awt.image.BufferedImage;
 import java.io.File;
-import java.net.URL;
-import java.net.URLEncoder;
+import java.text.CollationKey;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
-import javax.imageio.ImageIO;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamReader;
-
+import app.musicplayer.util.ArtworkFetcher;
+import app.musicplayer.util.Collation;
 import app.musicplayer.util.Resources;
+import app.musicplayer.util.UiScheduler;
+import app.musicplayer.util.UiScheduler.Priority;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.image.Image;
@@ -23,21 +22,25 @@ import javafx.scene.image.Image;
 public final class Artist implements Comparable<Artist> {
 
     private String title;
+    private CollationKey sortKey;
     private ArrayList<Album> albums;
+    private List<Album> unmodifiableAlbums;
     private Image artistImage;
     private SimpleObjectProperty<Image> artistImageProperty;
 
     /**
      * Constructor for the Artist class.
-     * Creates an artist object and obtains the artist artwork.
+     * Creates an artist object. The artist image is obtained when it is first requested.
      *
      * @param title Artist name
      * @param albums List of artist albums
      */
     public Artist(String title, ArrayList<Album> albums) {
         this.title = title;
+        this.sortKey = Collation.key(title);
         this.albums = albums;
-        this.artistImageProperty = new SimpleObjectProperty<>(getArtistImage());
+        this.unmodifiableAlbums = Collections.unmodifiableList(albums);
+        this.artistImageProperty = new SimpleObjectProperty<>();
     }
 
     /**
@@ -49,14 +52,17 @@ public final class Artist implements Comparable<Artist> {
     }
 
     /**
-     * Gets array list of artist albums
+     * Gets a read-only list of artist albums
      * @return artist albums
      */
-    public ArrayList<Album> getAlbums() {
-        return new ArrayList<>(this.albums);
+    public List<Album> getAlbums() {
+        return this.unmodifiableAlbums;
     }
 
     public ObjectProperty<Image> artistImageProperty() {
+        if (this.artistImageProperty.get() == null) {
+            this.artistImageProperty.set(getArtistImage());
+        }
         return this.artistImageProperty;
     }
 
@@ -66,15 +72,14 @@ public final class Artist implements Comparable<Artist> {
      */
     public Image getArtistImage() {
         if (artistImage == null) {
+            File file = ArtworkFetcher.getInstance().getArtistImageFile(this.title);
             try {
-                File file = new File(Resources.JAR + "/img/" + this.title + ".jpg");
                 artistImage = new Image(file.toURI().toURL().toString());
                 if (artistImage.isError()) {
                     file.delete();
                     artistImage = new Image(Resources.IMG + "artistsIcon.png");
                 }
             } catch (Exception ex) {
-                File file = new File(Resources.JAR + "/img/" + this.title + ".jpg");
                 file.delete();
                 artistImage = new Image(Resources.IMG + "artistsIcon.png");
             }
@@ -83,78 +88,35 @@ public final class Artist implements Comparable<Artist> {
         return artistImage;
     }
 
+    /**
+     * Queues the artist image for download into the artwork cache.
+     * The artist image property is updated once the download completes.
+     */
     public void downloadArtistImage() {
-        try {
-            File file = new File(Resources.JAR + "/img/" + this.title + ".jpg");
-            file.mkdirs();
-            XMLInputFactory factory = XMLInputFactory.newInstance();
-            URL xmlData = new URL(Resources.APIBASE
-                    + "method=artist.getinfo"
-                    + "&artist=" + URLEncoder.encode(this.title, "UTF-8")
-                    + "&api_key=" + Resources.APIKEY);
-            XMLStreamReader reader = factory.createXMLStreamReader(xmlData.openStream(), "UTF-8");
-            boolean imageFound = false;
-
-            while (reader.hasNext() && !imageFound) {
-                reader.next();
-
-                if (reader.isStartElement()
-                        && reader.getName().getLocalPart().equals("image")
-                        && reader.getAttributeValue(0).equals("extralarge")) {
-
-                    reader.next();
-
-                    if (reader.hasText()) {
-                        BufferedImage bufferedImage = ImageIO.read(new URL(reader.getText()));
-                        BufferedImage newBufferedImage = new BufferedImage(bufferedImage.getWidth(),
-                                bufferedImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-                        newBufferedImage.createGraphics().drawImage(bufferedImage, 0, 0, Color.WHITE, null);
-                        ImageIO.write(newBufferedImage, "jpg", file);
-                        imageFound = true;
-                    }
-                }
+        ArtworkFetcher.getInstance().fetchArtistImage(this.title).whenComplete((file, ex) -> {
+            if (ex != null) {
+                ex.printStackTrace();
+            } else if (file != null) {
+                UiScheduler.post(Priority.LOW, () -> {
+                    artistImage = null;
+                    this.artistImageProperty.setValue(getArtistImage());
+                });
             }
+        });
+    }
 
-            artistImage = new Image(file.toURI().toURL().toString());
-            if (artistImage.isError()) {
-                file.delete();
-                artistImage = new Image(Resources.IMG + "artistsIcon.png");
-            }
-            this.artistImageProperty.setValue(artistImage);
-
-        } catch (Exception ex) {
-            File file = new File(Resources.JAR + "/img/" + this.title + ".jpg");
-            file.delete();
-        }
+    /**
+     * Gets the sort key of the title, which the artists are sorted and listed under letters by.
+     *
+     * @return sort key
+     */
+    public CollationKey getSortKey() {
+        return this.sortKey;
     }
 
     @Override
     public int compareTo(Artist other) {
-        String first = removeArticle(this.title);
-        String second = removeArticle(other.title);
-
-        return first.compareTo(second);
-    }
-
-    private String removeArticle(String title) {
-
-        String arr[] = title.split(" ", 2);
-
-        if (arr.length < 2) {
-            return title;
-        } else {
-
-            String firstWord = arr[0];
-            String theRest = arr[1];
-
-            switch (firstWord) {
-                case "A":
-                case "An":
-                case "The":
-                    return theRest;
-                default:
-                    return title;
-            }
-        }
+        int result = this.sortKey.compareTo(other.sortKey);
+        return result != 0 ? result : this.title.compareTo(other.title);
     }
 }
\ No newline at end of file
@@ -0,0 +1,292 @@
+package app.musicplayer.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import app.musicplayer.util.CompressedBitmap;
+
+/**
+ * Bitmap indexes over the song ids of the library, one for each value of each facet the songs can be
+ * filtered by: artist, album, whether the song was played, and its length range.
+ *
+ * Filtering by several facets intersects their bitmaps, and the count shown next to each facet is the size
+ * of its intersection with the current filter, which is computed without building the intersection. Neither
+ * looks at the songs themselves. The library keeps the index up to date as songs are played.
+ */
+public final class FacetIndex {
+
+    /**
+     * Length ranges songs are grouped into.
+     */
+    public enum LengthRange {
+
+        UNDER_TWO_MINUTES(0, 120),
+        TWO_TO_FIVE_MINUTES(120, 300),
+        FIVE_TO_TEN_MINUTES(300, 600),
+        OVER_TEN_MINUTES(600, Long.MAX_VALUE);
+
+        private final long from;
+        private final long to;
+
+        LengthRange(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Gets the range of a song length.
+         *
+         * @param seconds length in seconds
+         * @return range that includes the length
+         */
+        public static LengthRange of(long seconds) {
+            for (LengthRange range : values()) {
+                if (seconds < range.to) {
+                    return range;
+                }
+            }
+            return OVER_TEN_MINUTES;
+        }
+
+        public long getFrom() {
+            return from;
+        }
+
+        public long getTo() {
+            return to;
+        }
+    }
+
+    /**
+     * Value of a facet that songs can be filtered by.
+     */
+    public static final class Facet {
+
+        public static final Facet PLAYED = new Facet(Kind.PLAY_STATE, "played");
+        public static final Facet NEVER_PLAYED = new Facet(Kind.PLAY_STATE, "never played");
+
+        public enum Kind { ARTIST, ALBUM, PLAY_STATE, LENGTH }
+
+        private final Kind kind;
+        private final Object value;
+
+        private Facet(Kind kind, Object value) {
+            this.kind = kind;
+            this.value = value;
+        }
+
+        public static Facet artist(String artist) {
+            return new Facet(Kind.ARTIST, artist);
+        }
+
+        public static Facet album(String album) {
+            return new Facet(Kind.ALBUM, album);
+        }
+
+        public static Facet length(LengthRange range) {
+            return new Facet(Kind.LENGTH, range);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Facet)) {
+                return false;
+            }
+            Facet facet = (Facet) other;
+            return kind == facet.kind && Objects.equals(value, facet.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return kind.hashCode() * 31 + Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + value;
+        }
+    }
+
+    private final Map<Integer, Song> songs = new HashMap<>();
+    private final Map<Facet, CompressedBitmap> bitmaps = new HashMap<>();
+    private final CompressedBitmap all = new CompressedBitmap();
+
+    /**
+     * Constructor for the FacetIndex class.
+     *
+     * @param songs songs to index
+     */
+    public FacetIndex(Collection<Song> songs) {
+        for (Song song : songs) {
+            add(song);
+        }
+    }
+
+    /**
+     * Adds a song to the bitmaps of its facets.
+     *
+     * @param song song to add
+     */
+    public synchronized void add(Song song) {
+        songs.put(song.getId(), song);
+        all.add(song.getId());
+        for (Facet facet : facetsOf(song)) {
+            bitmaps.computeIfAbsent(facet, x -> new CompressedBitmap()).add(song.getId());
+        }
+    }
+
+    /**
+     * Removes a song from the bitmaps of its facets.
+     *
+     * @param song song to remove
+     */
+    public synchronized void remove(Song song) {
+        if (songs.remove(song.getId()) == null) {
+            return;
+        }
+        all.remove(song.getId());
+        for (Facet facet : facetsOf(song)) {
+            removeFrom(facet, song.getId());
+        }
+    }
+
+    /**
+     * Moves a song whose play count changed to its new play state.
+     *
+     * @param song song that was played
+     */
+    public synchronized void playCountChanged(Song song) {
+        if (!songs.containsKey(song.getId())) {
+            return;
+        }
+        Facet state = song.getPlayCount() > 0 ? Facet.PLAYED : Facet.NEVER_PLAYED;
+        removeFrom(state == Facet.PLAYED ? Facet.NEVER_PLAYED : Facet.PLAYED, song.getId());
+        bitmaps.computeIfAbsent(state, x -> new CompressedBitmap()).add(song.getId());
+    }
+
+    /**
+     * Counts the songs that have all the facets.
+     *
+     * @param filter facets the songs must have, or none for all songs
+     * @return number of matching songs
+     */
+    public synchronized int count(Collection<Facet> filter) {
+        if (filter.isEmpty()) {
+            return all.cardinality();
+        }
+        // The last facet is counted against the others without building the full intersection.
+        List<Facet> facets = new ArrayList<>(filter);
+        Facet last = facets.remove(facets.size() - 1);
+        return intersect(facets).andCardinality(bitmap(last));
+    }
+
+    /**
+     * Counts the songs of each facet among the songs that have all the filter facets, such as the count
+     * shown on each filter chip.
+     *
+     * @param facets facets to count
+     * @param filter facets the songs must have, or none for all songs
+     * @return number of songs of each facet, in the order of the facets
+     */
+    public synchronized Map<Facet, Integer> counts(Collection<Facet> facets, Collection<Facet> filter) {
+        CompressedBitmap selected = intersect(filter);
+        Map<Facet, Integer> counts = new LinkedHashMap<>();
+        for (Facet facet : facets) {
+            counts.put(facet, selected.andCardinality(bitmap(facet)));
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the ids of the songs that have all the facets.
+     *
+     * @param filter facets the songs must have, or none for all songs
+     * @return bitmap of the song ids
+     */
+    public synchronized CompressedBitmap select(Collection<Facet> filter) {
+        CompressedBitmap selected = intersect(filter);
+        // The bitmaps of the index are never handed out, since they change as songs are added and played.
+        return filter.size() > 1 ? selected : selected.copy();
+    }
+
+    /**
+     * Gets the songs that have all the facets.
+     *
+     * @param filter facets the songs must have, or none for all songs
+     * @return matching songs in ascending order of their ids
+     */
+    public synchronized List<Song> songs(Collection<Facet> filter) {
+        int[] ids = select(filter).toArray();
+        List<Song> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(songs.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the facets of a kind that have at least one song, such as all artists.
+     *
+     * @param kind kind of facets
+     * @return facets of the kind
+     */
+    public synchronized List<Facet> facets(Facet.Kind kind) {
+        List<Facet> facets = new ArrayList<>();
+        for (Facet facet : bitmaps.keySet()) {
+            if (facet.kind == kind) {
+                facets.add(facet);
+            }
+        }
+        return facets;
+    }
+
+    // Intersection of the bitmaps of the facets, which is one of the bitmaps of the index for less than two facets.
+    private CompressedBitmap intersect(Collection<Facet> filter) {
+        CompressedBitmap selected = all;
+        for (Facet facet : filter) {
+            selected = selected == all ? bitmap(facet) : selected.and(bitmap(facet));
+        }
+        return selected;
+    }
+
+    private CompressedBitmap bitmap(Facet facet) {
+        CompressedBitmap bitmap = bitmaps.get(facet);
+        return bitmap == null ? new CompressedBitmap() : bitmap;
+    }
+
+    private void removeFrom(Facet facet, int id) {
+        CompressedBitmap bitmap = bitmaps.get(facet);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(facet);
+            }
+        }
+    }
+
+    private static List<Facet> facetsOf(Song song) {
+        List<Facet> facets = new ArrayList<>(4);
+        if (song.getArtist() != null) {
+            facets.add(Facet.artist(song.getArtist()));
+        }
+        if (song.getAlbum() != null) {
+            facets.add(Facet.album(song.getAlbum()));
+        }
+        facets.add(song.getPlayCount() > 0 ? Facet.PLAYED : Facet.NEVER_PLAYED);
+        facets.add(Facet.length(LengthRange.of(song.getLengthInSeconds())));
+        return facets;
+    }
+}
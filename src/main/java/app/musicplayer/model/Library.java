@@ -2,10 +2,23 @@ package app.musicplayer.model;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.text.CollationKey;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -33,9 +46,11 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import app.musicplayer.MusicPlayer;
+import app.musicplayer.util.IdListCodec;
 import app.musicplayer.util.ImportMusicTask;
 import app.musicplayer.util.Resources;
-import javafx.collections.FXCollections;
+import app.musicplayer.util.SortedIndex;
+import app.musicplayer.util.VersionedList;
 import javafx.collections.ObservableList;
 
 public final class Library {
@@ -50,14 +65,107 @@ public final class Library {
     private static final String PLAYCOUNT = "playCount";
     private static final String PLAYDATE = "playDate";
     private static final String LOCATION = "location";
-
-    private static ArrayList<Song> songs;
-    private static ArrayList<Artist> artists;
-    private static ArrayList<Album> albums;
-    private static ArrayList<Playlist> playlists;
+    // Encoded id lists of playlists and the now playing list.
+    private static final String SONG_IDS = "songIds";
+    private static final String IDS = "ids";
+
+    // Lists of the current snapshot. A list is never modified once it has been assigned here: changes
+    // build a new list under the library lock, assign it and publish a new snapshot.
+    private static volatile ArrayList<Song> songs;
+    private static volatile ArrayList<Artist> artists;
+    private static volatile ArrayList<Album> albums;
+    private static volatile ArrayList<Playlist> playlists;
+    private static final AtomicReference<LibrarySnapshot> snapshot = new AtomicReference<>(LibrarySnapshot.EMPTY);
+
+    // Playlists are listed by descending id.
+    private static final Comparator<Playlist> PLAYLIST_ORDER = (x, y) -> {
+        if (x.getId() < y.getId()) {
+            return 1;
+        } else if (x.getId() > y.getId()) {
+            return -1;
+        } else {
+            return 0;
+        }
+    };
     private static int maxProgress;
     private static ImportMusicTask<Boolean> task;
 
+    /**
+     * Kinds of changes reported to library change listeners.
+     */
+    public enum Change { PLAYLISTS, PLAYS }
+
+    private static final List<Consumer<Change>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Orders in which the library keeps its songs sorted.
+     */
+    public enum SongOrder {
+
+        TITLE(Comparator.comparing(Song::getTitleKey).thenComparingInt(Song::getId), Song::getTitleKey),
+        ARTIST(Comparator.comparing(Song::getArtistKey).thenComparing(Song::getAlbumKey)
+                .thenComparing(Comparator.<Song>naturalOrder()).thenComparingInt(Song::getId), Song::getArtistKey),
+        ALBUM(Comparator.comparing(Song::getAlbumKey).thenComparing(Comparator.<Song>naturalOrder())
+                .thenComparingInt(Song::getId), Song::getAlbumKey),
+        PLAY_COUNT(Comparator.comparingInt(Song::getPlayCount).reversed().thenComparing(Song::getTitleKey)
+                .thenComparingInt(Song::getId), null);
+
+        private final Comparator<Song> comparator;
+        // Sort key of the title the order lists the songs under a letter by, or null for an order without letters.
+        private final Function<Song, CollationKey> key;
+
+        SongOrder(Comparator<Song> comparator, Function<Song, CollationKey> key) {
+            this.comparator = comparator;
+            this.key = key;
+        }
+
+        /**
+         * Gets the comparator that sorts songs in this order.
+         *
+         * @return song comparator
+         */
+        public Comparator<Song> comparator() {
+            return comparator;
+        }
+    }
+
+    // Sorted orderings of the current song, album and artist lists, built when first requested.
+    private static final Map<SongOrder, SortedIndex<Song>> songOrders = new EnumMap<>(SongOrder.class);
+    private static List<Song> songOrdersSource;
+    private static SortedIndex<Album> sortedAlbums;
+    private static List<Album> sortedAlbumsSource;
+    private static SortedIndex<Artist> sortedArtists;
+    private static List<Artist> sortedArtistsSource;
+    // Play counts and dates of the songs, kept beside library.xml.
+    private static final String PLAY_STATS = "playstats.bin";
+    private static PlayStats playStats;
+
+    // History of every play, kept in a directory beside library.xml and opened when first requested.
+    private static final String PLAY_HISTORY = "history";
+    private static PlayHistory playHistory;
+
+    // Bitmap indexes of the current song list for filtering by facets, built when first requested.
+    private static FacetIndex facets;
+    private static List<Song> facetsSource;
+
+    // Read-only views over the song, album, artist and playlist lists, handed out instead of copies.
+    // They are created and pointed at the current lists under the library lock, whenever a list is published.
+    private static volatile VersionedList<Song> songsView;
+    private static volatile VersionedList<Album> albumsView;
+    private static volatile VersionedList<Artist> artistsView;
+    private static volatile VersionedList<Playlist> playlistsView;
+    // Set when the default playlists were added since the playlist list was last sorted.
+    private static volatile boolean playlistsUnsorted;
+
+    // Writes of library.xml, made one at a time in the order they were queued, so that no write reads the file
+    // while another one replaces it. The thread ends when there is nothing left to write.
+    private static final ThreadPoolExecutor xmlWriter = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "library-writer"));
+
+    static {
+        xmlWriter.allowCoreThreadTimeOut(true);
+    }
+
     public static void importMusic(String path, ImportMusicTask<Boolean> task) throws Exception {
 
         Library.maxProgress = 0;
@@ -118,6 +226,14 @@ public final class Library {
         StreamResult result = new StreamResult(xmlFile);
         transformer.transform(source, result);
 
+        // The play statistics and history of the previous library belong to its song ids.
+        synchronized (Library.class) {
+            playStats = null;
+            Files.deleteIfExists(Paths.get(Resources.JAR + PLAY_STATS));
+            playHistory = null;
+            PlayHistory.delete(Paths.get(Resources.JAR + PLAY_HISTORY));
+        }
+
         Library.maxProgress = 0;
         Library.task = null;
     }
@@ -155,8 +271,6 @@ public final class Library {
                     Element length = doc.createElement("length");
                     Element trackNumber = doc.createElement("trackNumber");
                     Element discNumber = doc.createElement("discNumber");
-                    Element playCount = doc.createElement("playCount");
-                    Element playDate = doc.createElement("playDate");
                     Element location = doc.createElement("location");
 
                     id.setTextContent(Integer.toString(i++));
@@ -178,8 +292,6 @@ public final class Library {
                     discNumber.setTextContent(
                             (disc == null || disc.equals("") || disc.equals("null")) ? "0" : disc
                     );
-                    playCount.setTextContent("0");
-                    playDate.setTextContent(LocalDateTime.now().toString());
                     location.setTextContent(Paths.get(file.getAbsolutePath()).toString());
 
                     song.appendChild(id);
@@ -189,8 +301,6 @@ public final class Library {
                     song.appendChild(length);
                     song.appendChild(trackNumber);
                     song.appendChild(discNumber);
-                    song.appendChild(playCount);
-                    song.appendChild(playDate);
                     song.appendChild(location);
 
                     task.updateProgress(i, Library.maxProgress);
@@ -231,17 +341,35 @@ public final class Library {
     }
 
     /**
-     * Gets a list of songs.
+     * Gets a list of songs. The list is a read-only view of the library songs, not a copy.
      * @return observable list of songs
      */
     public static ObservableList<Song> getSongs() {
         // If the observable list of songs has not been initialized.
         if (songs == null) {
-            songs = new ArrayList<>();
-            // Updates the songs array list.
-            updateSongsList();
+            synchronized (Library.class) {
+                if (songs == null) {
+                    // The songs are read into a new list that is only assigned once it is complete.
+                    ArrayList<Song> loaded = new ArrayList<>();
+                    updateSongsList(loaded);
+                    loadPlayStats(loaded);
+                    songs = loaded;
+                    publish();
+                }
+            }
         }
-        return FXCollections.observableArrayList(songs);
+        VersionedList<Song> view = songsView;
+        if (view == null || !view.isViewOf(songs)) {
+            synchronized (Library.class) {
+                if (songsView == null) {
+                    songsView = new VersionedList<>(songs);
+                } else if (!songsView.isViewOf(songs)) {
+                    songsView.setSource(songs);
+                }
+                view = songsView;
+            }
+        }
+        return view;
     }
 
     private static Song getSong(int id) {
@@ -258,7 +386,7 @@ public final class Library {
         return songs.stream().filter(song -> title.equals(song.getTitle())).findFirst().get();
     }
 
-    private static void updateSongsList() {
+    private static void updateSongsList(List<Song> songs) {
         try {
 
             XMLInputFactory factory = XMLInputFactory.newInstance();
@@ -349,20 +477,36 @@ public final class Library {
     }
 
     /**
-     * Gets a list of albums.
+     * Gets a list of albums. The list is a read-only view of the library albums, not a copy.
      *
      * @return observable list of albums
      */
     public static ObservableList<Album> getAlbums() {
         // If the observable list of albums has not been initialized.
         if (albums == null) {
-            if (songs == null) {
-                getSongs();
+            synchronized (Library.class) {
+                if (albums == null) {
+                    if (songs == null) {
+                        getSongs();
+                    }
+                    // Updates the albums array list.
+                    updateAlbumsList();
+                    publish();
+                }
+            }
+        }
+        VersionedList<Album> view = albumsView;
+        if (view == null || !view.isViewOf(albums)) {
+            synchronized (Library.class) {
+                if (albumsView == null) {
+                    albumsView = new VersionedList<>(albums);
+                } else if (!albumsView.isViewOf(albums)) {
+                    albumsView.setSource(albums);
+                }
+                view = albumsView;
             }
-            // Updates the albums array list.
-            updateAlbumsList();
         }
-        return FXCollections.observableArrayList(albums);
+        return view;
     }
 
     public static Album getAlbum(String title) {
@@ -373,7 +517,7 @@ public final class Library {
     }
 
     private static void updateAlbumsList() {
-        albums = new ArrayList<>();
+        ArrayList<Album> albums = new ArrayList<>();
 
         TreeMap<String, List<Song>> albumMap = new TreeMap<>(
                 songs.stream()
@@ -403,22 +547,40 @@ public final class Library {
                 albums.add(new Album(id++, entry.getKey(), artist, albumSongs));
             }
         }
+
+        Library.albums = albums;
     }
 
     /**
-     * Gets a list of artists.
+     * Gets a list of artists. The list is a read-only view of the library artists, not a copy.
      *
      * @return observable list of artists
      */
     public static ObservableList<Artist> getArtists() {
         if (artists == null) {
-            if (albums == null) {
-                getAlbums();
+            synchronized (Library.class) {
+                if (artists == null) {
+                    if (albums == null) {
+                        getAlbums();
+                    }
+                    // Updates the artists array list.
+                    updateArtistsList();
+                    publish();
+                }
             }
-            // Updates the artists array list.
-            updateArtistsList();
         }
-        return FXCollections.observableArrayList(artists);
+        VersionedList<Artist> view = artistsView;
+        if (view == null || !view.isViewOf(artists)) {
+            synchronized (Library.class) {
+                if (artistsView == null) {
+                    artistsView = new VersionedList<>(artists);
+                } else if (!artistsView.isViewOf(artists)) {
+                    artistsView.setSource(artists);
+                }
+                view = artistsView;
+            }
+        }
+        return view;
     }
 
     public static Artist getArtist(String title) {
@@ -428,8 +590,155 @@ public final class Library {
         return artists.stream().filter(artist -> title.equals(artist.getTitle())).findFirst().get();
     }
 
+    /**
+     * Gets the songs sorted in an order. The ordering is kept up to date as play counts change,
+     * so callers neither copy nor sort the songs.
+     *
+     * @param order sort order
+     * @return sorted songs with their letter index
+     */
+    public static synchronized SortedIndex<Song> getSongs(SongOrder order) {
+        if (songs == null) {
+            getSongs();
+        }
+        if (songOrdersSource != songs) {
+            songOrders.clear();
+            songOrdersSource = songs;
+        }
+        return songOrders.computeIfAbsent(order, x -> new SortedIndex<>(songs, x.comparator, x.key));
+    }
+
+    /**
+     * Gets the albums sorted by title.
+     *
+     * @return sorted albums with their letter index
+     */
+    public static synchronized SortedIndex<Album> getSortedAlbums() {
+        if (albums == null) {
+            getAlbums();
+        }
+        if (sortedAlbumsSource != albums) {
+            sortedAlbums = new SortedIndex<>(albums, Comparator.naturalOrder(), Album::getSortKey);
+            sortedAlbumsSource = albums;
+        }
+        return sortedAlbums;
+    }
+
+    /**
+     * Gets the artists sorted by title.
+     *
+     * @return sorted artists with their letter index
+     */
+    public static synchronized SortedIndex<Artist> getSortedArtists() {
+        if (artists == null) {
+            getArtists();
+        }
+        if (sortedArtistsSource != artists) {
+            sortedArtists = new SortedIndex<>(artists, Comparator.naturalOrder(), Artist::getSortKey);
+            sortedArtistsSource = artists;
+        }
+        return sortedArtists;
+    }
+
+    /**
+     * Gets the facet indexes of the songs. They are rebuilt when the songs are rescanned and kept up to date
+     * as songs are played.
+     *
+     * @return facet indexes of the songs
+     */
+    public static synchronized FacetIndex getFacets() {
+        if (songs == null) {
+            getSongs();
+        }
+        if (facetsSource != songs) {
+            facets = new FacetIndex(songs);
+            facetsSource = songs;
+        }
+        return facets;
+    }
+
+    /**
+     * Gets the play statistics file of the library, opening it if the library directory changed.
+     *
+     * @return play statistics, or null if the file cannot be opened
+     */
+    static synchronized PlayStats getPlayStats() {
+        Path file = Paths.get(Resources.JAR + PLAY_STATS);
+        if (playStats == null || !playStats.getFile().equals(file)) {
+            try {
+                playStats = new PlayStats(file);
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                playStats = null;
+            }
+        }
+        return playStats;
+    }
+
+    // Sets the play counts and dates of the songs read from library.xml from the play statistics file,
+    // or copies them into the file the first time. Once copied, the play counts and dates left in library.xml
+    // by older versions are stale and only the file is read. Songs imported since are never played in library.xml.
+    private static void loadPlayStats(List<Song> songs) {
+        PlayStats stats = getPlayStats();
+        if (stats == null) {
+            return;
+        }
+        try {
+            if (!stats.isMigrated()) {
+                for (Song song : songs) {
+                    int playCount = Math.max(song.getPlayCount(), 0);
+                    LocalDateTime playDate = playCount == 0 ? null : song.getPlayDate();
+                    stats.write(song.getId(), playCount,
+                            playDate == null ? 0 : playDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    song.setPlayStats(playCount, playDate);
+                }
+                stats.setMigrated();
+            } else {
+                for (Song song : songs) {
+                    long time = stats.getPlayTime(song.getId());
+                    song.setPlayStats(stats.getPlayCount(song.getId()), time == 0 ? null
+                            : LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()));
+                }
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets the history of every play, with play totals by day, week and month.
+     *
+     * @return play history
+     */
+    public static synchronized PlayHistory getPlayHistory() {
+        if (playHistory == null) {
+            playHistory = new PlayHistory(Paths.get(Resources.JAR + PLAY_HISTORY), ZoneId.systemDefault());
+        }
+        return playHistory;
+    }
+
+    // Changes the play count of a song, moves the song to its new position in the play count ordering and play
+    // state, and tells the playlists that follow what is played.
+    static synchronized void playCountChanged(Song song, Runnable change) {
+        SortedIndex<Song> playCountOrder = songOrdersSource == songs ? songOrders.get(SongOrder.PLAY_COUNT) : null;
+        if (playCountOrder != null) {
+            playCountOrder.update(song, change);
+        } else {
+            change.run();
+        }
+        if (facetsSource == songs && facets != null) {
+            facets.playCountChanged(song);
+        }
+        List<Playlist> playlists = Library.playlists;
+        if (playlists != null) {
+            for (Playlist playlist : playlists) {
+                playlist.songPlayed(song);
+            }
+        }
+    }
+
     private static void updateArtistsList() {
-        artists = new ArrayList<>();
+        ArrayList<Artist> artists = new ArrayList<>();
 
         TreeMap<String, List<Album>> artistMap = new TreeMap<>(
                 albums.stream()
@@ -445,14 +754,24 @@ public final class Library {
 
             artists.add(new Artist(entry.getKey(), albums));
         }
+
+        Library.artists = artists;
     }
 
     public static void addPlaylist(String text) {
 
-        Thread thread = new Thread(() -> {
+        Playlist added;
+        synchronized (Library.class) {
+            ArrayList<Playlist> updated = new ArrayList<>(playlists);
+            added = new Playlist(updated.size() - 2, text, new ArrayList<>());
+            updated.add(added);
+            updated.sort(PLAYLIST_ORDER);
+            playlists = updated;
+            publish();
+        }
+        fireChange(Change.PLAYLISTS);
 
-            int i = playlists.size() - 2;
-            playlists.add(new Playlist(i, text, new ArrayList<>()));
+        writeXml(() -> {
 
             try {
                 DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
@@ -466,7 +785,7 @@ public final class Library {
                 Node playlists = ((NodeList) expr.evaluate(doc, XPathConstants.NODESET)).item(0);
 
                 Element playlist = doc.createElement("playlist");
-                playlist.setAttribute("id", Integer.toString(i));
+                playlist.setAttribute("id", Integer.toString(added.getId()));
                 playlist.setAttribute(TITLE, text);
                 playlists.appendChild(playlist);
 
@@ -483,91 +802,204 @@ public final class Library {
             }
 
         });
-
-        thread.start();
     }
 
     public static void removePlaylist(Playlist playlist) {
-        playlists.remove(playlist);
+        synchronized (Library.class) {
+            if (playlists.contains(playlist)) {
+                ArrayList<Playlist> updated = new ArrayList<>(playlists);
+                updated.remove(playlist);
+                playlists = updated;
+                publish();
+            }
+        }
+        fireChange(Change.PLAYLISTS);
     }
 
-    public static ObservableList<Playlist> getPlaylists() {
-        if (playlists == null) {
+    /**
+     * Queues a write of library.xml on the library writer thread, after the writes queued before it.
+     *
+     * @param write write that reads, changes and saves library.xml
+     */
+    public static void writeXml(Runnable write) {
+        xmlWriter.execute(write);
+    }
 
-            playlists = new ArrayList<>();
-            int id = 0;
+    // Waits until the writes of library.xml queued so far are done.
+    static void awaitWrites() throws InterruptedException {
+        try {
+            xmlWriter.submit(() -> {}).get();
+        } catch (ExecutionException ex) {
+            ex.printStackTrace();
+        }
+    }
 
-            try {
-                XMLInputFactory factory = XMLInputFactory.newInstance();
-                factory.setProperty("javax.xml.stream.isCoalescing", true);
-                FileInputStream is = new FileInputStream(new File(Resources.JAR + "library.xml"));
-                XMLStreamReader reader = factory.createXMLStreamReader(is, "UTF-8");
-
-                String element;
-                boolean isPlaylist = false;
-                String title = null;
-                ArrayList<Song> songs = new ArrayList<>();
-
-                while(reader.hasNext()) {
-                    reader.next();
-                    if (reader.isWhiteSpace()) {
-                        continue;
-                    } else if (reader.isStartElement()) {
-                        element = reader.getName().getLocalPart();
-
-                        // If the element is a play list, reads the element attributes to retrieve
-                        // the play list id and title.
-                        if (element.equals("playlist")) {
-                            isPlaylist = true;
-
-                            id = Integer.parseInt(reader.getAttributeValue(0));
-                            title = reader.getAttributeValue(1);
+    /**
+     * Adds a listener that is notified when playlists or play counts change.
+     * Listeners may be called from background threads.
+     *
+     * @param listener change listener
+     */
+    public static void addChangeListener(Consumer<Change> listener) {
+        changeListeners.add(listener);
+    }
+
+    public static void removeChangeListener(Consumer<Change> listener) {
+        changeListeners.remove(listener);
+    }
+
+    static void fireChange(Change change) {
+        for (Consumer<Change> listener : changeListeners) {
+            listener.accept(change);
+        }
+    }
+
+    /**
+     * Gets a consistent snapshot of the songs, albums, artists and playlists, loading the library if needed.
+     * Once the library is loaded, taking a snapshot does not lock, and the snapshot does not change when
+     * the library does.
+     *
+     * @return current library snapshot
+     */
+    public static LibrarySnapshot snapshot() {
+        LibrarySnapshot current = snapshot.get();
+        if (current.isOf(songs, albums, artists, playlists)) {
+            return current;
+        }
+        getArtists();
+        getPlaylists();
+        synchronized (Library.class) {
+            return publish();
+        }
+    }
+
+    // Publishes the current lists as a new snapshot if any of them was replaced, and points the views that were
+    // handed out at the new lists. Called with the library lock held.
+    private static LibrarySnapshot publish() {
+        if (songs != null) {
+            songsView = pointView(songsView, songs);
+        }
+        if (albums != null) {
+            albumsView = pointView(albumsView, albums);
+        }
+        if (artists != null) {
+            artistsView = pointView(artistsView, artists);
+        }
+        if (playlists != null) {
+            playlistsView = pointView(playlistsView, playlists);
+        }
+        LibrarySnapshot current = snapshot.get();
+        if (current.isOf(songs, albums, artists, playlists)) {
+            return current;
+        }
+        LibrarySnapshot next = new LibrarySnapshot(current.getEpoch() + 1, songs, albums, artists, playlists);
+        snapshot.set(next);
+        return next;
+    }
+
+    // Creates a view of a list, or points an existing view at it. Called with the library lock held.
+    private static <T> VersionedList<T> pointView(VersionedList<T> view, List<T> list) {
+        if (view == null) {
+            return new VersionedList<>(list);
+        }
+        if (!view.isViewOf(list)) {
+            view.setSource(list);
+        }
+        return view;
+    }
+
+    public static ObservableList<Playlist> getPlaylists() {
+        if (playlists == null) {
+            synchronized (Library.class) {
+                if (playlists == null) {
+                    ArrayList<Playlist> playlists = new ArrayList<>();
+                    int id = 0;
+
+                    try {
+                        XMLInputFactory factory = XMLInputFactory.newInstance();
+                        factory.setProperty("javax.xml.stream.isCoalescing", true);
+                        FileInputStream is = new FileInputStream(new File(Resources.JAR + "library.xml"));
+                        XMLStreamReader reader = factory.createXMLStreamReader(is, "UTF-8");
+
+                        String element = "";
+                        boolean isPlaylist = false;
+                        String title = null;
+                        ArrayList<Song> songs = new ArrayList<>();
+
+                        while(reader.hasNext()) {
+                            reader.next();
+                            if (reader.isWhiteSpace()) {
+                                continue;
+                            } else if (reader.isStartElement()) {
+                                element = reader.getName().getLocalPart();
+
+                                // If the element is a play list, reads the element attributes to retrieve
+                                // the play list id and title.
+                                if (element.equals("playlist")) {
+                                    isPlaylist = true;
+
+                                    id = Integer.parseInt(reader.getAttributeValue(0));
+                                    title = reader.getAttributeValue(1);
+                                }
+                            } else if (reader.isCharacters() && isPlaylist) {
+                                // Retrieves the reader value (song IDs), gets the songs and adds them to the songs list.
+                                // Older libraries have one songId element per song instead of the encoded songIds.
+                                String value = reader.getText();
+                                if (element.equals(SONG_IDS)) {
+                                    for (int songId : IdListCodec.decode(value)) {
+                                        songs.add(getSong(songId));
+                                    }
+                                } else {
+                                    songs.add(getSong(Integer.parseInt(value)));
+                                }
+                            } else if (reader.isEndElement() && reader.getName().getLocalPart().equals("playlist")) {
+                                // If the play list id, title, and songs have been retrieved, a new play list is created
+                                // and the values reset.
+                                playlists.add(new Playlist(id, title, songs));
+                                id = -1;
+                                title = null;
+                                songs = new ArrayList<>();
+                            } else if (reader.isEndElement() && reader.getName().getLocalPart().equals("playlists")) {
+                                reader.close();
+                                break;
+                            }
                         }
-                    } else if (reader.isCharacters() && isPlaylist) {
-                        // Retrieves the reader value (song ID), gets the song and adds it to the songs list.
-                        String value = reader.getText();
-                        songs.add(getSong(Integer.parseInt(value)));
-                    } else if (reader.isEndElement() && reader.getName().getLocalPart().equals("playlist")) {
-                        // If the play list id, title, and songs have been retrieved, a new play list is created
-                        // and the values reset.
-                        playlists.add(new Playlist(id, title, songs));
-                        id = -1;
-                        title = null;
-                        songs = new ArrayList<>();
-                    } else if (reader.isEndElement() && reader.getName().getLocalPart().equals("playlists")) {
                         reader.close();
-                        break;
+                    } catch (Exception ex) {
+                        ex.printStackTrace();
                     }
-                }
-                reader.close();
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
 
-            playlists.sort((x, y) -> {
-                if (x.getId() < y.getId()) {
-                    return 1;
-                } else if (x.getId() > y.getId()) {
-                    return -1;
-                } else {
-                    return 0;
-                }
-            });
+                    playlists.sort(PLAYLIST_ORDER);
 
-            playlists.add(new MostPlayedPlaylist(-2));
-            playlists.add(new RecentlyPlayedPlaylist(-1));
-        } else {
-            playlists.sort((x, y) -> {
-                if (x.getId() < y.getId()) {
-                    return 1;
-                } else if (x.getId() > y.getId()) {
-                    return -1;
-                } else {
-                    return 0;
+                    playlists.add(new MostPlayedPlaylist(-2));
+                    playlists.add(new RecentlyPlayedPlaylist(-1));
+                    // The default playlists are sorted on the next call.
+                    playlistsUnsorted = true;
+                    Library.playlists = playlists;
+                    publish();
+                }
+            }
+        } else if (playlistsUnsorted || playlistsView == null || !playlistsView.isViewOf(playlists)) {
+            synchronized (Library.class) {
+                ArrayList<Playlist> sorted = new ArrayList<>(playlists);
+                sorted.sort(PLAYLIST_ORDER);
+                playlists = sorted;
+                playlistsUnsorted = false;
+                publish();
+            }
+        }
+        VersionedList<Playlist> view = playlistsView;
+        if (view == null || !view.isViewOf(playlists)) {
+            synchronized (Library.class) {
+                if (playlistsView == null) {
+                    playlistsView = new VersionedList<>(playlists);
+                } else if (!playlistsView.isViewOf(playlists)) {
+                    playlistsView.setSource(playlists);
                 }
-            });
+                view = playlistsView;
+            }
         }
-        return FXCollections.observableArrayList(playlists);
+        return view;
     }
 
     public static Playlist getPlaylist(int id) {
@@ -595,6 +1027,7 @@ public final class Library {
         try {
 
             XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty("javax.xml.stream.isCoalescing", true);
             FileInputStream is = new FileInputStream(new File(Resources.JAR + "library.xml"));
             XMLStreamReader reader = factory.createXMLStreamReader(is, "UTF-8");
 
@@ -607,7 +1040,11 @@ public final class Library {
                     continue;
                 } else if (reader.isCharacters() && isNowPlayingList) {
                     String value = reader.getText();
-                    if (element.equals(ID)) {
+                    if (element.equals(IDS)) {
+                        for (int id : IdListCodec.decode(value)) {
+                            nowPlayingList.add(getSong(id));
+                        }
+                    } else if (element.equals(ID)) {
                         nowPlayingList.add(getSong(Integer.parseInt(value)));
                     }
                 } else if (reader.isStartElement()) {
@@ -633,7 +1070,10 @@ public final class Library {
 
     public static void savePlayingList() {
 
-        Thread thread = new Thread(() -> {
+        // Reads the ids on the calling thread, since the now playing list is a live view.
+        int[] songIds = MusicPlayer.getNowPlayingList().stream().mapToInt(Song::getId).toArray();
+
+        writeXml(() -> {
 
             try {
 
@@ -652,10 +1092,10 @@ public final class Library {
                     playingList.removeChild(nodes.item(0));
                 }
 
-                for (Song song : MusicPlayer.getNowPlayingList()) {
-                    Element id = doc.createElement(ID);
-                    id.setTextContent(Integer.toString(song.getId()));
-                    playingList.appendChild(id);
+                if (songIds.length > 0) {
+                    Element ids = doc.createElement(IDS);
+                    ids.setTextContent(IdListCodec.encodeToString(songIds));
+                    playingList.appendChild(ids);
                 }
 
                 TransformerFactory transformerFactory = TransformerFactory.newInstance();
@@ -673,7 +1113,5 @@ public final class Library {
             }
 
         });
-
-        thread.start();
     }
 }
@@ -0,0 +1,304 @@
+package app.musicplayer.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import app.musicplayer.model.Library.SongOrder;
+import app.musicplayer.util.SortedIndex;
+
+/**
+ * Query over the songs of the library, with filters on artist, album, title, play count, play date and
+ * length, a sort order, and paging.
+ *
+ * The query starts from the smallest set of songs the library already has at hand instead of scanning
+ * every song: the songs of the matching albums when an album or artist is given, otherwise the songs in
+ * the sorted order the library keeps for the requested order, where reading stops as soon as the page is
+ * full. Only when neither applies are all songs scanned. The remaining filters are checked on each song
+ * read, and only the songs read from an album or artist are sorted.
+ *
+ * For example, the hundred most played songs:
+ * <pre>
+ * LibraryQuery.songs().playCountAtLeast(1).orderBy(SongOrder.PLAY_COUNT).limit(100).list();
+ * </pre>
+ */
+public final class LibraryQuery {
+
+    /**
+     * Songs a query starts from.
+     */
+    enum Source { ALBUM, ARTIST, ORDER, SCAN }
+
+    private String artist;
+    private List<Album> artistAlbums;
+    private String album;
+    private String titleText;
+    private int minPlayCount = Integer.MIN_VALUE;
+    private int maxPlayCount = Integer.MAX_VALUE;
+    private LocalDateTime playedAfter;
+    private LocalDateTime playedBefore;
+    private long minLength = Long.MIN_VALUE;
+    private long maxLength = Long.MAX_VALUE;
+    private SongOrder order;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+
+    private LibraryQuery() {
+    }
+
+    /**
+     * Starts a query over all songs of the library.
+     *
+     * @return query without filters
+     */
+    public static LibraryQuery songs() {
+        return new LibraryQuery();
+    }
+
+    /**
+     * Starts a query over the songs of an artist the caller already has, so the artist is not looked up.
+     *
+     * @param artist artist whose songs are queried
+     * @return query without other filters
+     */
+    public static LibraryQuery songs(Artist artist) {
+        LibraryQuery query = new LibraryQuery();
+        query.artist = artist.getTitle();
+        query.artistAlbums = artist.getAlbums();
+        return query;
+    }
+
+    public LibraryQuery artist(String artist) {
+        this.artist = artist;
+        return this;
+    }
+
+    public LibraryQuery album(String album) {
+        this.album = album;
+        return this;
+    }
+
+    /**
+     * Keeps the songs whose title contains the text, in any case.
+     *
+     * @param text text to look for
+     * @return this query
+     */
+    public LibraryQuery titleContains(String text) {
+        this.titleText = text.toUpperCase();
+        return this;
+    }
+
+    public LibraryQuery playCountAtLeast(int playCount) {
+        this.minPlayCount = playCount;
+        return this;
+    }
+
+    public LibraryQuery playCountAtMost(int playCount) {
+        this.maxPlayCount = playCount;
+        return this;
+    }
+
+    /**
+     * Keeps the songs last played after the time.
+     *
+     * @param time exclusive lower bound of the play date
+     * @return this query
+     */
+    public LibraryQuery playedAfter(LocalDateTime time) {
+        this.playedAfter = time;
+        return this;
+    }
+
+    /**
+     * Keeps the songs last played before the time.
+     *
+     * @param time exclusive upper bound of the play date
+     * @return this query
+     */
+    public LibraryQuery playedBefore(LocalDateTime time) {
+        this.playedBefore = time;
+        return this;
+    }
+
+    /**
+     * Keeps the songs whose length is within the bounds.
+     *
+     * @param minSeconds inclusive lower bound of the length in seconds
+     * @param maxSeconds inclusive upper bound of the length in seconds
+     * @return this query
+     */
+    public LibraryQuery lengthBetween(long minSeconds, long maxSeconds) {
+        this.minLength = minSeconds;
+        this.maxLength = maxSeconds;
+        return this;
+    }
+
+    /**
+     * Sorts the songs. Without an order the songs keep the order of the library or of their albums.
+     *
+     * @param order sort order
+     * @return this query
+     */
+    public LibraryQuery orderBy(SongOrder order) {
+        this.order = order;
+        return this;
+    }
+
+    public LibraryQuery offset(int offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public LibraryQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Runs the query.
+     *
+     * @return new list of the matching songs in the page
+     */
+    public List<Song> list() {
+        List<Song> results = new ArrayList<>();
+        if (limit <= 0) {
+            return results;
+        }
+        long end = (long) offset + limit;
+
+        if (source() == Source.ORDER) {
+            SortedIndex<Song> index = Library.getSongs(order);
+            if (index != null) {
+                collect(index.getItems(), end, results);
+                return results;
+            }
+        }
+
+        List<Song> songs = filter();
+        if (order != null) {
+            songs.sort(order.comparator());
+        }
+        for (int i = offset; i < songs.size() && i < end; i++) {
+            results.add(songs.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Counts the matching songs, ignoring the order, offset and limit.
+     *
+     * @return number of matching songs
+     */
+    public int count() {
+        return filter().size();
+    }
+
+    /**
+     * Chooses the songs the query starts from, the fewest songs first.
+     *
+     * @return source of the query
+     */
+    Source source() {
+        if (album != null) {
+            return Source.ALBUM;
+        } else if (artist != null) {
+            return Source.ARTIST;
+        } else if (order != null) {
+            return Source.ORDER;
+        }
+        return Source.SCAN;
+    }
+
+    // Reads sorted songs until the page is full, or until the play counts drop below the minimum.
+    private void collect(List<Song> sorted, long end, List<Song> results) {
+        long matched = 0;
+        for (Song song : sorted) {
+            if (order == SongOrder.PLAY_COUNT && song.getPlayCount() < minPlayCount) {
+                break;
+            }
+            if (matches(song) && matched++ >= offset) {
+                results.add(song);
+                if (matched >= end) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // Matching songs of the matching albums, or of the whole library, in their unsorted order.
+    private List<Song> filter() {
+        List<Song> songs = new ArrayList<>();
+        Source source = source();
+        if (source == Source.ALBUM || source == Source.ARTIST) {
+            for (Album match : albums()) {
+                for (Song song : match.getSongs()) {
+                    if (matches(song)) {
+                        songs.add(song);
+                    }
+                }
+            }
+        } else {
+            for (Song song : Library.getSongs()) {
+                if (matches(song)) {
+                    songs.add(song);
+                }
+            }
+        }
+        return songs;
+    }
+
+    // Albums whose title and artist match the query.
+    private List<Album> albums() {
+        if (artistAlbums != null) {
+            List<Album> albums = new ArrayList<>();
+            for (Album match : artistAlbums) {
+                if (album == null || album.equals(match.getTitle())) {
+                    albums.add(match);
+                }
+            }
+            return albums;
+        }
+        if (album == null) {
+            for (Artist match : Library.getArtists()) {
+                if (artist.equals(match.getTitle())) {
+                    return match.getAlbums();
+                }
+            }
+            return Collections.emptyList();
+        }
+        List<Album> albums = new ArrayList<>();
+        for (Album match : Library.getAlbums()) {
+            if (album.equals(match.getTitle()) && (artist == null || artist.equals(match.getArtist()))) {
+                albums.add(match);
+            }
+        }
+        return albums;
+    }
+
+    private boolean matches(Song song) {
+        if (artist != null && !artist.equals(song.getArtist())) {
+            return false;
+        }
+        if (album != null && !album.equals(song.getAlbum())) {
+            return false;
+        }
+        if (titleText != null && (song.getTitle() == null || !song.getTitle().toUpperCase().contains(titleText))) {
+            return false;
+        }
+        int playCount = song.getPlayCount();
+        if (playCount < minPlayCount || playCount > maxPlayCount) {
+            return false;
+        }
+        if (playedAfter != null || playedBefore != null) {
+            LocalDateTime playDate = song.getPlayDate();
+            if (playDate == null || (playedAfter != null && !playDate.isAfter(playedAfter))
+                    || (playedBefore != null && !playDate.isBefore(playedBefore))) {
+                return false;
+            }
+        }
+        long length = song.getLengthInSeconds();
+        return length >= minLength && length <= maxLength;
+    }
+}
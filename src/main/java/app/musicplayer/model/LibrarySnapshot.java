@@ -0,0 +1,74 @@
+package app.musicplayer.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consistent, immutable view of the songs, albums, artists and playlists of the library at one point in time.
+ *
+ * The library never modifies a list after it has been published in a snapshot. Changes build new lists and
+ * publish a new snapshot with a higher epoch, so a snapshot can be read from any thread without locking and
+ * the epoch tells whether results computed from an older snapshot are stale.
+ */
+public final class LibrarySnapshot {
+
+    static final LibrarySnapshot EMPTY = new LibrarySnapshot(0, null, null, null, null);
+
+    private final long epoch;
+    private final List<Song> songs;
+    private final List<Album> albums;
+    private final List<Artist> artists;
+    private final List<Playlist> playlists;
+
+    // The source lists are kept to tell whether the library lists have been replaced since.
+    private final List<Song> songsSource;
+    private final List<Album> albumsSource;
+    private final List<Artist> artistsSource;
+    private final List<Playlist> playlistsSource;
+
+    LibrarySnapshot(long epoch, List<Song> songs, List<Album> albums, List<Artist> artists, List<Playlist> playlists) {
+        this.epoch = epoch;
+        this.songsSource = songs;
+        this.albumsSource = albums;
+        this.artistsSource = artists;
+        this.playlistsSource = playlists;
+        this.songs = unmodifiable(songs);
+        this.albums = unmodifiable(albums);
+        this.artists = unmodifiable(artists);
+        this.playlists = unmodifiable(playlists);
+    }
+
+    /**
+     * Gets the epoch of the snapshot. Each snapshot the library publishes has a higher epoch than the previous one.
+     *
+     * @return snapshot epoch
+     */
+    public long getEpoch() {
+        return this.epoch;
+    }
+
+    public List<Song> getSongs() {
+        return this.songs;
+    }
+
+    public List<Album> getAlbums() {
+        return this.albums;
+    }
+
+    public List<Artist> getArtists() {
+        return this.artists;
+    }
+
+    public List<Playlist> getPlaylists() {
+        return this.playlists;
+    }
+
+    boolean isOf(List<Song> songs, List<Album> albums, List<Artist> artists, List<Playlist> playlists) {
+        return this.songsSource == songs && this.albumsSource == albums
+                && this.artistsSource == artists && this.playlistsSource == playlists;
+    }
+
+    private static <T> List<T> unmodifiable(List<T> list) {
+        return list == null ? Collections.<T>emptyList() : Collections.unmodifiableList(list);
+    }
+}
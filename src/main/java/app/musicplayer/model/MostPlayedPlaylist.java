@@ -1,32 +1,58 @@
 package app.musicplayer.model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import app.musicplayer.model.Library.SongOrder;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class MostPlayedPlaylist extends Playlist {
 
+    private static final int SIZE = 100;
+    // Number of days the playlist looks back by default, or 0 for all plays.
+    private static final int DEFAULT_DAYS = Integer.getInteger("musicplayer.mostPlayedDays", 0);
+
+    private volatile int days = DEFAULT_DAYS;
+
     MostPlayedPlaylist(int id) {
         super(id, "Most Played", "You have not played any songs yet");
     }
 
     @Override
     public ObservableList<Song> getSongs() {
-
-        List<Song> songs = new ArrayList<>(Library.getSongs());
-        songs = songs.stream()
-                .filter(x -> x.getPlayCount() > 0)
-                .sorted((x, y) -> Integer.compare(y.getPlayCount(), x.getPlayCount()))
-                .collect(Collectors.toList());
-
-        if (songs.size() > 100) {
-            songs = songs.subList(0, 100);
+        if (days <= 0) {
+            // The library keeps its songs sorted by play count as they are played, so the most played songs lead it.
+            List<Song> songs = Library.getSongs(SongOrder.PLAY_COUNT).head(SIZE);
+            songs.removeIf(song -> song.getPlayCount() == 0);
+            return FXCollections.observableArrayList(songs);
         }
 
+        // Plays within the window are counted from the daily, weekly and monthly totals of the play history.
+        PlayHistory history = Library.getPlayHistory();
+        LocalDate today = history.day(System.currentTimeMillis());
+        List<Song> library = Library.getSongs();
+        List<Song> songs = new ArrayList<>();
+        for (int id : history.topSongs(today.minusDays(days - 1), today.plusDays(1), SIZE)) {
+            // Song ids are positions in the library, and songs removed since they were played are left out.
+            if (id < library.size()) {
+                songs.add(library.get(id));
+            }
+        }
         return FXCollections.observableArrayList(songs);
     }
+
+    /**
+     * Sets how many days back plays are counted, including today.
+     *
+     * @param days number of days, or 0 to count all plays
+     */
+    public void setWindow(int days) {
+        this.days = days;
+    }
+
+    public int getWindow() {
+        return days;
+    }
 }
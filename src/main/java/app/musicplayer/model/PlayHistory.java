@@ -0,0 +1,321 @@
+package app.musicplayer.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * Append-only history of every play, with play totals rolled up by day, week and month.
+ *
+ * Each play is stored as the song id, the time it was played and the number of seconds played, in one
+ * segment file per calendar month. A play takes a few bytes, since the numbers are written as variable
+ * length integers and the time as the milliseconds since the previous play of the segment. Segments are
+ * only ever appended to, and a play that was cut off by a crash is dropped when the segment is next opened.
+ *
+ * The history is read once when it is opened, and every play adds to the totals of its day, week and month.
+ * Totals over a range of days add up the fewest whole months, weeks and days that cover the range, so a
+ * range of years adds a few dozen totals instead of reading every play.
+ */
+public final class PlayHistory {
+
+    /**
+     * Periods play totals are rolled up by.
+     */
+    public enum Period { DAY, WEEK, MONTH }
+
+    /**
+     * Number of plays and seconds played.
+     */
+    public static final class Totals {
+
+        private int plays;
+        private long seconds;
+
+        public int getPlays() {
+            return plays;
+        }
+
+        public long getSeconds() {
+            return seconds;
+        }
+
+        private void add(int plays, long seconds) {
+            this.plays += plays;
+            this.seconds += seconds;
+        }
+    }
+
+    private static final String PREFIX = "plays-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final ZoneId zone;
+    // Song totals of each period, by the first day of the period.
+    private final Map<Period, TreeMap<LocalDate, Map<Integer, Totals>>> rollups = new EnumMap<>(Period.class);
+    // Time of the last play of each segment, which the time of the next play appended to it is relative to.
+    private final Map<YearMonth, Long> lastTimes = new HashMap<>();
+
+    /**
+     * Opens the history stored in a directory, creating the directory when the first play is recorded.
+     *
+     * @param directory directory of the segment files
+     * @param zone time zone that days start in
+     */
+    public PlayHistory(Path directory, ZoneId zone) {
+        this.directory = directory;
+        this.zone = zone;
+        for (Period period : Period.values()) {
+            rollups.put(period, new TreeMap<>());
+        }
+        load();
+    }
+
+    /**
+     * Records a play and appends it to the segment of its month.
+     *
+     * @param songId id of the song
+     * @param time time of the play in milliseconds since the epoch
+     * @param seconds number of seconds played
+     */
+    public synchronized void record(int songId, long time, int seconds) {
+        YearMonth month = YearMonth.from(day(time));
+        Long last = lastTimes.get(month);
+        long lastTime = last == null ? month.atDay(1).atStartOfDay(zone).toInstant().toEpochMilli() : last;
+        // Plays are appended in time order, so a clock that went back records the play at the previous time.
+        time = Math.max(time, lastTime);
+
+        ByteArrayOutputStream event = new ByteArrayOutputStream(12);
+        writeVarLong(event, songId);
+        writeVarLong(event, time - lastTime);
+        writeVarLong(event, seconds);
+        try {
+            Files.createDirectories(directory);
+            Files.write(segment(month), event.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+
+        lastTimes.put(month, time);
+        add(songId, time, seconds);
+    }
+
+    /**
+     * Deletes the history stored in a directory, such as when the song ids it records are reassigned.
+     *
+     * @param directory directory of the segment files
+     * @throws IOException if a file cannot be deleted
+     */
+    public static void delete(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Gets the play totals of each song played in a range of days.
+     *
+     * @param from first day of the range
+     * @param to day after the last day of the range
+     * @return totals by song id
+     */
+    public synchronized Map<Integer, Totals> songTotals(LocalDate from, LocalDate to) {
+        Map<Integer, Totals> totals = new HashMap<>();
+        LocalDate day = from;
+        while (day.isBefore(to)) {
+            LocalDate nextMonth = day.withDayOfMonth(1).plusMonths(1);
+            LocalDate nextWeek = day.plusWeeks(1);
+            Map<Integer, Totals> rollup;
+            if (day.getDayOfMonth() == 1 && !nextMonth.isAfter(to)) {
+                rollup = rollups.get(Period.MONTH).get(day);
+                day = nextMonth;
+            } else if (day.getDayOfWeek() == DayOfWeek.MONDAY && !nextWeek.isAfter(to)) {
+                rollup = rollups.get(Period.WEEK).get(day);
+                day = nextWeek;
+            } else {
+                rollup = rollups.get(Period.DAY).get(day);
+                day = day.plusDays(1);
+            }
+            if (rollup != null) {
+                for (Map.Entry<Integer, Totals> entry : rollup.entrySet()) {
+                    Totals value = entry.getValue();
+                    totals.computeIfAbsent(entry.getKey(), x -> new Totals()).add(value.plays, value.seconds);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the play totals in a range of days grouped by a key of the songs, such as their artist.
+     *
+     * @param from first day of the range
+     * @param to day after the last day of the range
+     * @param key function that returns the key of a song id, or null to leave the song out
+     * @return totals by key
+     */
+    public <K> Map<K, Totals> totalsBy(LocalDate from, LocalDate to, IntFunction<K> key) {
+        Map<K, Totals> totals = new HashMap<>();
+        for (Map.Entry<Integer, Totals> entry : songTotals(from, to).entrySet()) {
+            K value = key.apply(entry.getKey());
+            if (value != null) {
+                totals.computeIfAbsent(value, x -> new Totals()).add(entry.getValue().plays, entry.getValue().seconds);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the most played songs in a range of days, by number of plays, then seconds played, then id.
+     *
+     * @param from first day of the range
+     * @param to day after the last day of the range
+     * @param limit maximum number of songs
+     * @return ids of at most limit songs, most played first
+     */
+    public List<Integer> topSongs(LocalDate from, LocalDate to, int limit) {
+        List<Map.Entry<Integer, Totals>> entries = new ArrayList<>(songTotals(from, to).entrySet());
+        entries.sort(Comparator.<Map.Entry<Integer, Totals>>comparingInt(x -> -x.getValue().plays)
+                .thenComparingLong(x -> -x.getValue().seconds)
+                .thenComparingInt(Map.Entry::getKey));
+        List<Integer> top = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            top.add(entries.get(i).getKey());
+        }
+        return top;
+    }
+
+    /**
+     * Gets the song totals of one period.
+     *
+     * @param period kind of period
+     * @param start first day of the period
+     * @return totals by song id
+     */
+    public synchronized Map<Integer, Totals> rollup(Period period, LocalDate start) {
+        Map<Integer, Totals> rollup = rollups.get(period).get(start);
+        return rollup == null ? Collections.emptyMap() : Collections.unmodifiableMap(rollup);
+    }
+
+    /**
+     * Gets the day of a time in the time zone of the history.
+     *
+     * @param time time in milliseconds since the epoch
+     * @return day of the time
+     */
+    public LocalDate day(long time) {
+        return Instant.ofEpochMilli(time).atZone(zone).toLocalDate();
+    }
+
+    private void add(int songId, long time, int seconds) {
+        LocalDate day = day(time);
+        LocalDate week = day.minusDays(day.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+        add(Period.DAY, day, songId, seconds);
+        add(Period.WEEK, week, songId, seconds);
+        add(Period.MONTH, day.withDayOfMonth(1), songId, seconds);
+    }
+
+    private void add(Period period, LocalDate start, int songId, int seconds) {
+        rollups.get(period).computeIfAbsent(start, x -> new HashMap<>())
+                .computeIfAbsent(songId, x -> new Totals()).add(1, seconds);
+    }
+
+    // Reads every segment in month order, truncating a play that was cut off at the end of a segment.
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        TreeMap<YearMonth, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+                } catch (RuntimeException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return;
+        }
+
+        for (Map.Entry<YearMonth, Path> segment : segments.entrySet()) {
+            try {
+                byte[] bytes = Files.readAllBytes(segment.getValue());
+                long time = segment.getKey().atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+                int[] position = { 0 };
+                int complete = 0;
+                while (position[0] < bytes.length) {
+                    long songId = readVarLong(bytes, position);
+                    long delta = readVarLong(bytes, position);
+                    long seconds = readVarLong(bytes, position);
+                    if (songId < 0 || delta < 0 || seconds < 0) {
+                        break;
+                    }
+                    time += delta;
+                    complete = position[0];
+                    add((int) songId, time, (int) seconds);
+                }
+                if (complete < bytes.length) {
+                    try (RandomAccessFile file = new RandomAccessFile(segment.getValue().toFile(), "rw")) {
+                        file.setLength(complete);
+                    }
+                }
+                lastTimes.put(segment.getKey(), time);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private Path segment(YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+
+    // Writes seven bits per byte, lowest first, with the high bit set on every byte but the last.
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // Reads a number written by writeVarLong, or returns -1 if the bytes end in the middle of it.
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        for (int shift = 0; position[0] < bytes.length && shift < 64; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        position[0] = bytes.length;
+        return -1;
+    }
+}
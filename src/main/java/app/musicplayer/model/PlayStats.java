@@ -0,0 +1,112 @@
+package app.musicplayer.model;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Play counts and last play times of the songs, kept in a memory-mapped file beside library.xml.
+ *
+ * The file starts with a header of four ints: a magic number, the format version, flags and a reserved int.
+ * It is followed by one 12-byte slot per song id, holding the time of the last play in milliseconds since the
+ * epoch and then the play count. Recording a play writes the slot of the song in place, so library.xml is not
+ * rewritten, and the file grows when a song id is beyond its last slot.
+ *
+ * A play writes the time before the count, so a crash between the two leaves the old count with the new time
+ * rather than a count without its play. The play counts are copied from library.xml once, and the migrated
+ * flag is only set after all slots are on disk, so an interrupted migration is repeated on the next start.
+ */
+public final class PlayStats {
+
+    private static final int MAGIC = 0x504C5354;
+    private static final int VERSION = 1;
+    private static final int MIGRATED = 1;
+
+    private static final int FLAGS_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 12;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final Path file;
+    private MappedByteBuffer buffer;
+    private int slots;
+
+    /**
+     * Opens the play statistics file, creating it if it does not exist.
+     *
+     * @param file path of the file
+     * @throws IOException if the file cannot be opened or is not a play statistics file
+     */
+    public PlayStats(Path file) throws IOException {
+        this.file = file;
+        map(INITIAL_SLOTS);
+        if (buffer.getInt(0) == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a play statistics file: " + file);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized int getPlayCount(int id) {
+        return id < slots ? buffer.getInt(HEADER_SIZE + id * SLOT_SIZE + 8) : 0;
+    }
+
+    /**
+     * Gets the time a song was last played.
+     *
+     * @param id song id
+     * @return milliseconds since the epoch, or 0 if no time was recorded
+     */
+    public synchronized long getPlayTime(int id) {
+        return id < slots ? buffer.getLong(HEADER_SIZE + id * SLOT_SIZE) : 0;
+    }
+
+    /**
+     * Records the play count and last play time of a song.
+     *
+     * @param id song id
+     * @param playCount play count
+     * @param time time of the last play in milliseconds since the epoch
+     * @throws IOException if the file cannot be grown
+     */
+    public synchronized void write(int id, int playCount, long time) throws IOException {
+        if (id >= slots) {
+            map(Math.max(slots * 2, id + 1));
+        }
+        int offset = HEADER_SIZE + id * SLOT_SIZE;
+        buffer.putLong(offset, time);
+        buffer.putInt(offset + 8, playCount);
+    }
+
+    public synchronized boolean isMigrated() {
+        return (buffer.getInt(FLAGS_OFFSET) & MIGRATED) != 0;
+    }
+
+    /**
+     * Writes all slots to disk and then marks the play counts of library.xml as copied.
+     */
+    public synchronized void setMigrated() {
+        buffer.force();
+        buffer.putInt(FLAGS_OFFSET, buffer.getInt(FLAGS_OFFSET) | MIGRATED);
+        buffer.force();
+    }
+
+    // Maps at least the given number of slots, growing the file if it is smaller.
+    private void map(int minimumSlots) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long existing = (channel.size() - HEADER_SIZE) / SLOT_SIZE;
+            int count = (int) Math.max(minimumSlots, existing);
+            // The mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) count * SLOT_SIZE);
+            slots = count;
+        }
+    }
+}
@@ -2,7 +2,11 @@ package app.musicplayer.model;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -21,6 +25,8 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import app.musicplayer.util.IdListCodec;
+import app.musicplayer.util.IndexedList;
 import app.musicplayer.util.Resources;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -29,7 +35,10 @@ public class Playlist {
 
     private int id;
     private String title;
-    private ArrayList<Song> songs;
+    // Songs in playlist order, looked up by id.
+    private IndexedList<Song> songs;
+    // Set while a write of the songs to library.xml is queued and has not yet read them.
+    private boolean savePending;
     private String placeholder =
             "Add songs to this playlist by dragging items to the sidebar\n" +
             "or by clicking the Add to Playlist button";
@@ -45,7 +54,13 @@ public class Playlist {
     public Playlist(int id, String title, ArrayList<Song> songs) {
         this.id = id;
         this.title = title;
-        this.songs = songs;
+        this.songs = new IndexedList<>(Song::getId);
+        for (Song song : songs) {
+            // Song ids of library.xml that are missing from the library are left out, and dropped on the next save.
+            if (song != null) {
+                this.songs.add(song);
+            }
+        }
     }
 
     protected Playlist(int id, String title, String placeholder) {
@@ -68,54 +83,154 @@ public class Playlist {
     }
 
     public ObservableList<Song> getSongs() {
-        return FXCollections.observableArrayList(this.songs);
+        return FXCollections.observableArrayList(this.songs.toList());
+    }
+
+    /**
+     * Checks whether a song is in the playlist.
+     *
+     * @param song song to look for
+     * @return true if the song is in the playlist
+     */
+    public boolean contains(Song song) {
+        return songs == null ? getSongs().contains(song) : songs.contains(song.getId());
     }
     
+    /**
+     * Called after a song was played, for playlists that follow what is played.
+     *
+     * @param song song that was played
+     */
+    void songPlayed(Song song) {
+    }
+
     public void addSong(Song song) {
-    	if (!songs.contains(song)) {
+        addSongs(Collections.singletonList(song));
+    }
 
-    		songs.add(song);
+    /**
+     * Adds the songs that are not yet in the playlist, in order, and saves the playlist with one write.
+     *
+     * @param songs songs to add, which may include songs already in the playlist
+     * @return number of songs added
+     */
+    public synchronized int addSongs(Collection<Song> songs) {
+        List<Song> added = new ArrayList<>();
+        for (Song song : songs) {
+            if (this.songs.add(song)) {
+                added.add(song);
+            }
+        }
+        if (added.isEmpty()) {
+            return 0;
+        }
+        Library.fireChange(Library.Change.PLAYLISTS);
+
+        saveSongs();
+        return added.size();
+    }
 
-    		try {
-    			DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-    			DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-    			Document doc = docBuilder.parse(Resources.JAR + "library.xml");
+    /**
+     * Removes a song from the playlist and from library.xml.
+     *
+     * @param songId id of the song
+     */
+    public synchronized void removeSong(int songId) {
+        if (!songs.remove(songId)) {
+            return;
+        }
+        Library.fireChange(Library.Change.PLAYLISTS);
 
-    			XPathFactory xPathfactory = XPathFactory.newInstance();
-    			XPath xpath = xPathfactory.newXPath();
+        saveSongs();
+    }
 
-    			XPathExpression expr = xpath.compile("/library/playlists/playlist[@id=\"" + this.id + "\"]");
-    			Node playlist = ((NodeList) expr.evaluate(doc, XPathConstants.NODESET)).item(0);
+    /**
+     * Removes the songs from the playlist and from library.xml with one write.
+     *
+     * @param songs songs to remove, which may include songs not in the playlist
+     * @return number of songs removed
+     */
+    public synchronized int removeSongs(Collection<Song> songs) {
+        Set<Integer> removed = new HashSet<>();
+        for (Song song : songs) {
+            if (this.songs.remove(song.getId())) {
+                removed.add(song.getId());
+            }
+        }
+        if (removed.isEmpty()) {
+            return 0;
+        }
+        Library.fireChange(Library.Change.PLAYLISTS);
+
+        saveSongs();
+        return removed.size();
+    }
 
-    			Element songId = doc.createElement("songId");
-    			songId.setTextContent(Integer.toString(song.getId()));
-    			playlist.appendChild(songId);
+    /**
+     * Moves a song to a new position in the playlist and saves the new order of the playlist in library.xml.
+     *
+     * @param songId id of the song
+     * @param index new position of the song
+     */
+    public synchronized void moveSong(int songId, int index) {
+        if (!songs.move(songId, index)) {
+            return;
+        }
+        Library.fireChange(Library.Change.PLAYLISTS);
 
-    			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-    			Transformer transformer = transformerFactory.newTransformer();
-    			transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-    			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-    			DOMSource source = new DOMSource(doc);
-    			File xmlFile = new File(Resources.JAR + "library.xml");
-    			StreamResult result = new StreamResult(xmlFile);
-    			transformer.transform(source, result);
+        saveSongs();
+    }
 
-    		} catch (Exception ex) {
-    			ex.printStackTrace();
-    		}
-    	}
+    // Queues a write of the songs to library.xml, unless one is queued already and will write them.
+    private void saveSongs() {
+        if (!savePending) {
+            savePending = true;
+            Library.writeXml(this::writeSongs);
+        }
     }
-    
-    public void removeSong(int songId) {
-      // Loops through the songs in the play list.
-      // When the song with an ID matching the selectedSongId is found, it is deleted.
-      Iterator<Song> iterator = songs.iterator();
-      while (iterator.hasNext()) {
-          Song song = iterator.next();
-          if (song.getId() == songId) {
-          	iterator.remove();
-          }
-      }
+
+    // Replaces the song ids of the playlist in library.xml with the compact encoding of its current songs.
+    private void writeSongs() {
+        int[] ids;
+        synchronized (this) {
+            savePending = false;
+            ids = songs.toList().stream().mapToInt(Song::getId).toArray();
+        }
+        try {
+            DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+            Document doc = docBuilder.parse(Resources.JAR + "library.xml");
+
+            XPathFactory xPathfactory = XPathFactory.newInstance();
+            XPath xpath = xPathfactory.newXPath();
+
+            XPathExpression expr = xpath.compile("/library/playlists/playlist[@id=\"" + this.id + "\"]");
+            Node playlist = ((NodeList) expr.evaluate(doc, XPathConstants.NODESET)).item(0);
+
+            // Removes the song ids, including the single songId elements of older libraries.
+            NodeList nodes = playlist.getChildNodes();
+            while (nodes.getLength() > 0) {
+                playlist.removeChild(nodes.item(0));
+            }
+
+            if (ids.length > 0) {
+                Element songIds = doc.createElement("songIds");
+                songIds.setTextContent(IdListCodec.encodeToString(ids));
+                playlist.appendChild(songIds);
+            }
+
+            TransformerFactory transformerFactory = TransformerFactory.newInstance();
+            Transformer transformer = transformerFactory.newTransformer();
+            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            DOMSource source = new DOMSource(doc);
+            File xmlFile = new File(Resources.JAR + "library.xml");
+            StreamResult result = new StreamResult(xmlFile);
+            transformer.transform(source, result);
+
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
     }
 
     @Override
@@ -2,31 +2,69 @@ package app.musicplayer.model;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 public class RecentlyPlayedPlaylist extends Playlist {
 
+    private static final int SIZE = 100;
+    private static final Comparator<Song> PLAY_DATE_ORDER = Comparator.comparing(Song::getPlayDate);
+
+    // The most recently played songs by id, least recent first, built from the play dates of the library
+    // when first shown and updated as songs are played. Playing a song again moves it to the end.
+    private Map<Integer, Song> recent;
+
     RecentlyPlayedPlaylist(int id) {
         super(id, "Recently Played", "You have not played any songs yet");
     }
 
     @Override
-    public ObservableList<Song> getSongs() {
-
-        List<Song> songs = new ArrayList<>(Library.getSongs());
-        songs = songs.stream()
-                .filter(x -> x.getPlayCount() > 0)
-                .sorted((x, y) -> y.getPlayDate().compareTo(x.getPlayDate()))
-                .collect(Collectors.toList());
+    public synchronized ObservableList<Song> getSongs() {
+        List<Song> songs = new ArrayList<>(recent().values());
+        Collections.reverse(songs);
+        return FXCollections.observableArrayList(songs);
+    }
 
-        if (songs.size() > 100) {
-            songs = songs.subList(0, 100);
+    @Override
+    synchronized void songPlayed(Song song) {
+        // Until the playlist is first shown, the songs are found from the play dates at that time.
+        if (recent == null) {
+            return;
         }
+        recent.remove(song.getId());
+        recent.put(song.getId(), song);
+    }
 
-        return FXCollections.observableArrayList(songs);
+    private Map<Integer, Song> recent() {
+        if (recent == null) {
+            recent = new LinkedHashMap<Integer, Song>(SIZE + 1, 1.0f) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Song> eldest) {
+                    return size() > SIZE;
+                }
+            };
+
+            // Keeps the most recent songs in a bounded heap with the least recent at the head.
+            PriorityQueue<Song> latest = new PriorityQueue<>(SIZE + 1, PLAY_DATE_ORDER);
+            for (Song song : Library.getSongs()) {
+                if (song.getPlayCount() > 0 && song.getPlayDate() != null) {
+                    latest.add(song);
+                    if (latest.size() > SIZE) {
+                        latest.poll();
+                    }
+                }
+            }
+            while (!latest.isEmpty()) {
+                Song song = latest.poll();
+                recent.put(song.getId(), song);
+            }
+        }
+        return recent;
     }
-}
\ No newline at end of file
+}
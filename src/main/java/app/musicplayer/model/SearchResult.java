@@ -7,11 +7,22 @@ public class SearchResult {
     private List<Song> songResults;
     private List<Album> albumResults;
     private List<Artist> artistResults;
+    private boolean approximate;
 
     public SearchResult(List<Song> songResults, List<Album> albumResults, List<Artist> artistResults) {
+        this(songResults, albumResults, artistResults, false);
+    }
+
+    /**
+     * Constructor for the SearchResult class.
+     *
+     * @param approximate true if the results are near matches of the search text rather than exact matches
+     */
+    public SearchResult(List<Song> songResults, List<Album> albumResults, List<Artist> artistResults, boolean approximate) {
         this.songResults = songResults;
         this.albumResults = albumResults;
         this.artistResults = artistResults;
+        this.approximate = approximate;
     }
 
     public List<Song> getSongResults() { return songResults; }
@@ -19,4 +30,10 @@ public class SearchResult {
     public List<Album> getAlbumResults() { return albumResults; }
 
     public List<Artist> getArtistResults() { return artistResults; }
+
+    public boolean isApproximate() { return approximate; }
+
+    public boolean isEmpty() {
+        return songResults.isEmpty() && albumResults.isEmpty() && artistResults.isEmpty();
+    }
 }
@@ -1,28 +1,13 @@
 package app.musicplayer.model;
 
-import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.text.CollationKey;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import app.musicplayer.util.Resources;
+import app.musicplayer.util.Collation;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -37,6 +22,9 @@ public final class Song implements Comparable<Song> {
     private SimpleStringProperty title;
     private SimpleStringProperty artist;
     private SimpleStringProperty album;
+    private CollationKey titleKey;
+    private CollationKey artistKey;
+    private CollationKey albumKey;
     private SimpleStringProperty length;
     private long lengthInSeconds;
     private int trackNumber;
@@ -82,6 +70,9 @@ public final class Song implements Comparable<Song> {
         this.title = new SimpleStringProperty(title);
         this.artist = new SimpleStringProperty(artist);
         this.album = new SimpleStringProperty(album);
+        this.titleKey = Collation.key(title);
+        this.artistKey = Collation.key(artist);
+        this.albumKey = Collation.key(album);
         this.lengthInSeconds = length.getSeconds();
         long seconds = length.getSeconds() % 60;
         this.length = new SimpleStringProperty(length.toMinutes() + ":" + (seconds < 10 ? "0" + seconds : seconds));
@@ -126,6 +117,24 @@ public final class Song implements Comparable<Song> {
         return this.album;
     }
 
+    /**
+     * Gets the sort key of the song title.
+     * The song title, artist and album are sorted by their keys instead of comparing the strings.
+     *
+     * @return sort key
+     */
+    public CollationKey getTitleKey() {
+        return this.titleKey;
+    }
+
+    public CollationKey getArtistKey() {
+        return this.artistKey;
+    }
+
+    public CollationKey getAlbumKey() {
+        return this.albumKey;
+    }
+
     public String getLength() {
         return this.length.get();
     }
@@ -186,47 +195,35 @@ public final class Song implements Comparable<Song> {
         this.selected.set(selected);
     }
 
-    public void played() {
-        this.playCount.set(this.playCount.get() + 1);
-        this.playDate = LocalDateTime.now();
+    /**
+     * Sets the play count and date read from the play statistics file.
+     *
+     * @param playCount play count
+     * @param playDate date of the last play
+     */
+    void setPlayStats(int playCount, LocalDateTime playDate) {
+        this.playCount.set(playCount);
+        this.playDate = playDate;
+    }
 
-        Thread thread = new Thread(() -> {
+    public void played() {
+        // The play count changes while the library moves the song in its play count order.
+        Library.playCountChanged(this, () -> {
+            this.playCount.set(this.playCount.get() + 1);
+            this.playDate = LocalDateTime.now();
+        });
+        Library.fireChange(Library.Change.PLAYS);
 
+        // The play is written in place to the play statistics file instead of rewriting library.xml.
+        PlayStats stats = Library.getPlayStats();
+        if (stats != null) {
             try {
-
-                DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                Document doc = docBuilder.parse(Resources.JAR + "library.xml");
-
-                XPathFactory xPathfactory = XPathFactory.newInstance();
-                XPath xpath = xPathfactory.newXPath();
-
-                XPathExpression expr = xpath.compile("/library/songs/song/playCount[../id/text() = \"" + this.id + "\"]");
-                Node playCount = ((NodeList) expr.evaluate(doc, XPathConstants.NODESET)).item(0);
-
-                expr = xpath.compile("/library/songs/song/playDate[../id/text() = \"" + this.id + "\"]");
-                Node playDate = ((NodeList) expr.evaluate(doc, XPathConstants.NODESET)).item(0);
-
-                playCount.setTextContent(Integer.toString(this.playCount.get()));
-                playDate.setTextContent(this.playDate.toString());
-
-                TransformerFactory transformerFactory = TransformerFactory.newInstance();
-                Transformer transformer = transformerFactory.newTransformer();
-                transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-                transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-                DOMSource source = new DOMSource(doc);
-                File xmlFile = new File(Resources.JAR + "library.xml");
-                StreamResult result = new StreamResult(xmlFile);
-                transformer.transform(source, result);
-
+                stats.write(this.id, this.playCount.get(),
+                        this.playDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
             } catch (Exception ex) {
-
                 ex.printStackTrace();
             }
-
-        });
-
-        thread.start();
+        }
     }
 
     @Override
@@ -0,0 +1,398 @@
+package app.musicplayer.util;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Downloads artist images and album artwork from the image API into a local artwork cache.
+ *
+ * Requests run on a bounded pool of worker threads. Concurrent requests for the same image share
+ * one download, requests to each host are spaced out by a minimum interval, and failed requests are
+ * retried with exponential backoff. Every image that has been looked up, including images the API
+ * reports as not found, is recorded in a ledger file in the cache directory so that it is not
+ * requested again on the next launch. Requests that fail for any other reason are tried again then.
+ */
+public final class ArtworkFetcher {
+
+    // System property that overrides the API endpoint, e.g. to point the fetcher at a local test server.
+    public static final String API_BASE_PROPERTY = "musicplayer.apiBase";
+
+    private static final String LEDGER = "fetched.txt";
+    private static final String ALBUMS = "albums";
+    private static final int DEFAULT_THREADS = 4;
+    private static final long DEFAULT_HOST_INTERVAL = 200;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long INITIAL_BACKOFF = 500;
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final int READ_TIMEOUT = 10000;
+
+    private static ArtworkFetcher instance;
+
+    private final String apiBase;
+    private final String apiKey;
+    private final File cacheDirectory;
+    private final long hostInterval;
+    private final long initialBackoff;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<String, CompletableFuture<File>> requests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private final Set<String> ledger = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Gets the fetcher that caches images next to the application jar.
+     *
+     * @return shared artwork fetcher
+     */
+    public static synchronized ArtworkFetcher getInstance() {
+        if (instance == null) {
+            instance = new ArtworkFetcher(System.getProperty(API_BASE_PROPERTY, Resources.APIBASE), Resources.APIKEY,
+                    new File(Resources.JAR + "img"), DEFAULT_THREADS, DEFAULT_HOST_INTERVAL, INITIAL_BACKOFF);
+        }
+        return instance;
+    }
+
+    /**
+     * Constructor for the ArtworkFetcher class.
+     *
+     * @param apiBase API endpoint ending in "?" or "&amp;"
+     * @param apiKey API key appended to every request
+     * @param cacheDirectory directory that holds the downloaded images and the ledger
+     * @param threads maximum number of concurrent downloads
+     * @param hostInterval minimum time in milliseconds between two requests to the same host
+     * @param initialBackoff delay in milliseconds before the first retry, doubled on every further retry
+     */
+    public ArtworkFetcher(String apiBase, String apiKey, File cacheDirectory, int threads,
+                          long hostInterval, long initialBackoff) {
+        this.apiBase = apiBase;
+        this.apiKey = apiKey;
+        this.cacheDirectory = cacheDirectory;
+        this.hostInterval = hostInterval;
+        this.initialBackoff = initialBackoff;
+
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "artwork-fetcher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        loadLedger();
+    }
+
+    /**
+     * Gets the cache file of an artist image. The file only exists if the image has been downloaded.
+     *
+     * @param artist artist title
+     * @return artist image file
+     */
+    public File getArtistImageFile(String artist) {
+        return new File(cacheDirectory, fileName(artist) + ".jpg");
+    }
+
+    /**
+     * Gets the cache file of an album artwork. The file only exists if the artwork has been downloaded.
+     *
+     * @param artist album artist
+     * @param album album title
+     * @return album artwork file
+     */
+    public File getAlbumArtworkFile(String artist, String album) {
+        return new File(new File(cacheDirectory, ALBUMS), fileName(artist + " - " + album) + ".jpg");
+    }
+
+    /**
+     * Downloads an artist image unless it has already been looked up.
+     *
+     * @param artist artist title
+     * @return future completed with the cached image file, or with null if no image is available
+     */
+    public CompletableFuture<File> fetchArtistImage(String artist) {
+        String query = "method=artist.getinfo"
+                + "&artist=" + encode(artist);
+        return fetch("artist:" + artist, query, getArtistImageFile(artist));
+    }
+
+    /**
+     * Downloads an album artwork unless it has already been looked up.
+     *
+     * @param artist album artist
+     * @param album album title
+     * @return future completed with the cached artwork file, or with null if no artwork is available
+     */
+    public CompletableFuture<File> fetchAlbumArtwork(String artist, String album) {
+        String query = "method=album.getinfo"
+                + "&artist=" + encode(artist)
+                + "&album=" + encode(album);
+        return fetch("album:" + artist + "\t" + album, query, getAlbumArtworkFile(artist, album));
+    }
+
+    /**
+     * Checks if an image has already been looked up, whether or not one was found.
+     *
+     * @param key request key
+     * @return true if the request is recorded in the ledger
+     */
+    boolean isFetched(String key) {
+        return ledger.contains(key);
+    }
+
+    /**
+     * Stops the worker threads. Pending requests are abandoned.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<File> fetch(String key, String query, File target) {
+        // Joins the request that is already in flight for the same image, if there is one. The ledger is checked
+        // under the lock that records to it, and a request records its key before it leaves the in-flight map,
+        // so a request that has just finished is never started again.
+        CompletableFuture<File> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (ledger.contains(key)) {
+                return CompletableFuture.completedFuture(target.exists() ? target : null);
+            }
+            CompletableFuture<File> existing = requests.putIfAbsent(key, future);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        executor.execute(() -> {
+            try {
+                File file = download(query, target);
+                record(key);
+                future.complete(file);
+            } catch (NotFoundException ex) {
+                record(key);
+                future.complete(null);
+            } catch (Exception ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                requests.remove(key, future);
+            }
+        });
+
+        return future;
+    }
+
+    private File download(String query, File target) throws IOException, InterruptedException {
+        byte[] response = request(new URL(apiBase + query + "&api_key=" + apiKey));
+        String imageUrl = findImageUrl(response);
+
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return null;
+        }
+
+        BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(request(new URL(imageUrl))));
+        if (bufferedImage == null) {
+            return null;
+        }
+
+        // Flattens transparent images onto a white background since jpg has no alpha channel.
+        BufferedImage newBufferedImage = new BufferedImage(bufferedImage.getWidth(),
+                bufferedImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+        newBufferedImage.createGraphics().drawImage(bufferedImage, 0, 0, Color.WHITE, null);
+
+        // Writes to a temporary file first so that a partially written image is never picked up.
+        target.getParentFile().mkdirs();
+        File temp = File.createTempFile("artwork", ".tmp", target.getParentFile());
+        try {
+            ImageIO.write(newBufferedImage, "jpg", temp);
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            temp.delete();
+        }
+
+        return target;
+    }
+
+    private byte[] request(URL url) throws IOException, InterruptedException {
+        IOException failure = null;
+        long backoff = initialBackoff;
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            limiter(url.getHost()).acquire();
+
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
+
+            int status;
+            try {
+                status = connection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_OK) {
+                    try (InputStream in = connection.getInputStream()) {
+                        return readAll(in);
+                    }
+                }
+                failure = new IOException("HTTP " + status + " from " + url.getHost());
+            } catch (IOException ex) {
+                status = -1;
+                failure = ex;
+            } finally {
+                connection.disconnect();
+            }
+
+            if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new NotFoundException(url.getHost());
+            }
+
+            // Only connection failures, rate limiting and server errors are worth retrying.
+            if (status != -1 && status != 429 && status < 500) {
+                throw failure;
+            }
+
+            if (attempt < MAX_ATTEMPTS) {
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+
+        throw failure;
+    }
+
+    private HostLimiter limiter(String host) {
+        return hostLimiters.computeIfAbsent(host, x -> new HostLimiter(hostInterval));
+    }
+
+    private static String findImageUrl(byte[] response) {
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(response), "UTF-8");
+
+            try {
+                while (reader.hasNext()) {
+                    reader.next();
+
+                    if (reader.isStartElement()
+                            && reader.getName().getLocalPart().equals("image")
+                            && "extralarge".equals(reader.getAttributeValue(null, "size"))) {
+
+                        String text = reader.getElementText().trim();
+                        return text.isEmpty() ? null : text;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private void loadLedger() {
+        File file = new File(cacheDirectory, LEDGER);
+        if (file.exists()) {
+            try {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    if (!line.isEmpty()) {
+                        ledger.add(line);
+                    }
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private synchronized void record(String key) {
+        if (ledger.add(key)) {
+            cacheDirectory.mkdirs();
+            try (Writer writer = new FileWriter(new File(cacheDirectory, LEDGER), true)) {
+                writer.write(key + "\n");
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (Exception ex) {
+            return value;
+        }
+    }
+
+    private static String fileName(String title) {
+        return title.replaceAll("[\\\\/:*?\"<>|\t\n]", "_");
+    }
+
+    /**
+     * Thrown when the API answers that an image does not exist, which is worth recording rather than retrying.
+     */
+    private static final class NotFoundException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        NotFoundException(String host) {
+            super("HTTP 404 from " + host);
+        }
+    }
+
+    /**
+     * Hands out request slots for one host at most once per interval.
+     */
+    private static final class HostLimiter {
+
+        private final long interval;
+        private long next;
+
+        HostLimiter(long interval) {
+            this.interval = interval;
+        }
+
+        void acquire() throws InterruptedException {
+            long wait;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                long slot = Math.max(now, next);
+                next = slot + interval;
+                wait = slot - now;
+            }
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package app.musicplayer.util;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Flag that long running work checks to stop early once its result is no longer wanted.
+ *
+ * The work calls throwIfCancelled() at regular points, for example every few thousand iterations of a scan,
+ * and the owner of the work calls cancel() from any thread.
+ */
+public final class CancellationToken {
+
+    /**
+     * Token for work that is never cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken(false);
+
+    private final boolean cancellable;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(true);
+    }
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    public void cancel() {
+        if (cancellable) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the work if it was cancelled.
+     *
+     * @throws CancellationException if the token was cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package app.musicplayer.util;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sort keys for titles, shared by all sorting and letter navigation.
+ *
+ * Titles are compared without a leading "A", "An" or "The", ignoring case and accents, in the order of the
+ * default locale. Keys are computed once per distinct title and cached, so comparing two titles only compares
+ * the bytes of their keys.
+ */
+public final class Collation {
+
+    private static final Collator collator = Collator.getInstance();
+    private static final Map<String, CollationKey> keys = new ConcurrentHashMap<>();
+    private static final CollationKey EMPTY;
+
+    static {
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        EMPTY = collator.getCollationKey("");
+    }
+
+    private Collation() {}
+
+    /**
+     * Gets the sort key of a title.
+     *
+     * @param title title to sort by
+     * @return sort key, which for a null title is the key of an empty title so that untagged songs sort first
+     */
+    public static CollationKey key(String title) {
+        if (title == null) {
+            return EMPTY;
+        }
+        CollationKey key = keys.get(title);
+        if (key == null) {
+            String sortTitle = removeArticle(title);
+            // Collators are not thread safe.
+            synchronized (collator) {
+                key = collator.getCollationKey(sortTitle);
+            }
+            keys.putIfAbsent(title, key);
+        }
+        return key;
+    }
+
+    /**
+     * Compares two titles by their sort keys, so that a null title sorts first like an empty one.
+     *
+     * @param first first title
+     * @param second second title
+     * @return negative, zero or positive as the first title sorts before, with or after the second
+     */
+    public static int compare(String first, String second) {
+        return key(first).compareTo(key(second));
+    }
+
+    /**
+     * Gets the sort key the titles listed under a letter start at. Titles are listed under the letter they sort
+     * under, so a title with a leading accented letter, article or ignored punctuation is listed by the letter
+     * after it, and titles that sort before every letter, such as empty titles, are listed under none.
+     *
+     * @param letter letter to look up
+     * @return sort key of the letter, which no title listed under the letter sorts before
+     */
+    public static CollationKey letterStart(char letter) {
+        return key(String.valueOf(letter));
+    }
+
+    /**
+     * Gets the sort key the titles listed under a letter end before.
+     *
+     * @param letter letter to look up
+     * @return sort key of the letter followed by the highest character, which sorts after every title
+     * that starts with the letter
+     */
+    public static CollationKey letterEnd(char letter) {
+        return key(letter + "\uffff");
+    }
+
+    /**
+     * Removes a leading "A", "An" or "The" from a title.
+     *
+     * @param title title
+     * @return title without the article
+     */
+    public static String removeArticle(String title) {
+        int length = articleLength(title);
+        return length == 0 ? title : title.substring(length);
+    }
+
+    // Length of the leading article and the space after it, or 0 if the title does not start with one.
+    private static int articleLength(String title) {
+        int space = title.indexOf(' ');
+        if (space < 1 || space == title.length() - 1) {
+            return 0;
+        }
+        if (title.startsWith("A ") || title.startsWith("An ") || title.startsWith("The ")) {
+            return space + 1;
+        }
+        return 0;
+    }
+}
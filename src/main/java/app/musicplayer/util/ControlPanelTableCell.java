@@ -5,19 +5,25 @@ import app.musicplayer.model.Song;
 import app.musicplayer.view.PlaylistsController;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.OverrunStyle;
 import javafx.scene.control.TableCell;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.HBox;
 
 public class ControlPanelTableCell<S, T> extends TableCell<S, T> {
 	
 	private ChangeListener<Boolean> listener = (observable, oldValue, newValue) ->
 			ControlPanelTableCell.this.updateItem(ControlPanelTableCell.this.getItem(), ControlPanelTableCell.this.isEmpty());
 	
+	// Graphic shown while the row is selected. The control panel is taken from the node pool
+	// when the row is selected and returned when it is deselected.
+	private BorderPane cell;
+	private Label text;
+	private Node controlPanel;
+	private String controlPanelFile;
+	
 	@Override
 	protected void updateItem(T item, boolean empty) {
 		
@@ -28,29 +34,37 @@ public class ControlPanelTableCell<S, T> extends TableCell<S, T> {
 		if (empty || item == null || song == null) {
 			setText(null);
 			setGraphic(null);
+			releaseControlPanel();
 		} else if (!song.getSelected()) {
 			setText(item.toString());
 			setGraphic(null);
+			releaseControlPanel();
 			song.selectedProperty().removeListener(listener);
 			song.selectedProperty().addListener(listener);
 		} else {
 			String fileName;
 			// Selects the correct control panel based on whether the user is in a play list or not.
 			if (MusicPlayer.getMainController().getSubViewController() instanceof PlaylistsController) {
-				fileName = Resources.FXML + "ControlPanelPlaylists.fxml";
+				fileName = "ControlPanelPlaylists.fxml";
 			} else {
-				fileName = Resources.FXML + "ControlPanel.fxml";
+				fileName = "ControlPanel.fxml";
 			}
 			try {
-				Label text = new Label(item.toString());
-				text.setTextOverrun(OverrunStyle.CLIP);
-                FXMLLoader loader = new FXMLLoader(this.getClass().getResource(fileName));
-                HBox controlPanel = loader.load();
-                BorderPane cell = new BorderPane();
-                cell.setRight(controlPanel);
-                cell.setCenter(text);
-                BorderPane.setAlignment(text, Pos.CENTER_LEFT);
-                BorderPane.setAlignment(controlPanel, Pos.CENTER_LEFT);
+				if (cell == null) {
+					text = new Label();
+					text.setTextOverrun(OverrunStyle.CLIP);
+					cell = new BorderPane();
+					cell.setCenter(text);
+					BorderPane.setAlignment(text, Pos.CENTER_LEFT);
+				}
+				if (!fileName.equals(controlPanelFile)) {
+					releaseControlPanel();
+					controlPanel = NodePool.acquire(fileName);
+					controlPanelFile = fileName;
+					cell.setRight(controlPanel);
+					BorderPane.setAlignment(controlPanel, Pos.CENTER_LEFT);
+				}
+				text.setText(item.toString());
                 setText(null);
                 setGraphic(cell);
                 song.selectedProperty().removeListener(listener);
@@ -60,4 +74,13 @@ public class ControlPanelTableCell<S, T> extends TableCell<S, T> {
             }
 		}
 	}
+	
+	private void releaseControlPanel() {
+		if (controlPanel != null) {
+			cell.setRight(null);
+			NodePool.release(controlPanelFile, controlPanel);
+			controlPanel = null;
+			controlPanelFile = null;
+		}
+	}
 }
\ No newline at end of file
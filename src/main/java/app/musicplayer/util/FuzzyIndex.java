@@ -0,0 +1,352 @@
+package app.musicplayer.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Trigram index over the words of the titles of a list of items, for finding near matches of a search text
+ * that has typing mistakes, such as "beetles" for "The Beatles".
+ *
+ * Titles are normalized to upper case letters and digits without accents and split into words. Each distinct
+ * word is padded and cut into its three letter sequences, and each sequence maps to the words that contain it.
+ * A word within k edits of the searched word shares all but at most 3k of its sequences, so only the words
+ * sharing enough sequences are compared letter by letter, and the library is never scanned.
+ *
+ * Short words must be typed without mistakes, words of three to five letters may have one mistake and longer
+ * words two. The last word of the text is matched against the beginning of the title words, since it may
+ * still be typed. Every word of the text must match a word of the title, and matches are ranked by their
+ * total number of mistakes, then by their order in the list.
+ *
+ * An index is immutable and may be searched from any thread.
+ *
+ * @param <T> type of the items
+ */
+public final class FuzzyIndex<T> {
+
+    private static final char PADDING = '$';
+
+    // Number of words checked between two checks of the cancellation token, minus one.
+    private static final int CHECK_INTERVAL = 4095;
+
+    private final List<T> items;
+    private final String[] words;
+    private final int[][] wordItems;
+    private final int[][] itemWords;
+    private final Map<String, int[]> trigramWords;
+
+    /**
+     * Constructor for the FuzzyIndex class.
+     *
+     * @param items items to index
+     * @param title function that returns the title of an item
+     */
+    public FuzzyIndex(List<? extends T> items, Function<? super T, String> title) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.itemWords = new int[this.items.size()][];
+
+        Map<String, Integer> wordIds = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        List<List<Integer>> wordItems = new ArrayList<>();
+        Map<String, List<Integer>> trigramWords = new HashMap<>();
+        for (int i = 0; i < itemWords.length; i++) {
+            String[] titleWords = split(normalize(title.apply(this.items.get(i))));
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (String word : titleWords) {
+                Integer id = wordIds.get(word);
+                if (id == null) {
+                    id = words.size();
+                    wordIds.put(word, id);
+                    words.add(word);
+                    wordItems.add(new ArrayList<>());
+                    for (String trigram : trigrams(word, true)) {
+                        trigramWords.computeIfAbsent(trigram, x -> new ArrayList<>()).add(id);
+                    }
+                }
+                if (ids.add(id)) {
+                    wordItems.get(id).add(i);
+                }
+            }
+            itemWords[i] = toArray(new ArrayList<>(ids));
+        }
+
+        this.words = words.toArray(new String[0]);
+        this.wordItems = new int[wordItems.size()][];
+        for (int i = 0; i < this.wordItems.length; i++) {
+            this.wordItems[i] = toArray(wordItems.get(i));
+        }
+        this.trigramWords = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : trigramWords.entrySet()) {
+            this.trigramWords.put(entry.getKey(), toArray(entry.getValue()));
+        }
+    }
+
+    public int size() {
+        return this.items.size();
+    }
+
+    /**
+     * Gets the items whose title nearly matches the text, closest matches first.
+     *
+     * @param text text to search for
+     * @param limit maximum number of results
+     * @return at most limit closest matching items
+     */
+    public List<T> search(String text, int limit) {
+        return search(text, limit, CancellationToken.NONE);
+    }
+
+    /**
+     * Gets the items whose title nearly matches the text, closest matches first.
+     *
+     * @param text text to search for
+     * @param limit maximum number of results
+     * @param token token that stops the search when it is cancelled
+     * @return at most limit closest matching items
+     * @throws java.util.concurrent.CancellationException if the token was cancelled
+     */
+    public List<T> search(String text, int limit, CancellationToken token) {
+        String[] queryWords = split(normalize(text));
+        if (limit <= 0 || queryWords.length == 0) {
+            return Collections.emptyList();
+        }
+        // The last word is still being typed unless it is followed by a space.
+        boolean typing = !text.isEmpty() && !Character.isWhitespace(text.charAt(text.length() - 1));
+
+        // Title words that nearly match each word of the text, with their number of mistakes.
+        List<Map<Integer, Integer>> candidates = new ArrayList<>(queryWords.length);
+        int fewest = 0;
+        int fewestItems = Integer.MAX_VALUE;
+        for (int i = 0; i < queryWords.length; i++) {
+            Map<Integer, Integer> matches = nearWords(queryWords[i], typing && i == queryWords.length - 1, token);
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int count = 0;
+            for (int word : matches.keySet()) {
+                count += wordItems[word].length;
+            }
+            if (count < fewestItems) {
+                fewest = i;
+                fewestItems = count;
+            }
+            candidates.add(matches);
+        }
+
+        // Only the titles with a match for the word with the fewest matching titles are scored.
+        BitSet positions = new BitSet(items.size());
+        for (int word : candidates.get(fewest).keySet()) {
+            for (int position : wordItems[word]) {
+                positions.set(position);
+            }
+        }
+
+        // The worst of the best matches so far is at the head of the queue. A match is stored as its number
+        // of mistakes followed by its position, so that comparing two matches compares mistakes first.
+        PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder());
+        int checked = 0;
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            if ((checked++ & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            int mistakes = mistakes(itemWords[position], candidates);
+            if (mistakes < 0) {
+                continue;
+            }
+            long match = ((long) mistakes << 32) | position;
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (match < best.peek()) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        long[] matches = new long[best.size()];
+        for (int i = matches.length - 1; i >= 0; i--) {
+            matches[i] = best.poll();
+        }
+        List<T> results = new ArrayList<>(matches.length);
+        for (long match : matches) {
+            results.add(items.get((int) match));
+        }
+        return results;
+    }
+
+    /**
+     * Converts a title or search text to upper case letters and digits without accents, with the words
+     * separated by single spaces. Apostrophes are dropped, so "Don't" becomes "DONT".
+     *
+     * @param text text to normalize, or null
+     * @return normalized text
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                // Splits accented letters into the letter and its accent, which is dropped below.
+                decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c == '\'' || c == '\u2019' || Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toUpperCase(c));
+            } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') {
+            normalized.setLength(length - 1);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Gets the number of edits that turn the word into the other word, or into the beginning of the other
+     * word if prefix is true, when it is at most the maximum.
+     *
+     * @return number of edits, or maximum + 1 if more edits are needed
+     */
+    static int distance(String word, String other, boolean prefix, int maximum) {
+        int[] previous = new int[other.length() + 1];
+        int[] current = new int[other.length() + 1];
+        for (int j = 0; j < previous.length; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= word.length(); i++) {
+            current[0] = i;
+            int smallest = i;
+            for (int j = 1; j < current.length; j++) {
+                int cost = word.charAt(i - 1) == other.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                smallest = Math.min(smallest, current[j]);
+            }
+            if (smallest > maximum) {
+                return maximum + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int distance = previous[other.length()];
+        if (prefix) {
+            for (int value : previous) {
+                distance = Math.min(distance, value);
+            }
+        }
+        return Math.min(distance, maximum + 1);
+    }
+
+    // Number of mistakes allowed in a word of the text.
+    private static int maximumMistakes(String word) {
+        if (word.length() < 3) {
+            return 0;
+        } else if (word.length() < 6) {
+            return 1;
+        }
+        return 2;
+    }
+
+    // Title words within the allowed number of mistakes of a word of the text.
+    private Map<Integer, Integer> nearWords(String word, boolean prefix, CancellationToken token) {
+        int maximum = maximumMistakes(word);
+        Set<String> trigrams = trigrams(word, !prefix);
+        // Each mistake changes at most three of the trigrams.
+        int required = Math.max(1, trigrams.size() - 3 * maximum);
+
+        // Counts the shared trigrams of each title word, remembering which words were counted.
+        int[] shared = new int[words.length];
+        int[] counted = new int[words.length];
+        int count = 0;
+        for (String trigram : trigrams) {
+            int[] ids = trigramWords.get(trigram);
+            if (ids != null) {
+                for (int id : ids) {
+                    if (shared[id]++ == 0) {
+                        counted[count++] = id;
+                    }
+                }
+            }
+            token.throwIfCancelled();
+        }
+
+        Map<Integer, Integer> matches = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            if ((i & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            int id = counted[i];
+            String candidate = words[id];
+            if (shared[id] < required || candidate.length() < word.length() - maximum
+                    || (!prefix && candidate.length() > word.length() + maximum)) {
+                continue;
+            }
+            int distance = distance(word, candidate, prefix, maximum);
+            if (distance <= maximum) {
+                matches.put(id, distance);
+            }
+        }
+        return matches;
+    }
+
+    // Total mistakes of the best match for each word of the text among the title words, or -1 if a word has none.
+    private static int mistakes(int[] titleWords, List<Map<Integer, Integer>> candidates) {
+        int total = 0;
+        for (Map<Integer, Integer> matches : candidates) {
+            int fewest = -1;
+            for (int word : titleWords) {
+                Integer mistakes = matches.get(word);
+                if (mistakes != null && (fewest < 0 || mistakes < fewest)) {
+                    fewest = mistakes;
+                }
+            }
+            if (fewest < 0) {
+                return -1;
+            }
+            total += fewest;
+        }
+        return total;
+    }
+
+    // Distinct trigrams of a word padded at the start, and at the end too if the word is complete.
+    private static Set<String> trigrams(String word, boolean complete) {
+        String padded = "" + PADDING + PADDING + word + (complete ? String.valueOf(PADDING) : "");
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String[] split(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,123 @@
+package app.musicplayer.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+
+/**
+ * Compact encoding of lists of song ids, such as the songs of a playlist or the now playing list.
+ *
+ * The ids are grouped into runs of consecutive ids, so a list of all songs in id order is a single run. The
+ * encoding starts with the number of ids, and then has two numbers for each run: the difference between the
+ * first id of the run and the id after the previous run, and the length of the run less one. The numbers are
+ * written as variable length integers, seven bits per byte, with the differences zigzag encoded so that a
+ * small step back is as short as a small step forward. In library.xml the bytes are written in Base64.
+ */
+public final class IdListCodec {
+
+    private IdListCodec() {
+    }
+
+    /**
+     * Encodes a list of ids.
+     *
+     * @param ids ids in list order
+     * @return encoded ids
+     */
+    public static byte[] encode(int[] ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        writeVarLong(out, ids.length);
+        long next = 0;
+        int i = 0;
+        while (i < ids.length) {
+            int start = i;
+            while (i + 1 < ids.length && ids[i + 1] == ids[i] + 1 && ids[i] != Integer.MAX_VALUE) {
+                i++;
+            }
+            long delta = ids[start] - next;
+            writeVarLong(out, (delta << 1) ^ (delta >> 63));
+            writeVarLong(out, i - start);
+            next = (long) ids[i] + 1;
+            i++;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a list of ids written by encode.
+     *
+     * @param bytes encoded ids
+     * @return ids in list order
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    public static int[] decode(byte[] bytes) {
+        int[] position = { 0 };
+        long count = readVarLong(bytes, position);
+        if (count < 0 || count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many ids: " + count);
+        }
+        int[] ids = new int[(int) count];
+        long next = 0;
+        int i = 0;
+        while (i < ids.length) {
+            long zigzag = readVarLong(bytes, position);
+            long id = next + ((zigzag >>> 1) ^ -(zigzag & 1));
+            long length = readVarLong(bytes, position) + 1;
+            if (length < 1 || length > ids.length - i
+                    || id < Integer.MIN_VALUE || id + length - 1 > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Run of " + length + " ids from " + id + " is out of range");
+            }
+            for (long j = 0; j < length; j++) {
+                ids[i++] = (int) (id + j);
+            }
+            next = id + length;
+        }
+        if (position[0] != bytes.length) {
+            throw new IllegalArgumentException("Unexpected bytes after " + count + " ids");
+        }
+        return ids;
+    }
+
+    /**
+     * Encodes a list of ids as text for library.xml.
+     *
+     * @param ids ids in list order
+     * @return Base64 text of the encoded ids
+     */
+    public static String encodeToString(int[] ids) {
+        return Base64.getEncoder().encodeToString(encode(ids));
+    }
+
+    /**
+     * Decodes a list of ids written by encodeToString.
+     *
+     * @param text Base64 text of the encoded ids
+     * @return ids in list order
+     * @throws IllegalArgumentException if the text is not a valid encoding
+     */
+    public static int[] decode(String text) {
+        return decode(Base64.getDecoder().decode(text.trim()));
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("Encoded ids end in the middle of a number");
+            }
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Number is longer than 64 bits");
+    }
+}
@@ -0,0 +1,295 @@
+package app.musicplayer.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ordered list of items with unique ids, such as the songs of a playlist, that finds, removes and moves an
+ * item by its id without scanning the list.
+ *
+ * The items are kept in a treap ordered by position, where every node knows the size of its subtree and its
+ * parent, and each item is looked up by id in a hash map. Checking whether an id is in the list takes constant
+ * time, and finding the position of an item, removing it or moving it takes logarithmic time.
+ *
+ * @param <T> type of the items
+ */
+public final class IndexedList<T> {
+
+    private static final class Node<T> {
+
+        private final T item;
+        private final int priority;
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+        private Node<T> parent;
+
+        private Node(T item, int priority) {
+            this.item = item;
+            this.priority = priority;
+        }
+    }
+
+    private final ToIntFunction<? super T> id;
+    private final Map<Integer, Node<T>> nodes = new HashMap<>();
+    private final Random random = new Random();
+    private Node<T> root;
+
+    /**
+     * Constructor for the IndexedList class.
+     *
+     * @param id function that returns the unique id of an item
+     */
+    public IndexedList(ToIntFunction<? super T> id) {
+        this.id = id;
+    }
+
+    /**
+     * Adds an item at the end of the list, unless an item with the same id is already in it.
+     *
+     * @param item item to add
+     * @return true if the item was added
+     */
+    public synchronized boolean add(T item) {
+        int key = id.applyAsInt(item);
+        if (nodes.containsKey(key)) {
+            return false;
+        }
+        Node<T> node = new Node<>(item, random.nextInt());
+        nodes.put(key, node);
+        root = merge(root, node);
+        root.parent = null;
+        return true;
+    }
+
+    /**
+     * Inserts an item at a position, unless an item with the same id is already in the list.
+     *
+     * @param index position of the item, from 0 to the size of the list
+     * @param item item to insert
+     * @return true if the item was inserted
+     * @throws IndexOutOfBoundsException if the position is neither in the list nor at its end
+     */
+    public synchronized boolean add(int index, T item) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int key = id.applyAsInt(item);
+        if (nodes.containsKey(key)) {
+            return false;
+        }
+        Node<T> node = new Node<>(item, random.nextInt());
+        nodes.put(key, node);
+        List<Node<T>> parts = split(root, index);
+        root = merge(merge(parts.get(0), node), parts.get(1));
+        root.parent = null;
+        return true;
+    }
+
+    /**
+     * Removes all items.
+     */
+    public synchronized void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    public synchronized boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Gets the item at a position.
+     *
+     * @param index position of the item
+     * @return item at the position
+     * @throws IndexOutOfBoundsException if the position is not in the list
+     */
+    public synchronized T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.item;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Gets the position of an item.
+     *
+     * @param id id of the item
+     * @return position of the item, or -1 if it is not in the list
+     */
+    public synchronized int indexOf(int id) {
+        Node<T> node = nodes.get(id);
+        if (node == null) {
+            return -1;
+        }
+        int index = size(node.left);
+        for (Node<T> child = node; child.parent != null; child = child.parent) {
+            if (child.parent.right == child) {
+                index += size(child.parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param id id of the item
+     * @return true if the item was in the list
+     */
+    public synchronized boolean remove(int id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        nodes.remove(id);
+        cut(index);
+        return true;
+    }
+
+    /**
+     * Moves an item to a new position, shifting the items between its old and new position.
+     *
+     * @param id id of the item
+     * @param index new position of the item
+     * @return true if the item was in the list
+     * @throws IndexOutOfBoundsException if the new position is not in the list
+     */
+    public synchronized boolean move(int id, int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int from = indexOf(id);
+        if (from < 0) {
+            return false;
+        }
+        Node<T> node = cut(from);
+        List<Node<T>> parts = split(root, index);
+        root = merge(merge(parts.get(0), node), parts.get(1));
+        root.parent = null;
+        return true;
+    }
+
+    /**
+     * Gets the items in order.
+     *
+     * @return new list of the items
+     */
+    public synchronized List<T> toList() {
+        List<T> items = new ArrayList<>(size());
+        // Walks the tree in order without recursion, using the parent links to climb back up.
+        Node<T> node = root;
+        Node<T> previous = null;
+        while (node != null) {
+            if (previous == node.parent) {
+                if (node.left != null) {
+                    previous = node;
+                    node = node.left;
+                    continue;
+                }
+                previous = null;
+            }
+            if (previous == node.left) {
+                items.add(node.item);
+                if (node.right != null) {
+                    previous = node;
+                    node = node.right;
+                    continue;
+                }
+            }
+            previous = node;
+            node = node.parent;
+        }
+        return items;
+    }
+
+    // Takes the node at a position out of the tree and returns it on its own.
+    private Node<T> cut(int index) {
+        List<Node<T>> before = split(root, index);
+        List<Node<T>> after = split(before.get(1), 1);
+        Node<T> node = after.get(0);
+        root = merge(before.get(0), after.get(1));
+        if (root != null) {
+            root.parent = null;
+        }
+        return node;
+    }
+
+    // Splits a tree into the first count nodes and the rest, both without a parent.
+    private List<Node<T>> split(Node<T> node, int count) {
+        List<Node<T>> parts = new ArrayList<>(2);
+        if (node == null) {
+            parts.add(null);
+            parts.add(null);
+        } else if (count <= size(node.left)) {
+            List<Node<T>> left = split(node.left, count);
+            node.left = left.get(1);
+            update(node);
+            parts.add(left.get(0));
+            parts.add(node);
+        } else {
+            List<Node<T>> right = split(node.right, count - size(node.left) - 1);
+            node.right = right.get(0);
+            update(node);
+            parts.add(node);
+            parts.add(right.get(1));
+        }
+        for (Node<T> part : parts) {
+            if (part != null) {
+                part.parent = null;
+            }
+        }
+        return parts;
+    }
+
+    // Joins two trees, with every node of the first before every node of the second.
+    private Node<T> merge(Node<T> first, Node<T> second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        } else {
+            second.left = merge(first, second.left);
+            update(second);
+            return second;
+        }
+    }
+
+    private static <T> void update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+    }
+
+    private static <T> int size(Node<T> node) {
+        return node == null ? 0 : node.size;
+    }
+}
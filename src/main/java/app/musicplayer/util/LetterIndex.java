@@ -0,0 +1,66 @@
+package app.musicplayer.util;
+
+import java.text.CollationKey;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Finds the items listed under a letter in a list sorted by the sort keys of their titles.
+ * Used by the views to turn a clicked letter into a scroll index without counting their items.
+ *
+ * The offsets are found with a binary search of the sort key of the letter over the list itself, so every item
+ * is listed under the letter it is sorted under, and the list can change between lookups as long as it stays sorted.
+ *
+ * @param <T> type of the items
+ */
+public final class LetterIndex<T> {
+
+    private final List<T> items;
+    private final Function<? super T, CollationKey> key;
+
+    /**
+     * Constructor for the LetterIndex class.
+     *
+     * @param items items shown in the view, in ascending order of their sort keys
+     * @param key function that returns the sort key of an item, as made by {@link Collation#key(String)}
+     */
+    public LetterIndex(List<T> items, Function<? super T, CollationKey> key) {
+        this.items = items;
+        this.key = key;
+    }
+
+    /**
+     * Gets the number of items that sort before the items listed under a letter.
+     *
+     * @param letter letter to look up
+     * @return index of the first item listed under the letter or a later one
+     */
+    public int offsetOf(char letter) {
+        return lowerBound(Collation.letterStart(letter));
+    }
+
+    /**
+     * Gets the number of items listed under a letter.
+     *
+     * @param letter letter to look up
+     * @return number of items
+     */
+    public int countOf(char letter) {
+        return lowerBound(Collation.letterEnd(letter)) - offsetOf(letter);
+    }
+
+    // Index of the first item whose sort key is not less than the bound.
+    private int lowerBound(CollationKey bound) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key.apply(items.get(middle)).compareTo(bound) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
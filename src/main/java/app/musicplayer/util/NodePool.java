@@ -0,0 +1,59 @@
+package app.musicplayer.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.scene.Node;
+
+/**
+ * Pool of node graphs loaded from the small FXML files that table cells show as graphics.
+ *
+ * A cell acquires a graph when it starts showing one and releases it when it stops, so each view is
+ * only loaded as many times as there are graphs shown at the same time. The graphs' event handlers call
+ * their controllers, which look up the current sub view when they run, so a graph can be moved between
+ * cells without attaching its handlers again. Must only be used on the JavaFX application thread.
+ */
+public final class NodePool {
+
+    // Maximum number of released graphs that are kept for each file.
+    private static final int MAX_FREE = 64;
+
+    private static final Map<String, ArrayDeque<Node>> freeNodes = new HashMap<>();
+
+    private NodePool() {}
+
+    /**
+     * Takes a released graph of the file from the pool or loads a new one.
+     *
+     * @param fileName name of the FXML file in the view package
+     * @return node graph that is not attached to a parent
+     * @throws Exception if the FXML file cannot be loaded
+     */
+    public static Node acquire(String fileName) throws Exception {
+        ArrayDeque<Node> nodes = freeNodes.get(fileName);
+        Node node = nodes == null ? null : nodes.poll();
+
+        if (node == null) {
+            ViewLoader loader = new ViewLoader(fileName);
+            node = loader.load();
+        }
+
+        return node;
+    }
+
+    /**
+     * Returns a graph to the pool. The caller must have removed it from its parent and must not use it afterwards.
+     *
+     * @param fileName name of the FXML file the graph was loaded from
+     * @param node released graph
+     */
+    public static void release(String fileName, Node node) {
+        ArrayDeque<Node> nodes = freeNodes.computeIfAbsent(fileName, x -> new ArrayDeque<>());
+        if (nodes.size() < MAX_FREE) {
+            node.setOpacity(1);
+            node.setVisible(true);
+            nodes.push(node);
+        }
+    }
+}
@@ -1,26 +1,34 @@
 package app.musicplayer.util;
 
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.control.TableCell;
-import javafx.scene.layout.Pane;
 
 public class PlayingTableCell<S, T> extends TableCell<S, T> {
-	
+
+	private static final String PLAYING_ICON = "PlayingIcon.fxml";
+
+	// Icon taken from the node pool while this cell shows the playing song.
+	private Node icon;
+
 	@Override
 	protected void updateItem(T item, boolean empty) {
 		super.updateItem(item, empty);
 		if (empty || item == null || !(Boolean) item) {
 			setText(null);
 			setGraphic(null);
+			if (icon != null) {
+				NodePool.release(PLAYING_ICON, icon);
+				icon = null;
+			}
 		} else {
 			try {
-				String fileName = Resources.FXML + "PlayingIcon.fxml";
-                FXMLLoader loader = new FXMLLoader(this.getClass().getResource(fileName));
-                Pane pane = loader.load();
-                setGraphic(pane);
+				if (icon == null) {
+					icon = NodePool.acquire(PLAYING_ICON);
+				}
+                setGraphic(icon);
             } catch (Exception ex) {
                 ex.printStackTrace();
             }
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,130 +1,115 @@
 package app.musicplayer.util;
 
 import app.musicplayer.model.Library;
+import app.musicplayer.model.LibrarySnapshot;
 import app.musicplayer.model.Song;
 import app.musicplayer.model.Album;
 import app.musicplayer.model.Artist;
 import app.musicplayer.model.SearchResult;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class Search {
 
-    private static BooleanProperty hasResults = new SimpleBooleanProperty(false);
-    private static SearchResult result;
-    private static Thread searchThread;
+    // Time a search waits for more typing before it starts, in milliseconds.
+    private static final long DEBOUNCE = Long.getLong("musicplayer.searchDebounce", 100);
+
+    // Number of results shown for each of songs, albums and artists.
+    private static final int RESULT_LIMIT = 3;
+
+    private static final SearchScheduler scheduler = new SearchScheduler(DEBOUNCE);
+    private static volatile Indexes indexes;
+
+    /**
+     * Searches the library for songs, albums and artists in the background. Starting a new search cancels
+     * the previous one, and only the result of the latest search reaches the callback. When nothing contains
+     * the search text, the result holds near matches instead, for search text with typing mistakes.
+     *
+     * @param searchText text to search for
+     * @param onResult callback that receives the result on the JavaFX application thread
+     * @return future that completes with the result, or is cancelled if a newer search was started first
+     */
+    public static CompletableFuture<SearchResult> search(String searchText, Consumer<SearchResult> onResult) {
+        return scheduler.schedule(token -> {
+            // The snapshot does not change while it is searched, even if the library does.
+            Indexes library = indexes(Library.snapshot());
+
+            List<Song> songResults = library.songs.search(searchText, RESULT_LIMIT, token);
+            List<Album> albumResults = library.albums.search(searchText, RESULT_LIMIT, token);
+            List<Artist> artistResults = library.artists.search(searchText, RESULT_LIMIT, token);
+            SearchResult result = new SearchResult(songResults, albumResults, artistResults);
+
+            if (result.isEmpty()) {
+                Fuzzy fuzzy = library.fuzzy();
+                result = new SearchResult(fuzzy.songs.search(searchText, RESULT_LIMIT, token),
+                        fuzzy.albums.search(searchText, RESULT_LIMIT, token),
+                        fuzzy.artists.search(searchText, RESULT_LIMIT, token),
+                        true);
+            }
+            return result;
+        }, onResult);
+    }
 
-    public static BooleanProperty hasResultsProperty() { return hasResults; }
+    /**
+     * Cancels the latest search, for example when the search text is cleared.
+     */
+    public static void cancel() {
+        scheduler.cancel();
+    }
 
-    public static SearchResult getResult() {
-        hasResults.set(false);
-        return result;
+    // Gets the indexes of a library snapshot, building them if the library changed since the last search.
+    private static Indexes indexes(LibrarySnapshot snapshot) {
+        Indexes current = indexes;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Indexes(snapshot);
+            indexes = current;
+        }
+        return current;
     }
 
-    public static void search(String searchText) {
-        if (searchThread != null && searchThread.isAlive()) {
-            searchThread.interrupt();
+    /**
+     * Search indexes of the songs, albums and artists of one library snapshot, with their search sessions.
+     */
+    private static final class Indexes {
+
+        private final LibrarySnapshot snapshot;
+        // Sessions remember the matches of recent queries, so typing narrows the previous matches.
+        private final SearchSession<Song> songs;
+        private final SearchSession<Album> albums;
+        private final SearchSession<Artist> artists;
+        // Built on the first search without exact matches, which searches run on the search thread.
+        private Fuzzy fuzzy;
+
+        private Indexes(LibrarySnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.songs = new SearchSession<>(new SearchIndex<>(snapshot.getSongs(), Song::getTitle));
+            this.albums = new SearchSession<>(new SearchIndex<>(snapshot.getAlbums(), Album::getTitle));
+            this.artists = new SearchSession<>(new SearchIndex<>(snapshot.getArtists(), Artist::getTitle));
         }
 
-        String text = searchText.toUpperCase();
-
-        searchThread = new Thread(() -> {
-            try {
-
-                hasResults.set(false);
-
-                List<Song> songResults = Library.getSongs().stream()
-                        .filter(song -> song.getTitle().toUpperCase().contains(text))
-                        .sorted((x, y) -> {
-                            boolean xMatch = x.getTitle().toUpperCase().equals(text);
-                            boolean yMatch = y.getTitle().toUpperCase().equals(text);
-                            if (xMatch && yMatch) return 0;
-                            if (xMatch) return -1;
-                            if (yMatch) return 1;
-
-                            boolean xStartWith = x.getTitle().toUpperCase().startsWith(text);
-                            boolean yStartWith = y.getTitle().toUpperCase().startsWith(text);
-                            if (xStartWith && yStartWith) return 0;
-                            if (xStartWith) return -1;
-                            if (yStartWith) return 1;
-
-                            boolean xContains = x.getTitle().toUpperCase().contains(" " + text);
-                            boolean yContains = y.getTitle().toUpperCase().contains(" " + text);
-                            if (xContains && yContains) return 0;
-                            if (xContains) return -1;
-                            if (yContains) return 1;
-                            return 0;
-                        })
-                        .collect(Collectors.toList());
-
-                if (searchThread.isInterrupted()) { throw new InterruptedException(); }
-
-                List<Album> albumResults = Library.getAlbums().stream()
-                        .filter(album -> album.getTitle().toUpperCase().contains(text))
-                        .sorted((x, y) -> {
-                            boolean xEqual = x.getTitle().toUpperCase().equals(text);
-                            boolean yEqual = y.getTitle().toUpperCase().equals(text);
-                            if (xEqual && yEqual) return 0;
-                            if (xEqual) return -1;
-                            if (yEqual) return 1;
-
-                            boolean xStartWith = x.getTitle().toUpperCase().startsWith(text);
-                            boolean yStartWith = y.getTitle().toUpperCase().startsWith(text);
-                            if (xStartWith && yStartWith) return 0;
-                            if (xStartWith) return -1;
-                            if (yStartWith) return 1;
-
-                            boolean xContains = x.getTitle().toUpperCase().contains(" " + text);
-                            boolean yContains = y.getTitle().toUpperCase().contains(" " + text);
-                            if (xContains && yContains) return 0;
-                            if (xContains) return -1;
-                            if (yContains) return 1;
-                            return 0;
-                        })
-                        .collect(Collectors.toList());
-
-                if (searchThread.isInterrupted()) { throw new InterruptedException(); }
-
-                List<Artist> artistResults = Library.getArtists().stream()
-                        .filter(artist -> artist.getTitle().toUpperCase().contains(text))
-                        .sorted((x, y) -> {
-                            boolean xMatch = x.getTitle().toUpperCase().equals(text);
-                            boolean yMatch = y.getTitle().toUpperCase().equals(text);
-                            if (xMatch && yMatch) return 0;
-                            if (xMatch) return -1;
-                            if (yMatch) return 1;
-
-                            boolean xStartWith = x.getTitle().toUpperCase().startsWith(text);
-                            boolean yStartWith = y.getTitle().toUpperCase().startsWith(text);
-                            if (xStartWith && yStartWith) return 0;
-                            if (xStartWith) return -1;
-                            if (yStartWith) return 1;
-
-                            boolean xContains = x.getTitle().toUpperCase().contains(" " + text);
-                            boolean yContains = y.getTitle().toUpperCase().contains(" " + text);
-                            if (xContains && yContains) return 0;
-                            if (xContains) return -1;
-                            if (yContains) return 1;
-                            return 0;
-                        })
-                        .collect(Collectors.toList());
-
-                if (searchThread.isInterrupted()) { throw new InterruptedException(); }
-
-                if (songResults.size() > 3) songResults = songResults.subList(0, 3);
-                if (albumResults.size() > 3) albumResults = albumResults.subList(0, 3);
-                if (artistResults.size() > 3) artistResults = artistResults.subList(0, 3);
-                result = new SearchResult(songResults, albumResults, artistResults);
-
-                hasResults.set(true);
-
-            } catch (InterruptedException ex) {
-                // terminate thread
+        private Fuzzy fuzzy() {
+            if (fuzzy == null) {
+                fuzzy = new Fuzzy(snapshot);
             }
-        });
-        searchThread.start();
+            return fuzzy;
+        }
+    }
+
+    /**
+     * Fuzzy indexes of the songs, albums and artists of one library snapshot.
+     */
+    private static final class Fuzzy {
+
+        private final FuzzyIndex<Song> songs;
+        private final FuzzyIndex<Album> albums;
+        private final FuzzyIndex<Artist> artists;
+
+        private Fuzzy(LibrarySnapshot snapshot) {
+            this.songs = new FuzzyIndex<>(snapshot.getSongs(), Song::getTitle);
+            this.albums = new FuzzyIndex<>(snapshot.getAlbums(), Album::getTitle);
+            this.artists = new FuzzyIndex<>(snapshot.getArtists(), Artist::getTitle);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,427 @@
+package app.musicplayer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Inverted index over the titles of a list of items, for finding the best matches of a search text.
+ *
+ * Titles are converted to upper case once and split into words. Each distinct word maps to the ascending
+ * positions of the items whose title contains it, and the words are kept sorted so that all words starting
+ * with a prefix are found with a binary search. The first words of the titles are indexed separately.
+ *
+ * Matches are ranked as in the search box: titles equal to the text, then titles starting with it, then
+ * titles with a word starting with it, then titles that contain it anywhere. Items of equal rank keep their
+ * order in the list. The ranks are searched best first, and the posting lists of the matching words are
+ * merged in position order with a heap, so each rank stops as soon as enough matches have been found
+ * instead of collecting and sorting every match.
+ *
+ * Titles that only match inside a word are not in the index and are found by scanning the titles,
+ * which only happens when the better ranks have fewer matches than requested.
+ *
+ * An index is immutable and may be searched from any thread.
+ *
+ * @param <T> type of the items
+ */
+public final class SearchIndex<T> {
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    // Number of titles checked between two checks of the cancellation token, minus one.
+    private static final int CHECK_INTERVAL = 4095;
+
+    private final List<T> items;
+    private final String[] titles;
+    private final Map<String, int[]> exactTitles;
+    private final Postings firstWords;
+    private final Postings words;
+
+    /**
+     * Constructor for the SearchIndex class.
+     *
+     * @param items items to index
+     * @param title function that returns the title of an item
+     */
+    public SearchIndex(List<? extends T> items, Function<? super T, String> title) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.titles = new String[this.items.size()];
+
+        Map<String, List<Integer>> titlePositions = new HashMap<>();
+        Map<String, List<Integer>> firstWordPositions = new HashMap<>();
+        Map<String, List<Integer>> wordPositions = new HashMap<>();
+        for (int i = 0; i < titles.length; i++) {
+            String itemTitle = title.apply(this.items.get(i));
+            titles[i] = itemTitle == null ? "" : itemTitle.toUpperCase();
+            add(titlePositions, titles[i], i);
+
+            boolean first = true;
+            for (String word : titles[i].split(" ")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                if (first) {
+                    add(firstWordPositions, word, i);
+                    first = false;
+                }
+                add(wordPositions, word, i);
+            }
+        }
+
+        this.exactTitles = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : titlePositions.entrySet()) {
+            this.exactTitles.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        this.firstWords = new Postings(firstWordPositions);
+        this.words = new Postings(wordPositions);
+    }
+
+    public int size() {
+        return this.titles.length;
+    }
+
+    /**
+     * Gets the items whose title contains the text, best matches first.
+     *
+     * @param text text to search for, in any case
+     * @param limit maximum number of results
+     * @return at most limit best matching items
+     */
+    public List<T> search(String text, int limit) {
+        return search(text, limit, CancellationToken.NONE);
+    }
+
+    /**
+     * Gets the items whose title contains the text, best matches first.
+     *
+     * @param text text to search for, in any case
+     * @param limit maximum number of results
+     * @param token token that stops the search when it is cancelled
+     * @return at most limit best matching items
+     * @throws java.util.concurrent.CancellationException if the token was cancelled
+     */
+    public List<T> search(String text, int limit, CancellationToken token) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        String query = text.toUpperCase();
+        String word = " " + query;
+        int space = query.indexOf(' ');
+        String firstWord = space < 0 ? query : query.substring(0, space);
+
+        List<Integer> positions = new ArrayList<>(limit);
+        if (firstWord.isEmpty()) {
+            // Without a first word the index cannot narrow down the titles.
+            scanAll(query, word, limit, positions, token);
+        } else {
+            int[] exact = exactTitles.get(query);
+            if (exact != null) {
+                for (int i = 0; i < exact.length && positions.size() < limit; i++) {
+                    positions.add(exact[i]);
+                }
+            }
+            // A title that starts with the text starts with a word that starts with the first word of the text,
+            // and a title with a word that starts with the text has such a word somewhere.
+            if (positions.size() < limit) {
+                firstWords.collect(firstWord, PREFIX, PREFIX, query, word, limit, positions, token);
+            }
+            if (positions.size() < limit) {
+                words.collect(firstWord, WORD_PREFIX, WORD_PREFIX, query, word, limit, positions, token);
+            }
+            for (int i = 0; i < titles.length && positions.size() < limit; i++) {
+                if ((i & CHECK_INTERVAL) == 0) {
+                    token.throwIfCancelled();
+                }
+                if (rank(titles[i], query, word) == SUBSTRING) {
+                    positions.add(i);
+                }
+            }
+        }
+
+        List<T> results = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            results.add(items.get(position));
+        }
+        return results;
+    }
+
+    /**
+     * Gets the positions of all titles in which the text starts at the beginning of a word, that is the
+     * exact, prefix and word prefix matches, from the posting lists of the words instead of the titles.
+     *
+     * @param text text to search for, in any case
+     * @param token token that stops the search when it is cancelled
+     * @return ascending positions of the matching titles, or null if the text starts with a space
+     *         and the index cannot be used
+     */
+    int[] wordMatches(String text, CancellationToken token) {
+        String query = text.toUpperCase();
+        int space = query.indexOf(' ');
+        String firstWord = space < 0 ? query : query.substring(0, space);
+        if (firstWord.isEmpty()) {
+            return null;
+        }
+        // Every word of a title is in the word postings, including the first one.
+        List<Integer> positions = new ArrayList<>();
+        words.collect(firstWord, EXACT, WORD_PREFIX, query, " " + query, Integer.MAX_VALUE, positions, token);
+        return toArray(positions);
+    }
+
+    /**
+     * Gets the positions of the titles among the candidates in which the text starts at the beginning of a word.
+     *
+     * @param text text to search for, in any case
+     * @param candidates ascending positions of the titles to check
+     * @param token token that stops the search when it is cancelled
+     * @return ascending positions of the matching titles
+     */
+    int[] wordMatches(String text, int[] candidates, CancellationToken token) {
+        String query = text.toUpperCase();
+        String word = " " + query;
+        int[] positions = new int[candidates.length];
+        int count = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if ((i & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            int position = candidates[i];
+            int rank = rank(titles[position], query, word);
+            if (rank >= EXACT && rank <= WORD_PREFIX) {
+                positions[count++] = position;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Gets the positions of all titles that contain the text.
+     *
+     * @param text text to search for, in any case
+     * @param token token that stops the search when it is cancelled
+     * @return ascending positions of the matching titles
+     */
+    int[] matches(String text, CancellationToken token) {
+        String query = text.toUpperCase();
+        int[] positions = new int[titles.length];
+        int count = 0;
+        for (int i = 0; i < titles.length; i++) {
+            if ((i & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            if (titles[i].contains(query)) {
+                positions[count++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Gets the positions of the titles among the candidates that contain the text.
+     *
+     * @param text text to search for, in any case
+     * @param candidates ascending positions of the titles to check
+     * @param token token that stops the search when it is cancelled
+     * @return ascending positions of the matching titles
+     */
+    int[] matches(String text, int[] candidates, CancellationToken token) {
+        String query = text.toUpperCase();
+        int[] positions = new int[candidates.length];
+        int count = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if ((i & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            int position = candidates[i];
+            if (titles[position].contains(query)) {
+                positions[count++] = position;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Gets the best matches of the text among the titles at the given positions. Only the best matches
+     * seen so far are kept in a bounded heap, so the cost grows with the number of positions, not the index.
+     *
+     * @param text text to search for, in any case
+     * @param positions ascending positions of titles that contain the text
+     * @param limit maximum number of results
+     * @param token token that stops the search when it is cancelled
+     * @return at most limit best matching items
+     */
+    List<T> best(String text, int[] positions, int limit, CancellationToken token) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        String query = text.toUpperCase();
+        String word = " " + query;
+
+        // The worst of the best matches so far is at the head of the queue. A match is stored as its rank
+        // followed by its position, so that comparing two matches compares rank first.
+        PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder());
+        for (int i = 0; i < positions.length; i++) {
+            if ((i & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            int position = positions[i];
+            int rank = rank(titles[position], query, word);
+            if (rank < 0) {
+                continue;
+            }
+            long match = ((long) rank << 32) | position;
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (match < best.peek()) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        long[] matches = new long[best.size()];
+        for (int i = matches.length - 1; i >= 0; i--) {
+            matches[i] = best.poll();
+        }
+        List<T> results = new ArrayList<>(matches.length);
+        for (long match : matches) {
+            results.add(items.get((int) match));
+        }
+        return results;
+    }
+
+    // Collects the best matches by scanning all titles, keeping at most limit matches of each rank.
+    private void scanAll(String query, String word, int limit, List<Integer> positions, CancellationToken token) {
+        List<List<Integer>> ranks = new ArrayList<>();
+        for (int i = 0; i <= SUBSTRING; i++) {
+            ranks.add(new ArrayList<>());
+        }
+        for (int i = 0; i < titles.length; i++) {
+            if ((i & CHECK_INTERVAL) == 0) {
+                token.throwIfCancelled();
+            }
+            int rank = rank(titles[i], query, word);
+            if (rank >= 0 && ranks.get(rank).size() < limit) {
+                ranks.get(rank).add(i);
+            }
+        }
+        for (List<Integer> rank : ranks) {
+            for (int i = 0; i < rank.size() && positions.size() < limit; i++) {
+                positions.add(rank.get(i));
+            }
+        }
+    }
+
+    // Rank of a title for the query, or -1 if it does not match.
+    private static int rank(String title, String query, String word) {
+        if (title.equals(query)) {
+            return EXACT;
+        } else if (title.startsWith(query)) {
+            return PREFIX;
+        } else if (title.contains(word)) {
+            return WORD_PREFIX;
+        } else if (title.contains(query)) {
+            return SUBSTRING;
+        }
+        return -1;
+    }
+
+    private static void add(Map<String, List<Integer>> positions, String key, int position) {
+        List<Integer> list = positions.computeIfAbsent(key, x -> new ArrayList<>());
+        // Positions are added in order, so a repeated key only needs to be compared with the last one.
+        if (list.isEmpty() || list.get(list.size() - 1) != position) {
+            list.add(position);
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Sorted words with the ascending positions of the titles that contain them.
+     */
+    private final class Postings {
+
+        private final String[] words;
+        private final int[][] positions;
+
+        private Postings(Map<String, List<Integer>> wordPositions) {
+            this.words = wordPositions.keySet().toArray(new String[0]);
+            Arrays.sort(this.words);
+            this.positions = new int[this.words.length][];
+            for (int i = 0; i < this.words.length; i++) {
+                this.positions[i] = toArray(wordPositions.get(this.words[i]));
+            }
+        }
+
+        /**
+         * Adds the positions of the titles with a rank from minRank to maxRank that have a word starting with
+         * the prefix, in ascending order, until there are limit positions.
+         */
+        private void collect(String prefix, int minRank, int maxRank, String query, String word, int limit,
+                List<Integer> results, CancellationToken token) {
+            int from = Arrays.binarySearch(words, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            int to = from;
+            while (to < words.length && words[to].startsWith(prefix)) {
+                to++;
+            }
+            if (from == to) {
+                return;
+            }
+
+            // The next position of each word, stored as the position followed by the word, so that the head
+            // of the queue is the lowest position left in any of the posting lists.
+            PriorityQueue<Long> next = new PriorityQueue<>(to - from);
+            int[] offsets = new int[to - from];
+            for (int i = from; i < to; i++) {
+                next.add(entry(positions[i][0], i));
+            }
+
+            int last = -1;
+            int merged = 0;
+            while (!next.isEmpty()) {
+                if ((merged++ & CHECK_INTERVAL) == 0) {
+                    token.throwIfCancelled();
+                }
+                long head = next.poll();
+                int position = (int) (head >>> 32);
+                int wordIndex = (int) head;
+
+                // A title with several matching words comes up once for each of them.
+                if (position != last) {
+                    last = position;
+                    int rank = SearchIndex.rank(titles[position], query, word);
+                    if (rank >= minRank && rank <= maxRank) {
+                        results.add(position);
+                        if (results.size() == limit) {
+                            return;
+                        }
+                    }
+                }
+
+                int offset = ++offsets[wordIndex - from];
+                if (offset < positions[wordIndex].length) {
+                    next.add(entry(positions[wordIndex][offset], wordIndex));
+                }
+            }
+        }
+
+        private long entry(int position, int wordIndex) {
+            return ((long) position << 32) | wordIndex;
+        }
+    }
+}
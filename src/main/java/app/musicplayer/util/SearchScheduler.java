@@ -0,0 +1,122 @@
+package app.musicplayer.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import app.musicplayer.util.UiScheduler.Priority;
+
+/**
+ * Runs searches for type-ahead input on a single background thread.
+ *
+ * Each search waits for the debounce delay before it starts, and scheduling a new search cancels the
+ * previous one, whether it is still waiting or already running. Running searches check their cancellation
+ * token inside their loops, so the worker is free for the newest search soon after it is scheduled.
+ *
+ * Every search is tagged with a generation number. Its result completes the returned future and is passed
+ * to the result callback on the JavaFX application thread, but only while no newer search has been scheduled,
+ * so the callback never sees results out of order.
+ */
+public final class SearchScheduler {
+
+    private final ScheduledExecutorService worker;
+    private final long debounce;
+    private final Executor callbacks;
+    private final AtomicLong generation = new AtomicLong();
+
+    // The latest search, which is cancelled when the next one is scheduled.
+    private CancellationToken token;
+    private CompletableFuture<?> future;
+
+    /**
+     * Constructor for the SearchScheduler class that delivers results on the JavaFX application thread.
+     *
+     * @param debounce time in milliseconds a search waits before it starts
+     */
+    public SearchScheduler(long debounce) {
+        this(debounce, work -> UiScheduler.post(Priority.HIGH, work));
+    }
+
+    /**
+     * Constructor for the SearchScheduler class.
+     *
+     * @param debounce time in milliseconds a search waits before it starts
+     * @param callbacks executor that runs the result callbacks
+     */
+    public SearchScheduler(long debounce, Executor callbacks) {
+        this.debounce = debounce;
+        this.callbacks = callbacks;
+        this.worker = Executors.newSingleThreadScheduledExecutor(work -> {
+            Thread thread = new Thread(work, "search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a search and cancels the previous one.
+     *
+     * @param search search to run with its cancellation token
+     * @param onResult callback for the result, or null
+     * @return future that completes with the result, or is cancelled if a newer search was scheduled first
+     */
+    public synchronized <R> CompletableFuture<R> schedule(Function<CancellationToken, R> search, Consumer<? super R> onResult) {
+        cancel();
+        long tag = generation.incrementAndGet();
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<R> future = new CompletableFuture<>();
+        this.token = token;
+        this.future = future;
+
+        worker.schedule(() -> {
+            if (token.isCancelled()) {
+                return;
+            }
+            try {
+                R result = search.apply(token);
+                if (onResult != null) {
+                    callbacks.execute(() -> {
+                        if (generation.get() == tag) {
+                            onResult.accept(result);
+                        }
+                    });
+                }
+                future.complete(result);
+            } catch (CancellationException ex) {
+                future.cancel(false);
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+        }, debounce, TimeUnit.MILLISECONDS);
+
+        return future;
+    }
+
+    /**
+     * Cancels the latest search and keeps its result from being delivered.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (token != null) {
+            token.cancel();
+            future.cancel(false);
+            token = null;
+            future = null;
+        }
+    }
+
+    /**
+     * Gets the generation of the latest search or cancellation.
+     *
+     * @return generation number
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+}
@@ -0,0 +1,122 @@
+package app.musicplayer.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type-ahead search over a search index that remembers the matches of recent queries.
+ *
+ * When no prefix of a query is remembered, its candidates are the titles in which it starts at the beginning
+ * of a word, taken from the posting lists of the index. Titles that only contain the query inside a word are
+ * ranked last, so all titles are only scanned for them when there are fewer word matches than requested.
+ * Typing one more character can only narrow the matches, so a query that extends a remembered query only
+ * checks the titles that matched the remembered one, and going back with backspace finds the shorter query
+ * remembered. The matches of the most recently used queries are kept, up to a fixed number of queries.
+ *
+ * A session belongs to one index and is safe to use from several threads.
+ *
+ * @param <T> type of the items
+ */
+public final class SearchSession<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final SearchIndex<T> index;
+    private final Map<String, Matches> matches;
+
+    /**
+     * Constructor for the SearchSession class that remembers up to 16 queries.
+     *
+     * @param index index to search
+     */
+    public SearchSession(SearchIndex<T> index) {
+        this(index, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for the SearchSession class.
+     *
+     * @param index index to search
+     * @param capacity maximum number of queries whose matches are remembered
+     */
+    public SearchSession(SearchIndex<T> index, int capacity) {
+        this.index = index;
+        // Iterates in access order, so the eldest entry is the least recently used query.
+        this.matches = new LinkedHashMap<String, Matches>(capacity + 1, 1.0f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Matches> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the items whose title contains the text, best matches first, ranked as by SearchIndex.search.
+     *
+     * @param text text to search for, in any case
+     * @param limit maximum number of results
+     * @return at most limit best matching items
+     */
+    public List<T> search(String text, int limit) {
+        return search(text, limit, CancellationToken.NONE);
+    }
+
+    /**
+     * Gets the items whose title contains the text, best matches first, ranked as by SearchIndex.search.
+     * A cancelled search does not remember its matches.
+     *
+     * @param text text to search for, in any case
+     * @param limit maximum number of results
+     * @param token token that stops the search when it is cancelled
+     * @return at most limit best matching items
+     * @throws java.util.concurrent.CancellationException if the token was cancelled
+     */
+    public synchronized List<T> search(String text, int limit, CancellationToken token) {
+        String query = text.toUpperCase();
+        Matches found = matches.get(query);
+
+        if (found == null) {
+            Matches candidates = null;
+            for (int length = query.length() - 1; length > 0 && candidates == null; length--) {
+                candidates = matches.get(query.substring(0, length));
+            }
+            if (candidates != null) {
+                found = candidates.all
+                        ? new Matches(index.matches(query, candidates.positions, token), true)
+                        : new Matches(index.wordMatches(query, candidates.positions, token), false);
+            } else {
+                int[] positions = index.wordMatches(query, token);
+                found = positions == null ? new Matches(index.matches(query, token), true) : new Matches(positions, false);
+            }
+        }
+        if (!found.all && found.positions.length < limit) {
+            // Too few word matches, so the titles that contain the query inside a word are needed as well.
+            found = new Matches(index.matches(query, token), true);
+        }
+        matches.put(query, found);
+
+        return index.best(query, found.positions, limit, token);
+    }
+
+    /**
+     * Ascending positions of the titles that match a query, either all titles that contain it,
+     * or only those in which it starts at the beginning of a word.
+     */
+    private static final class Matches {
+
+        private final int[] positions;
+        private final boolean all;
+
+        private Matches(int[] positions, boolean all) {
+            this.positions = positions;
+            this.all = all;
+        }
+    }
+
+    boolean isRemembered(String text) {
+        synchronized (this) {
+            return matches.containsKey(text.toUpperCase());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package app.musicplayer.util;
+
+import java.text.CollationKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * List of items kept in sorted order, with a letter index for jumping to the items listed under a letter.
+ *
+ * The items are sorted once when the index is built. Afterwards items are added, removed and moved
+ * one at a time with a binary search, so the index never has to be sorted again.
+ *
+ * @param <T> type of the items
+ */
+public final class SortedIndex<T> {
+
+    private final Comparator<? super T> comparator;
+    private final ArrayList<T> items;
+    private final List<T> unmodifiableItems;
+    private final LetterIndex<T> letters;
+
+    /**
+     * Constructor for the SortedIndex class.
+     *
+     * @param items items to index
+     * @param comparator order of the items
+     * @param key function that returns the sort key of the title the items are sorted by first,
+     * or null if the order is not by title and has no letters
+     */
+    public SortedIndex(Collection<? extends T> items, Comparator<? super T> comparator, Function<? super T, CollationKey> key) {
+        this.comparator = comparator;
+        this.items = new ArrayList<>(items);
+        this.items.sort(comparator);
+        this.unmodifiableItems = Collections.unmodifiableList(this.items);
+        this.letters = key == null ? null : new LetterIndex<>(this.items, key);
+    }
+
+    /**
+     * Gets the items in sorted order. The list reflects later changes to the index and cannot be modified.
+     *
+     * @return sorted items
+     */
+    public List<T> getItems() {
+        return this.unmodifiableItems;
+    }
+
+    /**
+     * Copies the first items in sorted order, so that they can be read while the index changes.
+     *
+     * @param count maximum number of items
+     * @return up to count items from the start of the index
+     */
+    public synchronized List<T> head(int count) {
+        return new ArrayList<>(this.items.subList(0, Math.min(count, this.items.size())));
+    }
+
+    public synchronized int size() {
+        return this.items.size();
+    }
+
+    /**
+     * Inserts an item at its sorted position.
+     *
+     * @param item item to add
+     */
+    public synchronized void add(T item) {
+        this.items.add(insertionPoint(item), item);
+    }
+
+    /**
+     * Removes an item. The sort key of the item must not have changed since it was added or updated.
+     *
+     * @param item item to remove
+     * @return true if the item was in the index
+     */
+    public synchronized boolean remove(T item) {
+        int index = indexOf(item);
+        if (index < 0) {
+            return false;
+        }
+        this.items.remove(index);
+        return true;
+    }
+
+    /**
+     * Changes the sort key of an item and moves the item to its new sorted position. The item is found
+     * by a binary search on its old key, and only the items between its old and new position are shifted.
+     *
+     * @param item item whose sort key changes
+     * @param change change of the sort key, which is made even if the item is not in the index
+     */
+    public synchronized void update(T item, Runnable change) {
+        int from = indexOf(item);
+        change.run();
+        if (from < 0) {
+            return;
+        }
+        int to = insertionPointWithout(item, from);
+        if (to < from) {
+            Collections.rotate(this.items.subList(to, from + 1), 1);
+        } else if (to > from) {
+            Collections.rotate(this.items.subList(from, to + 1), -1);
+        }
+    }
+
+    /**
+     * Gets the number of items that sort before the items listed under a letter.
+     *
+     * @param letter letter to look up
+     * @return index of the first item listed under the letter or a later one
+     * @throws UnsupportedOperationException if the order is not by title
+     */
+    public synchronized int offsetOf(char letter) {
+        return letters().offsetOf(letter);
+    }
+
+    /**
+     * Gets the number of items listed under the letter.
+     *
+     * @param letter letter to look up
+     * @return number of items
+     * @throws UnsupportedOperationException if the order is not by title
+     */
+    public synchronized int countOf(char letter) {
+        return letters().countOf(letter);
+    }
+
+    private LetterIndex<T> letters() {
+        if (this.letters == null) {
+            throw new UnsupportedOperationException("Items are not sorted by title");
+        }
+        return this.letters;
+    }
+
+    // Index after the last item that sorts before or with the item, so that equal items keep their insertion order.
+    private int insertionPoint(T item) {
+        int low = 0;
+        int high = this.items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(this.items.get(middle), item) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Insertion point of an item among the other items, leaving out the item at the given index.
+    private int insertionPointWithout(T item, int skipped) {
+        int low = 0;
+        int high = this.items.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            T other = this.items.get(middle < skipped ? middle : middle + 1);
+            if (comparator.compare(other, item) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(T item) {
+        int index = insertionPoint(item) - 1;
+        // Equal items are next to each other, so the item is among the ones that compare equal to it.
+        while (index >= 0 && comparator.compare(this.items.get(index), item) == 0) {
+            if (this.items.get(index) == item) {
+                return index;
+            }
+            index--;
+        }
+        return -1;
+    }
+}
@@ -1,5 +1,6 @@
 package app.musicplayer.util;
 
+import app.musicplayer.model.Library;
 import app.musicplayer.model.Song;
 
 public interface SubView {
@@ -7,4 +8,13 @@ public interface SubView {
 	void scroll(char letter);
 	void play();
 	Song getSelectedSong();
+
+	/**
+	 * Updates a cached view after the library changed while it was not shown.
+	 * Called once for each kind of change, however often it happened. Views ignore the kinds of changes
+	 * that do not affect what they show, which is the default.
+	 *
+	 * @param change kind of change
+	 */
+	default void libraryChanged(Library.Change change) {}
 }
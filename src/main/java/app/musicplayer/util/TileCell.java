@@ -0,0 +1,52 @@
+package app.musicplayer.util;
+
+import javafx.scene.layout.VBox;
+
+/**
+ * A cell of a {@link TileGrid}. Cells are reused for different items as the grid is scrolled,
+ * so subclasses should update their content in {@link #updateItem(Object, boolean)} rather than
+ * holding on to the item they were created for.
+ *
+ * @param <T> type of the grid items
+ */
+public abstract class TileCell<T> extends VBox {
+
+    private T item;
+    private int index = -1;
+
+    /**
+     * Gets the item currently shown by this cell.
+     *
+     * @return cell item, or null if the cell is empty
+     */
+    public T getItem() {
+        return this.item;
+    }
+
+    /**
+     * Gets the index of the current item in the grid items.
+     *
+     * @return item index, or -1 if the cell is empty
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    public boolean isEmpty() {
+        return this.index < 0;
+    }
+
+    final void update(T item, int index) {
+        this.item = item;
+        this.index = index;
+        updateItem(item, index < 0);
+    }
+
+    /**
+     * Updates the cell content when it is assigned a new item or released by the grid.
+     *
+     * @param item new item
+     * @param empty true if the cell no longer shows an item
+     */
+    protected abstract void updateItem(T item, boolean empty);
+}
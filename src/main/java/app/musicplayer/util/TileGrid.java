@@ -0,0 +1,300 @@
+package app.musicplayer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javafx.animation.Animation;
+import javafx.animation.Transition;
+import javafx.beans.InvalidationListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.scene.Parent;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Region;
+import javafx.util.Duration;
+
+/**
+ * Virtualized grid of equally sized tiles.
+ *
+ * The grid must be the content of a scroll pane. It reports the height of all rows as its preferred
+ * height so that the scroll pane scrolls over the whole item list, but only creates cells for the
+ * rows that are visible in the scroll pane viewport plus a few rows of overscan. Cells that scroll
+ * out of view are reused for the items that scroll into view.
+ *
+ * @param <T> type of the grid items
+ */
+public class TileGrid<T> extends Region {
+
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+
+    private int columns = 5;
+    private int overscan = 1;
+    private Supplier<TileCell<T>> cellFactory;
+
+    private ObservableList<T> items = FXCollections.observableArrayList();
+    private int selectedIndex = -1;
+
+    // Cells that currently show an item, by item index, and cells that are waiting to be reused.
+    private final Map<Integer, TileCell<T>> activeCells = new HashMap<>();
+    private final ArrayDeque<TileCell<T>> freeCells = new ArrayDeque<>();
+
+    private ScrollPane scrollPane;
+    private final InvalidationListener scrollListener = x -> requestLayout();
+    private final ListChangeListener<T> itemsListener = change -> {
+        releaseCells();
+        requestLayout();
+    };
+
+    public TileGrid() {
+        // The scroll pane is only reachable once the grid has been added to the scene graph.
+        parentProperty().addListener((obs, oldParent, newParent) -> attachScrollPane());
+        sceneProperty().addListener((obs, oldScene, newScene) -> attachScrollPane());
+    }
+
+    public ObservableList<T> getItems() {
+        return this.items;
+    }
+
+    public void setItems(ObservableList<T> items) {
+        this.items.removeListener(itemsListener);
+        this.items = items;
+        this.items.addListener(itemsListener);
+        releaseCells();
+        requestLayout();
+    }
+
+    /**
+     * Sets the factory that creates new cells when no released cell can be reused.
+     *
+     * @param cellFactory cell factory
+     */
+    public void setCellFactory(Supplier<TileCell<T>> cellFactory) {
+        this.cellFactory = cellFactory;
+        releaseCells();
+        getChildren().clear();
+        freeCells.clear();
+        requestLayout();
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public void setColumns(int columns) {
+        this.columns = columns;
+        releaseCells();
+        requestLayout();
+    }
+
+    public int getOverscan() {
+        return this.overscan;
+    }
+
+    /**
+     * Sets the number of rows that are laid out above and below the viewport.
+     *
+     * @param overscan number of rows
+     */
+    public void setOverscan(int overscan) {
+        this.overscan = overscan;
+        requestLayout();
+    }
+
+    public int getSelectedIndex() {
+        return this.selectedIndex;
+    }
+
+    /**
+     * Sets the index of the item that is marked with the selected pseudo class.
+     *
+     * @param index item index, or -1 to clear the selection
+     */
+    public void setSelectedIndex(int index) {
+        this.selectedIndex = index;
+        for (TileCell<T> cell : activeCells.values()) {
+            cell.pseudoClassStateChanged(SELECTED, cell.getIndex() == index);
+        }
+    }
+
+    /**
+     * Gets the cell that currently shows the item at the given index.
+     *
+     * @param index item index
+     * @return cell, or null if the item is not laid out
+     */
+    public TileCell<T> getCell(int index) {
+        return activeCells.get(index);
+    }
+
+    /**
+     * Scrolls the enclosing scroll pane so that the row of the given item is at the top of the viewport.
+     *
+     * @param index item index
+     */
+    public void scrollTo(int index) {
+        ScrollPane scrollPane = this.scrollPane;
+        if (scrollPane == null || items.isEmpty() || cellFactory == null) {
+            return;
+        }
+
+        double tileHeight = getTileHeight(getWidth() / columns);
+        double row = (Math.max(0, Math.min(index, items.size() - 1)) / columns) * tileHeight;
+        double scrollable = getHeight() - scrollPane.getViewportBounds().getHeight();
+        double finalVvalue = scrollable > 0 ? Math.min(1, row / scrollable) : 0;
+        double startVvalue = scrollPane.getVvalue();
+
+        Animation scrollAnimation = new Transition() {
+            {
+                setCycleDuration(Duration.millis(500));
+            }
+            protected void interpolate(double frac) {
+                double vValue = startVvalue + ((finalVvalue - startVvalue) * frac);
+                scrollPane.setVvalue(vValue);
+            }
+        };
+
+        scrollAnimation.play();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return scrollPane == null ? 0 : scrollPane.getViewportBounds().getWidth();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        double w = width < 0 ? getWidth() : width;
+        int rows = (items.size() + columns - 1) / columns;
+        return rows == 0 || w <= 0 || cellFactory == null ? 0 : rows * getTileHeight(w / columns);
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        // Keeps the scroll pane from shrinking the grid to the viewport when it fits content to height.
+        return computePrefHeight(width);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        int count = items.size();
+        double width = getWidth();
+
+        if (count == 0 || width <= 0 || cellFactory == null) {
+            releaseCells();
+            return;
+        }
+
+        double tileWidth = width / columns;
+        double tileHeight = getTileHeight(tileWidth);
+        int rows = (count + columns - 1) / columns;
+
+        double top = 0;
+        double viewportHeight = getHeight();
+        if (scrollPane != null) {
+            viewportHeight = scrollPane.getViewportBounds().getHeight();
+            double scrollable = Math.max(0, getHeight() - viewportHeight);
+            double range = scrollPane.getVmax() - scrollPane.getVmin();
+            if (range > 0) {
+                top = (scrollPane.getVvalue() - scrollPane.getVmin()) / range * scrollable;
+            }
+        }
+
+        int firstRow = Math.max(0, (int) (top / tileHeight) - overscan);
+        int lastRow = Math.min(rows - 1, (int) ((top + viewportHeight) / tileHeight) + overscan);
+        int first = firstRow * columns;
+        int last = Math.min(count, (lastRow + 1) * columns);
+
+        // Releases the cells whose items scrolled out of the laid out rows.
+        Iterator<Map.Entry<Integer, TileCell<T>>> iterator = activeCells.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, TileCell<T>> entry = iterator.next();
+            int index = entry.getKey();
+            if (index < first || index >= last) {
+                iterator.remove();
+                release(entry.getValue());
+            }
+        }
+
+        for (int i = first; i < last; i++) {
+            TileCell<T> cell = activeCells.get(i);
+            if (cell == null) {
+                cell = obtainCell();
+                cell.update(items.get(i), i);
+                cell.pseudoClassStateChanged(SELECTED, i == selectedIndex);
+                cell.setVisible(true);
+                activeCells.put(i, cell);
+            }
+            cell.resizeRelocate((i % columns) * tileWidth, (i / columns) * tileHeight, tileWidth, tileHeight);
+        }
+    }
+
+    private double getTileHeight(double tileWidth) {
+        TileCell<T> cell;
+        if (!activeCells.isEmpty()) {
+            cell = activeCells.values().iterator().next();
+        } else {
+            // Measures with a released cell so that the measurement does not create extra nodes later.
+            cell = obtainCell();
+            if (!items.isEmpty()) {
+                cell.update(items.get(0), 0);
+            }
+            release(cell);
+        }
+        double height = cell.prefHeight(tileWidth);
+        return height > 0 ? height : tileWidth;
+    }
+
+    private TileCell<T> obtainCell() {
+        TileCell<T> cell = freeCells.poll();
+        if (cell == null) {
+            cell = cellFactory.get();
+            cell.setManaged(false);
+            getChildren().add(cell);
+        }
+        return cell;
+    }
+
+    private void release(TileCell<T> cell) {
+        cell.update(null, -1);
+        cell.pseudoClassStateChanged(SELECTED, false);
+        cell.setVisible(false);
+        freeCells.push(cell);
+    }
+
+    private void releaseCells() {
+        for (TileCell<T> cell : new ArrayList<>(activeCells.values())) {
+            release(cell);
+        }
+        activeCells.clear();
+    }
+
+    private void attachScrollPane() {
+        ScrollPane found = null;
+        for (Parent parent = getParent(); parent != null; parent = parent.getParent()) {
+            if (parent instanceof ScrollPane) {
+                found = (ScrollPane) parent;
+                break;
+            }
+        }
+
+        if (found == scrollPane) {
+            return;
+        }
+        if (scrollPane != null) {
+            scrollPane.vvalueProperty().removeListener(scrollListener);
+            scrollPane.viewportBoundsProperty().removeListener(scrollListener);
+        }
+        scrollPane = found;
+        if (scrollPane != null) {
+            scrollPane.vvalueProperty().addListener(scrollListener);
+            scrollPane.viewportBoundsProperty().addListener(scrollListener);
+        }
+        requestLayout();
+    }
+}
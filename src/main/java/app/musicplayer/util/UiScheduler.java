@@ -0,0 +1,147 @@
+package app.musicplayer.util;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Runs UI work posted from any thread on the JavaFX application thread.
+ *
+ * Instead of one Platform.runLater call per unit of work, posted work is queued and drained once per
+ * pulse by an animation timer. High priority work (user input and playback UI) always runs in the pulse
+ * after it was posted. Normal and low priority work runs until the pulse has used up its time budget
+ * and the rest is left for the following pulses, so that large batches do not starve input handling
+ * and animations.
+ */
+public final class UiScheduler {
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    // Time that normal and low priority work may use per pulse.
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(4);
+
+    private static final ConcurrentLinkedQueue<Runnable> high = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Runnable> normal = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Runnable> low = new ConcurrentLinkedQueue<>();
+
+    // Work taken from the queues that did not fit into the budget of an earlier pulse.
+    private static final ArrayDeque<Runnable> pendingNormal = new ArrayDeque<>();
+    private static final ArrayDeque<Runnable> pendingLow = new ArrayDeque<>();
+
+    private static final AtomicBoolean running = new AtomicBoolean();
+    private static AnimationTimer timer;
+
+    private UiScheduler() {}
+
+    /**
+     * Posts work with normal priority.
+     *
+     * @param work work to run on the JavaFX application thread
+     */
+    public static void post(Runnable work) {
+        post(Priority.NORMAL, work);
+    }
+
+    /**
+     * Posts work with the given priority.
+     *
+     * @param priority work priority
+     * @param work work to run on the JavaFX application thread
+     */
+    public static void post(Priority priority, Runnable work) {
+        enqueue(priority, work);
+        if (running.compareAndSet(false, true)) {
+            Platform.runLater(UiScheduler::startTimer);
+        }
+    }
+
+    static void enqueue(Priority priority, Runnable work) {
+        switch (priority) {
+            case HIGH:
+                high.add(work);
+                break;
+            case NORMAL:
+                normal.add(work);
+                break;
+            default:
+                low.add(work);
+                break;
+        }
+    }
+
+    /**
+     * Runs the work of one pulse.
+     *
+     * Work that is posted while the pulse runs is left for the next pulse, so work that posts a follow-up
+     * step lets the scene be laid out and rendered in between.
+     *
+     * @param budget time in nanoseconds that normal and low priority work may use
+     * @return true if work is left for a later pulse
+     */
+    static boolean drain(long budget) {
+        long start = System.nanoTime();
+
+        // Takes the batch that was queued before this pulse.
+        ArrayDeque<Runnable> batch = new ArrayDeque<>();
+        transfer(high, batch);
+        transfer(normal, pendingNormal);
+        transfer(low, pendingLow);
+
+        for (Runnable work : batch) {
+            run(work);
+        }
+
+        while (!pendingNormal.isEmpty() && System.nanoTime() - start < budget) {
+            run(pendingNormal.poll());
+        }
+
+        while (!pendingLow.isEmpty() && System.nanoTime() - start < budget) {
+            run(pendingLow.poll());
+        }
+
+        return !pendingNormal.isEmpty() || !pendingLow.isEmpty()
+                || !high.isEmpty() || !normal.isEmpty() || !low.isEmpty();
+    }
+
+    private static void transfer(ConcurrentLinkedQueue<Runnable> queue, ArrayDeque<Runnable> target) {
+        Runnable work;
+        while ((work = queue.poll()) != null) {
+            target.add(work);
+        }
+    }
+
+    private static void run(Runnable work) {
+        try {
+            work.run();
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static void startTimer() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    if (!drain(BUDGET)) {
+                        stop();
+                        running.set(false);
+                        // Restarts if work was posted after the queues were checked.
+                        if (hasWork() && running.compareAndSet(false, true)) {
+                            start();
+                        }
+                    }
+                }
+            };
+        }
+        timer.start();
+    }
+
+    private static boolean hasWork() {
+        return !high.isEmpty() || !normal.isEmpty() || !low.isEmpty();
+    }
+}
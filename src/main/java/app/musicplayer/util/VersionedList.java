@@ -0,0 +1,111 @@
+package app.musicplayer.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Read-only observable view over a list that is owned by someone else.
+ *
+ * Reading the view reads the backing list directly, so nothing is copied. The owner of the backing list
+ * reports its changes through the view, which notifies the listeners of the view, for example a SortedList
+ * or FilteredList wrapped around it, and increments the version. Callers that keep results computed from
+ * the view can compare versions to find out if the results are stale.
+ *
+ * Changes are reported on the thread that makes them. The view cannot be modified through the List methods.
+ *
+ * @param <T> type of the items
+ */
+public final class VersionedList<T> extends ObservableListBase<T> {
+
+    private List<? extends T> source;
+    private volatile long version;
+
+    /**
+     * Constructor for the VersionedList class.
+     *
+     * @param source backing list
+     */
+    public VersionedList(List<? extends T> source) {
+        this.source = source;
+    }
+
+    @Override
+    public T get(int index) {
+        return source.get(index);
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    /**
+     * Gets the number of changes reported through the view since it was created.
+     *
+     * @return version of the view
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the view reads from a list.
+     *
+     * @param list list to check
+     * @return true if the list is the backing list of the view
+     */
+    public boolean isViewOf(List<?> list) {
+        return source == list;
+    }
+
+    /**
+     * Makes the view read from another list. Listeners see all items of the old list replaced.
+     *
+     * @param source new backing list
+     */
+    public void setSource(List<? extends T> source) {
+        List<? extends T> removed = this.source;
+        this.source = source;
+        replaced(removed);
+    }
+
+    /**
+     * Reports that items were inserted into the backing list.
+     *
+     * @param from index of the first inserted item
+     * @param to index after the last inserted item
+     */
+    public void added(int from, int to) {
+        version++;
+        beginChange();
+        nextAdd(from, to);
+        endChange();
+    }
+
+    /**
+     * Reports that an item was removed from the backing list.
+     *
+     * @param index index the item had
+     * @param item removed item
+     */
+    public void removed(int index, T item) {
+        version++;
+        beginChange();
+        nextRemove(index, item);
+        endChange();
+    }
+
+    /**
+     * Reports that the contents of the backing list changed in some other way, for example by sorting.
+     *
+     * @param removed items of the backing list before the change
+     */
+    public void replaced(List<? extends T> removed) {
+        version++;
+        beginChange();
+        nextReplace(0, size(), removed == null ? Collections.<T>emptyList() : Collections.unmodifiableList(removed));
+        endChange();
+    }
+}
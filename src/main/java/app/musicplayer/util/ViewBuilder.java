@@ -0,0 +1,44 @@
+package app.musicplayer.util;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+
+/**
+ * Builds the node graph of an FXML view without parsing the FXML file.
+ *
+ * Implementations are generated from the view FXML files by the generateFxmlBuilders build task
+ * and are used through ViewLoader.
+ */
+public interface ViewBuilder {
+
+	/**
+	 * Creates the controller and the node graph of the view.
+	 *
+	 * @param context context that receives the controller and the nodes with an fx:id
+	 * @return root of the node graph
+	 */
+	Object build(Context context);
+
+	/**
+	 * Connects a generated view to its controller and its resources.
+	 */
+	interface Context {
+
+		void setController(Object controller);
+
+		/**
+		 * Injects a node with an fx:id into the controller field with the same name, if there is one.
+		 */
+		void put(String fxId, Object value);
+
+		/**
+		 * Gets an event handler that calls the controller method with the given name.
+		 */
+		EventHandler<Event> handler(String methodName);
+
+		/**
+		 * Gets the URL of a class path resource as a string.
+		 */
+		String resource(String path);
+	}
+}
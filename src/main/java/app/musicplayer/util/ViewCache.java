@@ -0,0 +1,143 @@
+package app.musicplayer.util;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import app.musicplayer.model.Library;
+import app.musicplayer.util.UiScheduler.Priority;
+import javafx.scene.Node;
+
+/**
+ * Keeps the node graphs and controllers of recently used sub views so that switching back to a view
+ * does not load its FXML file and rebuild its cells again.
+ *
+ * The cache holds a bounded number of views and drops the least recently used one when it is full.
+ * The kinds of library changes are collected for each cached view and passed to its controller the next time
+ * it is shown, so that a view only updates what a change affects.
+ * Views can also be preloaded in idle pulses so that the first switch to them is fast as well.
+ */
+public final class ViewCache {
+
+    /**
+     * A loaded view and its controller.
+     */
+    public static final class View {
+
+        private final Node node;
+        private final SubView controller;
+        private final EnumSet<Library.Change> changes = EnumSet.noneOf(Library.Change.class);
+
+        private View(Node node, SubView controller) {
+            this.node = node;
+            this.controller = controller;
+        }
+
+        public Node getNode() {
+            return this.node;
+        }
+
+        public SubView getController() {
+            return this.controller;
+        }
+    }
+
+    private final Map<String, View> views;
+    private final Set<String> uncached;
+    private final Set<String> preloading = new HashSet<>();
+
+    /**
+     * Constructor for the ViewCache class. Must be called on the JavaFX application thread.
+     *
+     * @param capacity maximum number of cached views
+     * @param uncached file names of views that are loaded again every time they are shown
+     */
+    public ViewCache(int capacity, String... uncached) {
+        this.uncached = new HashSet<>(Arrays.asList(uncached));
+        this.views = new LinkedHashMap<String, View>(capacity + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        Library.addChangeListener(change -> UiScheduler.post(Priority.LOW, () -> {
+            for (View view : views.values()) {
+                view.changes.add(change);
+            }
+        }));
+    }
+
+    /**
+     * Gets a view from the cache, updating it with the library changes since it was last shown,
+     * or loads it from its FXML file.
+     *
+     * @param fileName name of the FXML file in the view package
+     * @return loaded view
+     * @throws Exception if the FXML file cannot be loaded
+     */
+    public View load(String fileName) throws Exception {
+        View view = views.get(fileName);
+
+        if (view == null) {
+            view = loadView(fileName);
+            if (!uncached.contains(fileName)) {
+                views.put(fileName, view);
+            }
+        } else if (!view.changes.isEmpty()) {
+            EnumSet<Library.Change> changes = EnumSet.copyOf(view.changes);
+            view.changes.clear();
+            for (Library.Change change : changes) {
+                view.controller.libraryChanged(change);
+            }
+        }
+
+        return view;
+    }
+
+    /**
+     * Loads views as low priority work and adds them to the cache, unless they are already cached.
+     * Views are loaded on the JavaFX application thread, since controllers create skins and animations
+     * while they are initialized, and each view is posted separately so that the loads spread over pulses.
+     *
+     * @param fileNames names of the FXML files in the view package
+     */
+    public void preload(String... fileNames) {
+        for (String fileName : fileNames) {
+            if (views.containsKey(fileName) || uncached.contains(fileName) || !preloading.add(fileName)) {
+                continue;
+            }
+
+            UiScheduler.post(Priority.LOW, () -> {
+                preloading.remove(fileName);
+                if (views.containsKey(fileName)) {
+                    return;
+                }
+                try {
+                    views.put(fileName, loadView(fileName));
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks if a view is in the cache.
+     *
+     * @param fileName name of the FXML file in the view package
+     * @return true if the view is cached
+     */
+    public boolean contains(String fileName) {
+        return views.containsKey(fileName);
+    }
+
+    private View loadView(String fileName) throws Exception {
+        ViewLoader loader = new ViewLoader(fileName);
+        Node node = loader.load();
+        return new View(node, loader.getController());
+    }
+}
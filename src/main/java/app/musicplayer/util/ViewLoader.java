@@ -0,0 +1,204 @@
+package app.musicplayer.util;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.Initializable;
+
+/**
+ * Loads a view from the view package, like FXMLLoader.
+ *
+ * Views are built by the classes that the generateFxmlBuilders build task compiles from the FXML files,
+ * so that loading a view does not parse XML. Views without a compiled class are loaded with FXMLLoader.
+ * Setting the system property musicplayer.compiledViews to false loads every view with FXMLLoader.
+ *
+ * The controller fields and handler methods of each controller class are looked up once and cached.
+ * A ViewLoader loads one view and may be used on any thread as long as the view is not part of a scene yet.
+ */
+public final class ViewLoader {
+
+    private static final String COMPILED_PACKAGE = "app.musicplayer.view.compiled.";
+    private static final boolean COMPILED_VIEWS = !"false".equals(System.getProperty("musicplayer.compiledViews"));
+
+    private static final Map<String, Optional<ViewBuilder>> builders = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Bindings> bindings = new ConcurrentHashMap<>();
+
+    private final String fileName;
+    private Object controller;
+
+    /**
+     * Constructor for the ViewLoader class.
+     *
+     * @param fileName name of the FXML file in the view package
+     */
+    public ViewLoader(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Loads the view and creates its controller.
+     *
+     * @return root of the view
+     * @throws IOException if the FXML file of a view without a compiled class cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load() throws IOException {
+        URL location = ViewLoader.class.getResource(Resources.FXML + fileName);
+        Optional<ViewBuilder> builder = COMPILED_VIEWS ? builders.computeIfAbsent(fileName, ViewLoader::findBuilder) : Optional.empty();
+
+        if (!builder.isPresent()) {
+            FXMLLoader loader = new FXMLLoader(location);
+            T root = loader.load();
+            controller = loader.getController();
+            return root;
+        }
+
+        T root = (T) builder.get().build(new Context());
+        if (controller instanceof Initializable) {
+            ((Initializable) controller).initialize(location, null);
+        } else if (controller != null) {
+            Method initialize = bindings(controller.getClass()).methods.get("initialize");
+            if (initialize != null && initialize.getParameterCount() == 0) {
+                invoke(initialize, controller);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Gets the controller of the loaded view.
+     *
+     * @return controller, or null if the view has none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getController() {
+        return (T) controller;
+    }
+
+    /**
+     * Checks if a view is loaded from a compiled class.
+     *
+     * @param fileName name of the FXML file in the view package
+     * @return true if the view has a compiled class and compiled views are enabled
+     */
+    static boolean isCompiled(String fileName) {
+        return COMPILED_VIEWS && builders.computeIfAbsent(fileName, ViewLoader::findBuilder).isPresent();
+    }
+
+    private static Optional<ViewBuilder> findBuilder(String fileName) {
+        String name = fileName.substring(0, fileName.lastIndexOf('.')) + "Fxml";
+        try {
+            Class<?> type = Class.forName(COMPILED_PACKAGE + name);
+            return Optional.of((ViewBuilder) type.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException ex) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException ex) {
+            ex.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    private static Bindings bindings(Class<?> type) {
+        return bindings.computeIfAbsent(type, Bindings::new);
+    }
+
+    private static void invoke(Method method, Object target, Object... arguments) {
+        try {
+            method.invoke(target, arguments);
+        } catch (InvocationTargetException ex) {
+            throw new RuntimeException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Fields and handler methods of a controller class that FXMLLoader would use, by name.
+     */
+    private static final class Bindings {
+
+        private final Map<String, Field> fields = new HashMap<>();
+        private final Map<String, Method> methods = new HashMap<>();
+
+        private Bindings(Class<?> type) {
+            if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+                // Superclass members are added first so that subclass members hide them.
+                Bindings inherited = new Bindings(type.getSuperclass());
+                fields.putAll(inherited.fields);
+                methods.putAll(inherited.methods);
+            }
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && isBindable(field.getModifiers(), field.isAnnotationPresent(FXML.class))) {
+                    field.setAccessible(true);
+                    fields.put(field.getName(), field);
+                }
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                if (!Modifier.isStatic(method.getModifiers()) && method.getParameterCount() <= 1
+                        && isBindable(method.getModifiers(), method.isAnnotationPresent(FXML.class))) {
+                    method.setAccessible(true);
+                    methods.put(method.getName(), method);
+                }
+            }
+        }
+
+        private static boolean isBindable(int modifiers, boolean annotated) {
+            return annotated || Modifier.isPublic(modifiers);
+        }
+    }
+
+    private final class Context implements ViewBuilder.Context {
+
+        @Override
+        public void setController(Object controller) {
+            ViewLoader.this.controller = controller;
+        }
+
+        @Override
+        public void put(String fxId, Object value) {
+            if (controller == null) {
+                return;
+            }
+            Field field = bindings(controller.getClass()).fields.get(fxId);
+            if (field != null) {
+                try {
+                    field.set(controller, value);
+                } catch (IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        }
+
+        @Override
+        public EventHandler<Event> handler(String methodName) {
+            Object target = controller;
+            Method method = target == null ? null : bindings(target.getClass()).methods.get(methodName);
+            if (method == null) {
+                throw new IllegalStateException("Handler " + methodName + " not found in the controller of " + fileName);
+            }
+            if (method.getParameterCount() == 0) {
+                return event -> invoke(method, target);
+            }
+            return event -> invoke(method, target, event);
+        }
+
+        @Override
+        public String resource(String path) {
+            // JavaFX looks up paths without a scheme on the class path itself, and reports them if they are missing.
+            URL url = ViewLoader.class.getResource(path);
+            return url == null ? path : url.toExternalForm();
+        }
+    }
+}
@@ -212,8 +212,6 @@ public class XMLEditor {
                 Element newSongLength = doc.createElement("length");
                 Element newSongTrackNumber = doc.createElement("trackNumber");
                 Element newSongDiscNumber = doc.createElement("discNumber");
-                Element newSongPlayCount = doc.createElement("playCount");
-                Element newSongPlayDate = doc.createElement("playDate");
                 Element newSongLocation = doc.createElement("location");
 
                 // Saves the new song data.
@@ -224,8 +222,6 @@ public class XMLEditor {
                 newSongLength.setTextContent(Long.toString(song.getLengthInSeconds()));
                 newSongTrackNumber.setTextContent(Integer.toString(song.getTrackNumber()));
                 newSongDiscNumber.setTextContent(Integer.toString(song.getDiscNumber()));
-                newSongPlayCount.setTextContent(Integer.toString(song.getPlayCount()));
-                newSongPlayDate.setTextContent(song.getPlayDate().toString());
                 newSongLocation.setTextContent(song.getLocation());
                 
                 // Adds the new song to the xml file.
@@ -238,8 +234,6 @@ public class XMLEditor {
                 newSong.appendChild(newSongLength);
                 newSong.appendChild(newSongTrackNumber);
                 newSong.appendChild(newSongDiscNumber);
-                newSong.appendChild(newSongPlayCount);
-                newSong.appendChild(newSongPlayDate);
                 newSong.appendChild(newSongLocation);
             }
             
@@ -478,37 +472,6 @@ public class XMLEditor {
 		}
     }
 	
-	public static void deleteSongFromPlaylist(int selectedPlayListId, int selectedSongId) {
-        try {
-			DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-			Document doc = docBuilder.parse(Resources.JAR + "library.xml");
-			
-            XPathFactory xPathfactory = XPathFactory.newInstance();
-            XPath xpath = xPathfactory.newXPath();
-            
-            // Finds the node with the song id for the selected song in the selected play list for removal.
-            String query = "/library/playlists/playlist[@id='" + selectedPlayListId + "']/songId[text() = '" + selectedSongId + "']";
-            XPathExpression expr = xpath.compile(query);
-            Node deleteSongNode = (Node) expr.evaluate(doc, XPathConstants.NODE);
-            
-            // Removes the node corresponding to the selected song.
-            deleteSongNode.getParentNode().removeChild(deleteSongNode);
-                    
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            DOMSource source = new DOMSource(doc);
-            File xmlFile = new File(Resources.JAR + "library.xml");
-            StreamResult result = new StreamResult(xmlFile);
-            transformer.transform(source, result);
-            
-		} catch (Exception ex) {
-			ex.printStackTrace();
-		}
-	}
-	
 	public static void deletePlaylistFromXML(int selectedPlayListId) {		
         try {
 			DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
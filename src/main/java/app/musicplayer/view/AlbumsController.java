@@ -12,11 +12,13 @@ import app.musicplayer.model.Song;
 import app.musicplayer.util.ClippedTableCell;
 import app.musicplayer.util.ControlPanelTableCell;
 import app.musicplayer.util.PlayingTableCell;
+import app.musicplayer.util.SortedIndex;
 import app.musicplayer.util.SubView;
+import app.musicplayer.util.TileCell;
+import app.musicplayer.util.TileGrid;
 import javafx.animation.Animation;
 import javafx.animation.Interpolator;
 import javafx.animation.Transition;
-import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -27,7 +29,6 @@ import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.geometry.Rectangle2D;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.OverrunStyle;
 import javafx.scene.control.ScrollPane;
@@ -44,14 +45,13 @@ import javafx.scene.input.Dragboard;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.TransferMode;
-import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
 public class AlbumsController implements Initializable, SubView {
 	
     @FXML private ScrollPane gridBox;
-	@FXML private FlowPane grid;
+	@FXML private TileGrid<Album> grid;
     @FXML private VBox songBox;
     @FXML private TableView<Song> songTable;
     @FXML private TableColumn<Song, Boolean> playingColumn;
@@ -72,8 +72,7 @@ public class AlbumsController implements Initializable, SubView {
     // Initializes the index for the currently selected cell.
     private int currentCell;
     
-    // Initializes the value of the x-coordinate for the currently selected cell.
-    private double currentCellYCoordinate;
+    private SortedIndex<Album> sortedAlbums;
     
     private Song selectedSong;
     
@@ -82,22 +81,13 @@ public class AlbumsController implements Initializable, SubView {
 		
 		songTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 		
-		ObservableList<Album> albums = Library.getAlbums();
-		Collections.sort(albums);
+		// The library keeps the albums sorted, so they only need to be copied into the grid.
+		sortedAlbums = Library.getSortedAlbums();
+		ObservableList<Album> albums = FXCollections.observableArrayList(sortedAlbums.getItems());
 
-        int limit = (albums.size() < 25) ? albums.size() : 25;
-
-		for (int i = 0; i < limit; i++) {
-
-            Album album = albums.get(i);
-            grid.getChildren().add(createCell(album, i));
-		}
-
-        int rows = (albums.size() % 5 == 0) ? albums.size() / 5 : albums.size() / 5 + 1;
-        
-        // Sets the height and width of the grid to fill the screen.
-        grid.prefHeightProperty().bind(gridBox.widthProperty().divide(5).add(16).multiply(rows));
-        grid.prefWidthProperty().bind(gridBox.widthProperty());
+		// Only the visible rows of the grid are backed by cells, which are reused as the grid is scrolled.
+		grid.setCellFactory(AlbumCell::new);
+		grid.setItems(albums);
         
 		// Sets the song table to be invisible when the view is initialized.
         songBox.setVisible(false);
@@ -108,23 +98,6 @@ public class AlbumsController implements Initializable, SubView {
         		songBox.setPrefHeight(expandedHeight);
         	}
         });
-
-        new Thread(() -> {
-
-        	try {
-        		Thread.sleep(1000);
-        	} catch (Exception ex) {
-        		ex.printStackTrace();
-        	}
-        	
-            for (int j = 25; j < albums.size(); j++) {
-            	Album album = albums.get(j);
-                int k = j;
-                Platform.runLater(() -> {
-                    grid.getChildren().add(createCell(album, k));
-                });
-            }
-        }).start();
         
         // Sets preferred column width.
         titleColumn.prefWidthProperty().bind(songTable.widthProperty().subtract(50).multiply(0.5));
@@ -260,140 +233,141 @@ public class AlbumsController implements Initializable, SubView {
         });
 	}
 	
-    private VBox createCell(Album album, int index) {
-
-        VBox cell = new VBox();
-        Label title = new Label(album.getTitle());
-        ImageView image = new ImageView(album.getArtwork());
-        image.imageProperty().bind(album.artworkProperty());
-        VBox imageBox = new VBox();
-
-        title.setTextOverrun(OverrunStyle.CLIP);
-        title.setWrapText(true);
-        title.setPadding(new Insets(10, 0, 10, 0));
-        title.setAlignment(Pos.TOP_LEFT);
-        title.setPrefHeight(66);
-        title.prefWidthProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
-
-        image.fitWidthProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
-        image.fitHeightProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
-        image.setPreserveRatio(true);
-        image.setSmooth(true);
-
-        imageBox.prefWidthProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
-        imageBox.prefHeightProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
-        imageBox.setAlignment(Pos.CENTER);
-        imageBox.getChildren().add(image);
-
-        cell.getChildren().addAll(imageBox, title);
-        cell.setPadding(new Insets(10, 10, 10, 10));
-        cell.getStyleClass().add("album-cell");
-        cell.setAlignment(Pos.CENTER);
-        cell.setOnMouseClicked(event -> {
-        	
-        	PseudoClass selected = PseudoClass.getPseudoClass("selected");
-        	
-        	// If the album detail is collapsed, expand it and populate song table.
-        	if (isAlbumDetailCollapsed) {
-        		
-        		cell.pseudoClassStateChanged(selected, true);
-        		
-            	// Updates the index of the currently selected cell.
-            	currentCell = index;
-            	
-        		// Shows song table, plays load animation and populates song table with album songs.
-        		expandAlbumDetail();
-        		expandAnimation.play();
-        		
+    private class AlbumCell extends TileCell<Album> {
+
+        private Label title = new Label();
+        private ImageView image = new ImageView();
+        private VBox imageBox = new VBox();
+
+        AlbumCell() {
+            super();
+            title.setTextOverrun(OverrunStyle.CLIP);
+            title.setWrapText(true);
+            title.setPadding(new Insets(10, 0, 10, 0));
+            title.setAlignment(Pos.TOP_LEFT);
+            title.setPrefHeight(66);
+            title.prefWidthProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
+
+            image.fitWidthProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
+            image.fitHeightProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
+            image.setPreserveRatio(true);
+            image.setSmooth(true);
+
+            imageBox.prefWidthProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
+            imageBox.prefHeightProperty().bind(grid.widthProperty().subtract(100).divide(5).subtract(1));
+            imageBox.setAlignment(Pos.CENTER);
+            imageBox.getChildren().add(image);
+
+            this.getChildren().addAll(imageBox, title);
+            this.setPadding(new Insets(10, 10, 10, 10));
+            this.getStyleClass().add("album-cell");
+            this.setAlignment(Pos.CENTER);
+            this.setOnMouseClicked(event -> {
+                if (!isEmpty()) {
+                    selectAlbum(getItem(), getIndex());
+                }
+            });
+
+            this.setOnDragDetected(event -> {
+                PseudoClass pressed = PseudoClass.getPseudoClass("pressed");
+                this.pseudoClassStateChanged(pressed, false);
+                Dragboard db = this.startDragAndDrop(TransferMode.ANY);
+                ClipboardContent content = new ClipboardContent();
+                content.putString("Album");
+                db.setContent(content);
+                MusicPlayer.setDraggedItem(getItem());
+                db.setDragView(this.snapshot(null, null), this.widthProperty().divide(2).get(), this.heightProperty().divide(2).get());
+                event.consume();
+            });
+        }
+
+        @Override
+        protected void updateItem(Album album, boolean empty) {
+
+            image.imageProperty().unbind();
+
+            if (empty) {
+                title.setText(null);
+                image.setImage(null);
+            } else {
+                title.setText(album.getTitle());
+                // Artwork is only loaded once a cell for the album is shown.
+                image.imageProperty().bind(album.artworkProperty());
+            }
+        }
+    }
+
+    private void selectAlbum(Album album, int index) {
+
+    	int columns = grid.getColumns();
+
+    	// If the album detail is collapsed, expand it and populate song table.
+    	if (isAlbumDetailCollapsed) {
+
+    		grid.setSelectedIndex(index);
+
+        	// Updates the index of the currently selected cell.
+        	currentCell = index;
+
+    		// Shows song table, plays load animation and populates song table with album songs.
+    		expandAlbumDetail();
+    		expandAnimation.play();
+
+    		artistLabel.setText(album.getArtist());
+    		albumLabel.setText(album.getTitle());
+    		populateSongTable(album);
+
+    		// Else if album detail is expanded and opened album is reselected.
+    	} else if (index == currentCell) {
+
+    		grid.setSelectedIndex(-1);
+
+    		// Plays the collapse animation to remove the song table.
+    		collapseAnimation.play();
+
+    		// Else if album detail is expanded and a different album is selected on the same row.
+    	} else if (index / columns == currentCell / columns) {
+
+    		grid.setSelectedIndex(index);
+
+        	// Updates the index of the currently selected cell.
+        	currentCell = index;
+
+        	// Plays load animation and populates song table with songs of newly selected album.
+        	tableCollapseAnimation.setOnFinished(x -> {
         		artistLabel.setText(album.getArtist());
         		albumLabel.setText(album.getTitle());
-        		populateSongTable(cell, album);
-        		
-        		// Else if album detail is expanded and opened album is reselected.
-        	} else if (!isAlbumDetailCollapsed && index == currentCell) {
-        		
-        		cell.pseudoClassStateChanged(selected, false);
-        		
-        		// Plays the collapse animation to remove the song table.
-        		collapseAnimation.play();
-        		
-        		// Else if album detail is expanded and a different album is selected on the same row.
-        	} else if (!isAlbumDetailCollapsed && !(index == currentCell)
-        			&& currentCellYCoordinate == cell.getBoundsInParent().getMaxY()) {
-        		
-        		for (Node child : grid.getChildren()) {
-        			child.pseudoClassStateChanged(selected, false);
-        		}
-        		cell.pseudoClassStateChanged(selected, true);
-        		
-            	// Updates the index of the currently selected cell.
-            	currentCell = index;
-            	
-            	// Plays load animation and populates song table with songs of newly selected album.
-            	tableCollapseAnimation.setOnFinished(x -> {
-            		artistLabel.setText(album.getArtist());
-            		albumLabel.setText(album.getTitle());
-            		populateSongTable(cell, album);
-            		expandAlbumDetail();
-            		tableExpandAnimation.play();
-            		tableCollapseAnimation.setOnFinished(y -> collapseAlbumDetail());
-            	});
-            	
-            	tableCollapseAnimation.play();
-        		
-        		// Else if album detail is expanded and a different album is selected on a different row.
-        	} else if (!isAlbumDetailCollapsed && !(index == currentCell)
-        			&& !(currentCellYCoordinate == cell.getBoundsInParent().getMaxY())) {
-        		
-        		for (Node child : grid.getChildren()) {
-        			child.pseudoClassStateChanged(selected, false);
-        		}
-        		cell.pseudoClassStateChanged(selected, true);
-        		
-            	// Updates the index of the currently selected cell.
-            	currentCell = index;
-            	
-            	// Collapses the song table and then expands it in the appropriate row with songs on new album.
-            	collapseAlbumDetail();
+        		populateSongTable(album);
         		expandAlbumDetail();
-        		// Plays load animation and populates song table with songs of newly selected album.
-        		tableCollapseAnimation.setOnFinished(x -> {
-        			artistLabel.setText(album.getArtist());
-            		albumLabel.setText(album.getTitle());
-            		populateSongTable(cell, album);
-            		expandAlbumDetail();
-            		tableExpandAnimation.play();
-            		tableCollapseAnimation.setOnFinished(y -> collapseAlbumDetail());
-            	});
-            	
-            	tableCollapseAnimation.play();
-        		
-        	} else {
-        		
-        		for (Node child : grid.getChildren()) {
-        			child.pseudoClassStateChanged(selected, false);
-        		}
-        		
-        		// Plays the collapse animation to remove the song table.
-        		collapseAnimation.play();
-        	}
-        	// Sets the cells max x value as the current cell x coordinate.
-        	currentCellYCoordinate = cell.getBoundsInParent().getMaxY();
-        });
-        
-        cell.setOnDragDetected(event -> {
-        	PseudoClass pressed = PseudoClass.getPseudoClass("pressed");
-        	cell.pseudoClassStateChanged(pressed, false);
-        	Dragboard db = cell.startDragAndDrop(TransferMode.ANY);
-        	ClipboardContent content = new ClipboardContent();
-            content.putString("Album");
-            db.setContent(content);
-        	MusicPlayer.setDraggedItem(album);
-        	db.setDragView(cell.snapshot(null, null), cell.widthProperty().divide(2).get(), cell.heightProperty().divide(2).get());
-            event.consume();
-        });
-        
-        return cell;
+        		tableExpandAnimation.play();
+        		tableCollapseAnimation.setOnFinished(y -> collapseAlbumDetail());
+        	});
+
+        	tableCollapseAnimation.play();
+
+    		// Else if album detail is expanded and a different album is selected on a different row.
+    	} else {
+
+    		grid.setSelectedIndex(index);
+
+        	// Updates the index of the currently selected cell.
+        	currentCell = index;
+
+        	// Collapses the song table and then expands it in the appropriate row with songs on new album.
+        	collapseAlbumDetail();
+    		expandAlbumDetail();
+    		// Plays load animation and populates song table with songs of newly selected album.
+    		tableCollapseAnimation.setOnFinished(x -> {
+    			artistLabel.setText(album.getArtist());
+        		albumLabel.setText(album.getTitle());
+        		populateSongTable(album);
+        		expandAlbumDetail();
+        		tableExpandAnimation.play();
+        		tableCollapseAnimation.setOnFinished(y -> collapseAlbumDetail());
+        	});
+
+        	tableCollapseAnimation.play();
+    	}
     }
     
     private void expandAlbumDetail() {
@@ -407,7 +381,7 @@ public class AlbumsController implements Initializable, SubView {
     	songBox.setVisible(false);
     }
     
-    private void populateSongTable(VBox cell, Album selectedAlbum) { 	
+    private void populateSongTable(Album selectedAlbum) { 	
     	// Retrieves albums songs and stores them as an observable list.
     	ObservableList<Song> albumSongs = FXCollections.observableArrayList(selectedAlbum.getSongs());
     	
@@ -456,61 +430,7 @@ public class AlbumsController implements Initializable, SubView {
     
     @Override
     public void scroll(char letter) {
-    	
-	    int index = 0;
-    	double cellHeight = 0;
-    	ObservableList<Node> children = grid.getChildren();
-    	
-    	for (int i = 0; i < children.size(); i++) {
-    		
-    		VBox cell = (VBox) children.get(i);
-    		cellHeight = cell.getHeight();
-    		if (cell.getChildren().size() > 1) {
-    			Label label = (Label) cell.getChildren().get(1);
-        		char firstLetter = removeArticle(label.getText()).charAt(0);
-        		if (firstLetter < letter) {
-        			index++;
-        		}	
-    		}
-    	}
-    	
-    	double row = (index / 5) * cellHeight;
-    	double finalVvalue = row / (grid.getHeight() - gridBox.getHeight());
-    	double startVvalue = gridBox.getVvalue();
-    	
-    	Animation scrollAnimation = new Transition() {
-            {
-                setCycleDuration(Duration.millis(500));
-            }
-            protected void interpolate(double frac) {
-                double vValue = startVvalue + ((finalVvalue - startVvalue) * frac);
-                gridBox.setVvalue(vValue);
-            }
-        };
-        
-        scrollAnimation.play();
-    }
-    
-    private String removeArticle(String title) {
-
-        String arr[] = title.split(" ", 2);
-
-        if (arr.length < 2) {
-            return title;
-        } else {
-
-            String firstWord = arr[0];
-            String theRest = arr[1];
-
-            switch (firstWord) {
-                case "A":
-                case "An":
-                case "The":
-                    return theRest;
-                default:
-                    return title;
-            }
-        }
+    	grid.scrollTo(sortedAlbums.offsetOf(letter));
     }
     
     public Song getSelectedSong() {
@@ -10,19 +10,22 @@ import app.musicplayer.MusicPlayer;
 import app.musicplayer.model.Album;
 import app.musicplayer.model.Artist;
 import app.musicplayer.model.Library;
+import app.musicplayer.model.Library.SongOrder;
+import app.musicplayer.model.LibraryQuery;
 import app.musicplayer.model.Song;
 import app.musicplayer.util.ClippedTableCell;
 import app.musicplayer.util.ControlPanelTableCell;
 import app.musicplayer.util.PlayingTableCell;
+import app.musicplayer.util.SortedIndex;
 import app.musicplayer.util.SubView;
+import app.musicplayer.util.UiScheduler;
+import app.musicplayer.util.UiScheduler.Priority;
 import javafx.animation.Animation;
 import javafx.animation.Interpolator;
 import javafx.animation.Transition;
-import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -166,6 +169,7 @@ public class ArtistsMainController implements Initializable, SubView {
     @FXML private ScrollPane scrollPane;
     @FXML private ScrollPane artistListScrollPane;
 
+    private SortedIndex<Artist> sortedArtists;
     private Song selectedSong;
     private Album selectedAlbum;
     private Artist selectedArtist;
@@ -210,35 +214,21 @@ public class ArtistsMainController implements Initializable, SubView {
         	event.consume();
         });
 
-        ObservableList<Artist> artists = Library.getArtists();
-        Collections.sort(artists);
-        
-        artistList.setItems(artists);
+        // The library keeps the artists sorted, so they only need to be copied into the list.
+        sortedArtists = Library.getSortedArtists();
+        artistList.setItems(FXCollections.observableArrayList(sortedArtists.getItems()));
 
         artistList.setOnMouseClicked(event -> {
 
             if (event.getClickCount() == 2) {
 
-                ObservableList<Song> songs = FXCollections.observableArrayList();
-                ObservableList<Album> albums = FXCollections.observableArrayList();
-                for (Album album : selectedArtist.getAlbums()) {
-                    albums.add(album);
-                    songs.addAll(album.getSongs());
-                }
-                
+                LibraryQuery query = LibraryQuery.songs(selectedArtist);
+                ObservableList<Song> songs;
                 if (MusicPlayer.isShuffleActive()) {
+                	songs = FXCollections.observableArrayList(query.list());
                 	Collections.shuffle(songs);
                 } else {
-                    Collections.sort(songs, (first, second) -> {
-
-                        Album firstAlbum = albums.stream().filter(x -> x.getTitle().equals(first.getAlbum())).findFirst().get();
-                        Album secondAlbum = albums.stream().filter(x -> x.getTitle().equals(second.getAlbum())).findFirst().get();
-                        if (firstAlbum.compareTo(secondAlbum) != 0) {
-                            return firstAlbum.compareTo(secondAlbum);
-                        } else {
-                            return first.compareTo(second);
-                        }
-                    });
+                	songs = FXCollections.observableArrayList(query.orderBy(SongOrder.ALBUM).list());
                 }
 
                 Song song = songs.get(0);
@@ -248,29 +238,21 @@ public class ArtistsMainController implements Initializable, SubView {
 
             } else {
                 	
-            	Task<Void> task = new Task<Void>() {
-            		@Override protected Void call() throws Exception {
-    	        		Platform.runLater(() -> {
-    	        			subViewRoot.setVisible(false);
-    	        			selectedArtist = artistList.getSelectionModel().getSelectedItem();
-                            showAllSongs(selectedArtist, false);
-                            artistLabel.setText(selectedArtist.getTitle());
-                            albumList.setPrefWidth(albumList.getItems().size() * 150 + 2);
-                            albumList.setMaxWidth(albumList.getItems().size() * 150 + 2);
-                            albumList.scrollTo(0);
-    	        		});
-    		        	return null;
-    	        	}
-            	};
-            	
-            	task.setOnSucceeded(x -> Platform.runLater(() -> {
-                    subViewRoot.setVisible(true);
-                    artistLoadAnimation.play();
-                }));
-            	
-            	Thread thread = new Thread(task);
-
-            	artistUnloadAnimation.setOnFinished(x -> thread.start());
+            	// Shows the selected artist once the unload animation has finished
+            	// and starts the load animation in the following pulse.
+            	artistUnloadAnimation.setOnFinished(x -> UiScheduler.post(Priority.HIGH, () -> {
+            		subViewRoot.setVisible(false);
+            		selectedArtist = artistList.getSelectionModel().getSelectedItem();
+            		showAllSongs(selectedArtist, false);
+            		artistLabel.setText(selectedArtist.getTitle());
+            		albumList.setPrefWidth(albumList.getItems().size() * 150 + 2);
+            		albumList.setMaxWidth(albumList.getItems().size() * 150 + 2);
+            		albumList.scrollTo(0);
+            		UiScheduler.post(Priority.HIGH, () -> {
+            			subViewRoot.setVisible(true);
+            			artistLoadAnimation.play();
+            		});
+            	}));
             	
             	artistUnloadAnimation.play();
             }
@@ -286,7 +268,7 @@ public class ArtistsMainController implements Initializable, SubView {
                     selectAlbum(album);
                 }
 
-                ArrayList<Song> songs = selectedAlbum.getSongs();
+                ArrayList<Song> songs = new ArrayList<>(selectedAlbum.getSongs());
 
                 if (MusicPlayer.isShuffleActive()) {
                 	Collections.shuffle(songs);
@@ -300,24 +282,16 @@ public class ArtistsMainController implements Initializable, SubView {
 
             } else {
             	
-            	Task<Void> task = new Task<Void>() {
-            		@Override protected Void call() throws Exception {
-    	        		Platform.runLater(() -> {
-    	        			songTable.setVisible(false);
-    	        			selectAlbum(album);
-    	        		});
-    		        	return null;
-    	        	}                		
-            	};
-            	
-            	task.setOnSucceeded(x -> Platform.runLater(() -> {
-                    songTable.setVisible(true);
-                    albumLoadAnimation.play();
-                }));
-            	
-            	Thread thread = new Thread(task);
-
-            	albumUnloadAnimation.setOnFinished(x -> thread.start());
+            	// Shows the selected album once the unload animation has finished
+            	// and starts the load animation in the following pulse.
+            	albumUnloadAnimation.setOnFinished(x -> UiScheduler.post(Priority.HIGH, () -> {
+            		songTable.setVisible(false);
+            		selectAlbum(album);
+            		UiScheduler.post(Priority.HIGH, () -> {
+            			songTable.setVisible(true);
+            			albumLoadAnimation.play();
+            		});
+            	}));
             	
             	albumUnloadAnimation.play();
             }
@@ -433,7 +407,7 @@ public class ArtistsMainController implements Initializable, SubView {
         
         artistList.setMinHeight(0);
         artistList.setPrefHeight(0);
-        double height = artists.size() * 50;
+        double height = artistList.getItems().size() * 50;
         Animation artistListLoadAnimation = new Transition() {
         	{
         		setCycleDuration(Duration.millis(250));
@@ -492,7 +466,7 @@ public class ArtistsMainController implements Initializable, SubView {
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
-            	songTableLoadAnimation.play();
+            	UiScheduler.post(Priority.HIGH, songTableLoadAnimation::play);
             }).start();
         }
     }
@@ -511,8 +485,8 @@ public class ArtistsMainController implements Initializable, SubView {
             try {
 				latch.await();
 				int selectedCell = artistList.getSelectionModel().getSelectedIndex();
-	            double vValue = (selectedCell * 50) / (Library.getArtists().size() * 50 - artistListScrollPane.getHeight());
-	            artistListScrollPane.setVvalue(vValue);
+	            double vValue = (selectedCell * 50) / (artistList.getItems().size() * 50 - artistListScrollPane.getHeight());
+	            UiScheduler.post(Priority.HIGH, () -> artistListScrollPane.setVvalue(vValue));
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -530,7 +504,7 @@ public class ArtistsMainController implements Initializable, SubView {
             try {
 				loadedLatch.await();
 				loadedLatch = new CountDownLatch(1);
-				Platform.runLater(() -> {
+				UiScheduler.post(Priority.HIGH, () -> {
 					songTable.getSelectionModel().select(song);
 			        scrollPane.requestFocus();
 				});
@@ -558,10 +532,9 @@ public class ArtistsMainController implements Initializable, SubView {
 
         Collections.sort(songs, (first, second) -> {
 
-            Album firstAlbum = albums.stream().filter(x -> x.getTitle().equals(first.getAlbum())).findFirst().get();
-            Album secondAlbum = albums.stream().filter(x -> x.getTitle().equals(second.getAlbum())).findFirst().get();
-            if (firstAlbum.compareTo(secondAlbum) != 0) {
-                return firstAlbum.compareTo(secondAlbum);
+            int result = first.getAlbumKey().compareTo(second.getAlbumKey());
+            if (result != 0) {
+                return result;
             } else {
                 return first.compareTo(second);
             }
@@ -610,7 +583,7 @@ public class ArtistsMainController implements Initializable, SubView {
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-			songTableLoadAnimation.play();
+			UiScheduler.post(Priority.HIGH, songTableLoadAnimation::play);
         }).start();
     }
     
@@ -635,10 +608,9 @@ public class ArtistsMainController implements Initializable, SubView {
         } else {
         	Collections.sort(songs, (first, second) -> {
 
-                Album firstAlbum = Library.getAlbum(first.getAlbum());
-                Album secondAlbum = Library.getAlbum(second.getAlbum());
-                if (firstAlbum.compareTo(secondAlbum) != 0) {
-                    return firstAlbum.compareTo(secondAlbum);
+                int result = first.getAlbumKey().compareTo(second.getAlbumKey());
+                if (result != 0) {
+                    return result;
                 } else {
                     return first.compareTo(second);
                 }
@@ -653,21 +625,10 @@ public class ArtistsMainController implements Initializable, SubView {
     @Override
     public void scroll(char letter) {
     	
-    	ObservableList<Artist> artistListItems = artistList.getItems();
-    	
-    	int selectedCell = 0;
-
-        for (Artist artist : artistListItems) {
-            // Removes article from artist title and compares it to selected letter.
-            String artistTitle = artist.getTitle();
-            char firstLetter = removeArticle(artistTitle).charAt(0);
-            if (firstLetter < letter) {
-                selectedCell++;
-            }
-        }
+    	int selectedCell = sortedArtists.offsetOf(letter);
     	
     	double startVvalue = artistListScrollPane.getVvalue();
-    	double finalVvalue = (double) (selectedCell * 50) / (Library.getArtists().size() * 50 - artistListScrollPane.getHeight());
+    	double finalVvalue = (double) (selectedCell * 50) / (artistList.getItems().size() * 50 - artistListScrollPane.getHeight());
     	
     	Animation scrollAnimation = new Transition() {
             {
@@ -681,28 +642,6 @@ public class ArtistsMainController implements Initializable, SubView {
         scrollAnimation.play();
     }
     
-    private String removeArticle(String title) {
-
-        String arr[] = title.split(" ", 2);
-
-        if (arr.length < 2) {
-            return title;
-        } else {
-
-            String firstWord = arr[0];
-            String theRest = arr[1];
-
-            switch (firstWord) {
-                case "A":
-                case "An":
-                case "The":
-                    return theRest;
-                default:
-                    return title;
-            }
-        }
-    }
-    
     private Animation artistLoadAnimation = new Transition() {
         {
             setCycleDuration(Duration.millis(250));
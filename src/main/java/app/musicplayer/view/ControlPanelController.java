@@ -67,7 +67,7 @@ public class ControlPanelController implements Initializable {
 		for (Playlist playlist : playlists) {
 			String title = playlist.getTitle();
 			if (!(title.equals("Most Played") || title.equals("Recently Played")) &&
-					!playlist.getSongs().contains(selectedSong)) {
+					!playlist.contains(selectedSong)) {
 				playlistTitles.add(title);
 			}
 		}
@@ -80,7 +80,14 @@ public class ControlPanelController implements Initializable {
 			MusicPlayer.addSongToNowPlayingList(selectedSong);
 		});
 
+		MenuItem playNext = new MenuItem("Play Next");
+		playNext.setStyle("-fx-text-fill: black");
+		playNext.setOnAction(e1 -> {
+			MusicPlayer.playNext(selectedSong);
+		});
+
 		contextMenu.getItems().add(playing);
+		contextMenu.getItems().add(playNext);
 
 		if (playlistTitles.size() > 0) {
 			SeparatorMenuItem item = new SeparatorMenuItem();
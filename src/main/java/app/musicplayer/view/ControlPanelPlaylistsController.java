@@ -1,12 +1,13 @@
 package app.musicplayer.view;
 
 import java.net.URL;
+import java.util.Collections;
 import java.util.ResourceBundle;
 
 import app.musicplayer.MusicPlayer;
 import app.musicplayer.model.Library;
+import app.musicplayer.model.Song;
 import app.musicplayer.util.SubView;
-import app.musicplayer.util.XMLEditor;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -34,15 +35,12 @@ public class ControlPanelPlaylistsController implements Initializable {
 		// when the user selects a song while in a play list.
 		PlaylistsController controller = (PlaylistsController) MusicPlayer.getMainController().getSubViewController();
 		
-		// Retrieves play list and song id to search for the song in the xml file.
+		// Retrieves play list and song to remove.
 		int selectedPlayListId = controller.getSelectedPlaylist().getId();
-		int selectedSongId = controller.getSelectedSong().getId();
-		
-		// Calls methods to delete selected song from play list in XML file.
-		XMLEditor.deleteSongFromPlaylist(selectedPlayListId, selectedSongId);
+		Song selectedSong = controller.getSelectedSong();
 
-        // Removes the selected song from the playlist's song list in Library.
-        Library.getPlaylist(selectedPlayListId).removeSong(selectedSongId);
+		// Removes the selected song from the playlist's song list in Library and from the XML file.
+		Library.getPlaylist(selectedPlayListId).removeSongs(Collections.singletonList(selectedSong));
 		
 		// Deletes the selected row from the table view.
 		controller.deleteSelectedRow();
@@ -1,6 +1,8 @@
 package app.musicplayer.view;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.concurrent.CountDownLatch;
@@ -14,17 +16,18 @@ import app.musicplayer.MusicPlayer;
 import app.musicplayer.util.CustomSliderSkin;
 import app.musicplayer.util.Resources;
 import app.musicplayer.util.SubView;
+import app.musicplayer.util.UiScheduler;
+import app.musicplayer.util.ViewCache;
+import app.musicplayer.util.ViewLoader;
+import app.musicplayer.util.UiScheduler.Priority;
 import javafx.animation.Animation;
 import javafx.animation.Animation.Status;
 import javafx.animation.Interpolator;
 import javafx.animation.Transition;
-import javafx.application.Platform;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.css.PseudoClass;
 import javafx.event.Event;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -62,6 +65,10 @@ public class MainController implements Initializable, IntellitypeListener {
     private VolumePopupController volumePopupController;
     private CountDownLatch viewLoadedLatch;
 
+    // Keeps recently used sub views alive. The now playing view is loaded every time since its song list
+    // is not part of the library and changes with every play.
+    private ViewCache viewCache = new ViewCache(5, "NowPlaying.fxml");
+
     @FXML private ScrollPane subViewRoot;
     @FXML private VBox sideBar;
     @FXML private VBox playlistBox;
@@ -147,31 +154,28 @@ public class MainController implements Initializable, IntellitypeListener {
 		searchBox.textProperty().addListener((observable, oldText, newText) -> {
 			String text = newText.trim();
 			if (text.equals("")) {
+                // Keeps a search that is still running from showing the popup again.
+                Search.cancel();
                 if (searchPopup.isShowing() && !searchHideAnimation.getStatus().equals(Status.RUNNING)) {
                     searchHideAnimation.play();
                 }
             } else {
-                Search.search(text);
-			}
-		});
-
-		Search.hasResultsProperty().addListener((observable, hadResults, hasResults) -> {
-			if (hasResults) {
-                SearchResult result = Search.getResult();
-                Platform.runLater(() -> {
+                // The result arrives on the application thread, and only if no newer search was started.
+                Search.search(text, result -> {
                     showSearchResults(result);
                     MusicPlayer.getStage().toFront();
+                    int height = 0;
+                    int artists = result.getArtistResults().size();
+                    int albums = result.getAlbumResults().size();
+                    int songs = result.getSongResults().size();
+                    if (artists > 0) height += (artists * 50) + 50;
+                    if (albums > 0) height += (albums * 50) + 50;
+                    if (songs > 0) height += (songs * 50) + 50;
+                    if (height == 0) height = 50;
+                    else if (result.isApproximate()) height += 30;
+                    searchPopup.setHeight(height);
                 });
-                int height = 0;
-                int artists = result.getArtistResults().size();
-                int albums = result.getAlbumResults().size();
-                int songs = result.getSongResults().size();
-                if (artists > 0) height += (artists * 50) + 50;
-                if (albums > 0) height += (albums * 50) + 50;
-                if (songs > 0) height += (songs * 50) + 50;
-                if (height == 0) height = 50;
-                searchPopup.setHeight(height);
-            }
+			}
 		});
 
 		MusicPlayer.getStage().xProperty().addListener((observable, oldValue, newValue) -> {
@@ -208,7 +212,7 @@ public class MainController implements Initializable, IntellitypeListener {
     @Override
     public void onIntellitype(int key) {
     	// Skip/play/pause/back using Windows media keys
-    	Platform.runLater(() -> {
+    	UiScheduler.post(Priority.HIGH, () -> {
     		switch (key) {
         	case JIntellitype.APPCOMMAND_MEDIA_NEXTTRACK:
         		skip();
@@ -235,7 +239,7 @@ public class MainController implements Initializable, IntellitypeListener {
     	try {
     		
     		Stage stage = MusicPlayer.getStage();
-        	FXMLLoader loader = new FXMLLoader(this.getClass().getResource(Resources.FXML + "VolumePopup.fxml"));
+        	ViewLoader loader = new ViewLoader("VolumePopup.fxml");
         	HBox view = loader.load();
         	volumePopupController = loader.getController();
         	Stage popup = new Stage();
@@ -341,7 +345,7 @@ public class MainController implements Initializable, IntellitypeListener {
 	private void initializePlaylists() {
     	for (Playlist playlist : Library.getPlaylists()) {
     		try {
-    			FXMLLoader loader = new FXMLLoader(this.getClass().getResource(Resources.FXML + "PlaylistCell.fxml"));
+    			ViewLoader loader = new ViewLoader("PlaylistCell.fxml");
 				HBox cell = loader.load();
 				Label label = (Label) cell.getChildren().get(1);
 				label.setText(playlist.getTitle());
@@ -400,50 +404,31 @@ public class MainController implements Initializable, IntellitypeListener {
 				
 				cell.setOnDragDropped(event -> {
 					String dragString = event.getDragboard().getString();
-					new Thread(() -> {
-						switch (dragString) {
-			            case "Artist":
-			            	Artist artist = (Artist) MusicPlayer.getDraggedItem();
-				            for (Album album : artist.getAlbums()) {
-				            	for (Song song : album.getSongs()) {
-				            		if (!playlist.getSongs().contains(song)) {
-						            	playlist.addSong(song);
-				            		}
-					            }
-				            }
-				            break;
-			            case "Album":
-			            	Album album = (Album) MusicPlayer.getDraggedItem();
-				            for (Song song : album.getSongs()) {
-				            	if (!playlist.getSongs().contains(song)) {
-					            	playlist.addSong(song);
-			            		}
-				            }
-				            break;
-			            case "Playlist":
-			            	Playlist list = (Playlist) MusicPlayer.getDraggedItem();
-				            for (Song song : list.getSongs()) {
-				            	if (!playlist.getSongs().contains(song)) {
-					            	playlist.addSong(song);
-			            		}
-				            }
-				            break;
-			            case "Song":
-			            	Song song = (Song) MusicPlayer.getDraggedItem();
-			            	if (!playlist.getSongs().contains(song)) {
-				            	playlist.addSong(song);
-		            		}
-				            break;
-			            case "List":
-							ObservableList<Song> songs = (ObservableList<Song>) MusicPlayer.getDraggedItem();
-			            	for (Song s : songs) {
-			            		if (!playlist.getSongs().contains(s)) {
-					            	playlist.addSong(s);
-			            		}
-			            	}
-			            	break;
-			            }
-					}).start();
+					// The dragged songs are added together, so library.xml is written once.
+					List<Song> dragged = new ArrayList<>();
+					switch (dragString) {
+			        case "Artist":
+			            Artist artist = (Artist) MusicPlayer.getDraggedItem();
+				        for (Album album : artist.getAlbums()) {
+				            dragged.addAll(album.getSongs());
+				        }
+				        break;
+			        case "Album":
+			            Album album = (Album) MusicPlayer.getDraggedItem();
+			            dragged.addAll(album.getSongs());
+				        break;
+			        case "Playlist":
+			            Playlist list = (Playlist) MusicPlayer.getDraggedItem();
+			            dragged.addAll(list.getSongs());
+				        break;
+			        case "Song":
+			            dragged.add((Song) MusicPlayer.getDraggedItem());
+				        break;
+			        case "List":
+			            dragged.addAll((ObservableList<Song>) MusicPlayer.getDraggedItem());
+			            break;
+			        }
+			        playlist.addSongs(dragged);
 					
 					event.consume();
 				});
@@ -497,7 +482,7 @@ public class MainController implements Initializable, IntellitypeListener {
     		
     		try {
         		
-    			FXMLLoader loader = new FXMLLoader(this.getClass().getResource(Resources.FXML + "PlaylistCell.fxml"));
+    			ViewLoader loader = new ViewLoader("PlaylistCell.fxml");
     			HBox cell = loader.load();
     			
     			Label label = (Label) cell.getChildren().get(1);
@@ -587,50 +572,31 @@ public class MainController implements Initializable, IntellitypeListener {
 				cell.setOnDragDropped(event -> {
 					Playlist playlist = Library.getPlaylist(label.getText());
 					String dragString = event.getDragboard().getString();
-					new Thread(() -> {
-						switch (dragString) {
-			            case "Artist":
-			            	Artist artist = (Artist) MusicPlayer.getDraggedItem();
-				            for (Album album : artist.getAlbums()) {
-				            	for (Song song : album.getSongs()) {
-				            		if (!playlist.getSongs().contains(song)) {
-						            	playlist.addSong(song);
-				            		}
-					            }
-				            }
-				            break;
-			            case "Album":
-			            	Album album = (Album) MusicPlayer.getDraggedItem();
-				            for (Song song : album.getSongs()) {
-				            	if (!playlist.getSongs().contains(song)) {
-					            	playlist.addSong(song);
-			            		}
-				            }
-				            break;
-			            case "Playlist":
-			            	Playlist list = (Playlist) MusicPlayer.getDraggedItem();
-				            for (Song song : list.getSongs()) {
-				            	if (!playlist.getSongs().contains(song)) {
-					            	playlist.addSong(song);
-			            		}
-				            }
-				            break;
-			            case "Song":
-			            	Song song = (Song) MusicPlayer.getDraggedItem();
-			            	if (!playlist.getSongs().contains(song)) {
-				            	playlist.addSong(song);
-		            		}
-				            break;
-			            case "List":
-							ObservableList<Song> songs = (ObservableList<Song>) MusicPlayer.getDraggedItem();
-			            	for (Song s : songs) {
-			            		if (!playlist.getSongs().contains(s)) {
-					            	playlist.addSong(s);
-			            		}
-			            	}
-			            	break;
-			            }
-					}).start();
+					// The dragged songs are added together, so library.xml is written once.
+					List<Song> dragged = new ArrayList<>();
+					switch (dragString) {
+			        case "Artist":
+			            Artist artist = (Artist) MusicPlayer.getDraggedItem();
+				        for (Album album : artist.getAlbums()) {
+				            dragged.addAll(album.getSongs());
+				        }
+				        break;
+			        case "Album":
+			            Album album = (Album) MusicPlayer.getDraggedItem();
+			            dragged.addAll(album.getSongs());
+				        break;
+			        case "Playlist":
+			            Playlist list = (Playlist) MusicPlayer.getDraggedItem();
+			            dragged.addAll(list.getSongs());
+				        break;
+			        case "Song":
+			            dragged.add((Song) MusicPlayer.getDraggedItem());
+				        break;
+			        case "List":
+			            dragged.addAll((ObservableList<Song>) MusicPlayer.getDraggedItem());
+			            break;
+			        }
+			        playlist.addSongs(dragged);
 					
 					event.consume();
 				});
@@ -719,44 +685,32 @@ public class MainController implements Initializable, IntellitypeListener {
         	
             String fileName = viewName.substring(0, 1).toUpperCase() + viewName.substring(1) + ".fxml";
             
-            FXMLLoader loader = new FXMLLoader(this.getClass().getResource(fileName));
-            Node view = loader.load();
+            ViewCache.View cachedView = viewCache.load(fileName);
+            Node view = cachedView.getNode();
             
-            CountDownLatch latch = new CountDownLatch(1);
-            
-            Task<Void> task = new Task<Void>() {
-	        	@Override protected Void call() throws Exception {
-	        		Platform.runLater(() -> {
-	        			Library.getSongs().stream().filter(x -> x.getSelected()).forEach(x -> x.setSelected(false));
-	        			subViewRoot.setVisible(false);
-			        	subViewRoot.setContent(view);
-			        	subViewRoot.getContent().setOpacity(0);
-			        	latch.countDown();
-	        		});
-		        	return null;
-	        	}
-	        };
-	        
-	        task.setOnSucceeded(x -> new Thread(() -> {
-                try {
-                    latch.await();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-                Platform.runLater(() -> {
+            // Swaps in the new view in one pulse and starts the load animation in the next one,
+            // after the new view has been laid out.
+            Runnable showView = () -> {
+                Library.getSongs().stream().filter(x -> x.getSelected()).forEach(x -> x.setSelected(false));
+                subViewRoot.setVisible(false);
+                subViewRoot.setContent(view);
+                subViewRoot.getContent().setOpacity(0);
+                UiScheduler.post(Priority.HIGH, () -> {
                     subViewRoot.setVisible(true);
                     if (loadLettersFinal) {
                         loadLettersAnimation.play();
                     }
                     loadViewAnimation.play();
                 });
-            }).start());
-	        
-	        Thread thread = new Thread(task);
+            };
             
-            unloadViewAnimation.setOnFinished(x -> thread.start());
+            unloadViewAnimation.setOnFinished(x -> UiScheduler.post(Priority.HIGH, showView));
             
-            loadViewAnimation.setOnFinished(x -> viewLoadedLatch.countDown());
+            loadViewAnimation.setOnFinished(x -> {
+                viewLoadedLatch.countDown();
+                // Loads the main library views in the background once the new view is shown.
+                viewCache.preload("Artists.fxml", "Albums.fxml", "Songs.fxml");
+            });
             
             if (subViewRoot.getContent() != null) {
             	if (unloadLettersFinal) {
@@ -771,7 +725,7 @@ public class MainController implements Initializable, IntellitypeListener {
         		loadViewAnimation.play();
         	}
             
-            subViewController = loader.getController();
+            subViewController = cachedView.getController();
             return subViewController;
 
         } catch (Exception ex) {
@@ -984,6 +938,11 @@ public class MainController implements Initializable, IntellitypeListener {
                 list.add(cell);
             });
         }
+        if (list.size() > 0 && result.isApproximate()) {
+            Label label = new Label("Did you mean");
+            list.add(0, label);
+            VBox.setMargin(label, new Insets(10, 10, 0, 10));
+        }
         if (list.size() == 0) {
             Label label = new Label("No Results");
             list.add(label);
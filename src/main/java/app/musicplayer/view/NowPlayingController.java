@@ -4,13 +4,16 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 import app.musicplayer.MusicPlayer;
+import app.musicplayer.PlayQueue;
 import app.musicplayer.model.Song;
 import app.musicplayer.util.ClippedTableCell;
 import app.musicplayer.util.ControlPanelTableCell;
 import app.musicplayer.util.PlayingTableCell;
 import app.musicplayer.util.SubView;
+import app.musicplayer.util.UiScheduler;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -43,12 +46,15 @@ public class NowPlayingController implements Initializable, SubView {
     
     private Song selectedSong;
 
+    // Listener of the shown view, which is loaded again every time it is shown.
+    private static Consumer<PlayQueue.Change> queueListener;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
     	
     	tableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
-        ObservableList<Song> songs = FXCollections.observableArrayList(MusicPlayer.getNowPlayingList());
+        ObservableList<Song> songs = FXCollections.observableArrayList();
 
         titleColumn.prefWidthProperty().bind(tableView.widthProperty().subtract(50).multiply(0.26));
         artistColumn.prefWidthProperty().bind(tableView.widthProperty().subtract(50).multiply(0.26));
@@ -77,6 +83,20 @@ public class NowPlayingController implements Initializable, SubView {
 
         tableView.setItems(songs);
 
+        // Applies the changes of the now playing list to the table instead of loading the view again.
+        // The listener is added before the songs are read, so that no change is missed in between,
+        // and changes up to the version of the songs that was read are skipped.
+        PlayQueue queue = MusicPlayer.getPlayQueue();
+        long[] shownVersion = { -1 };
+        if (queueListener != null) {
+            queue.removeListener(queueListener);
+        }
+        queueListener = change -> UiScheduler.post(() -> applyChange(songs, shownVersion, change));
+        queue.addListener(queueListener);
+        PlayQueue.Change snapshot = queue.snapshot();
+        songs.setAll(snapshot.getSongs());
+        shownVersion[0] = snapshot.getVersion();
+
         tableView.setRowFactory(x -> {
 
             TableRow<Song> row = new TableRow<>();
@@ -200,6 +220,47 @@ public class NowPlayingController implements Initializable, SubView {
         MusicPlayer.play();
     }
     
+    private static void applyChange(ObservableList<Song> songs, long[] shownVersion, PlayQueue.Change change) {
+        if (change.getVersion() <= shownVersion[0]) {
+            return;
+        }
+        // A change is only applied to the version of the list it was made to.
+        boolean next = change.getVersion() == shownVersion[0] + 1;
+        switch (change.getType()) {
+        case ADD:
+            if (next && change.getTo() <= songs.size()) {
+                songs.add(change.getTo(), change.getSong());
+                shownVersion[0] = change.getVersion();
+                return;
+            }
+            break;
+        case REMOVE:
+            if (next && change.getFrom() < songs.size() && songs.get(change.getFrom()) == change.getSong()) {
+                songs.remove(change.getFrom());
+                shownVersion[0] = change.getVersion();
+                return;
+            }
+            break;
+        case MOVE:
+            if (next && change.getFrom() < songs.size() && songs.get(change.getFrom()) == change.getSong()) {
+                songs.remove(change.getFrom());
+                songs.add(Math.min(change.getTo(), songs.size()), change.getSong());
+                shownVersion[0] = change.getVersion();
+                return;
+            }
+            break;
+        default:
+            break;
+        }
+        // A reset, or a change to a table that no longer matches the list, shows the whole list again.
+        PlayQueue.Change current = change.getType() == PlayQueue.Change.Type.RESET
+                ? change : MusicPlayer.getPlayQueue().snapshot();
+        if (!songs.equals(current.getSongs())) {
+            songs.setAll(current.getSongs());
+        }
+        shownVersion[0] = current.getVersion();
+    }
+
     @Override
     public void scroll(char letter) {}
     
@@ -200,6 +200,30 @@ public class PlaylistsController implements Initializable, SubView {
                 db.setDragView(image.snapshot(null, null), 125, 25);
                 event.consume();
             });
+            
+            // A song of a user playlist is moved by dropping it on the row it is moved to.
+            row.setOnDragOver(event -> {
+                if (canReorder()
+                        && event.getGestureSource() instanceof TableRow
+                        && ((TableRow<?>) event.getGestureSource()).getTableView() == tableView
+                        && "Song".equals(event.getDragboard().getString())) {
+                    event.acceptTransferModes(TransferMode.MOVE);
+                }
+                event.consume();
+            });
+            
+            row.setOnDragDropped(event -> {
+                Song song = (Song) MusicPlayer.getDraggedItem();
+                ObservableList<Song> songs = tableView.getItems();
+                int index = row.isEmpty() ? songs.size() - 1 : row.getIndex();
+                if (songs.remove(song)) {
+                    songs.add(index, song);
+                    tableView.getSelectionModel().clearAndSelect(index);
+                    selectedPlaylist.moveSong(song.getId(), index);
+                    event.setDropCompleted(true);
+                }
+                event.consume();
+            });
 
             return row;
         });
@@ -244,9 +268,7 @@ public class PlaylistsController implements Initializable, SubView {
 
     void selectPlaylist(Playlist playlist) {
         // Displays the delete button only if the user has not selected one of the default playlists.
-        if (playlist instanceof MostPlayedPlaylist || playlist instanceof RecentlyPlayedPlaylist) {
-            deleteButton.setVisible(false);
-        }
+        deleteButton.setVisible(!(playlist instanceof MostPlayedPlaylist || playlist instanceof RecentlyPlayedPlaylist));
 
         // Sets the text on the play list title label.
         playlistTitleLabel.setText(playlist.getTitle());
@@ -279,6 +301,28 @@ public class PlaylistsController implements Initializable, SubView {
         tableView.setPlaceholder(placeholder);
     }
     
+    // Songs can be reordered in playlists that the user made, while the table is in playlist order.
+    private boolean canReorder() {
+        return selectedPlaylist != null
+                && !(selectedPlaylist instanceof MostPlayedPlaylist)
+                && !(selectedPlaylist instanceof RecentlyPlayedPlaylist)
+                && tableView.getSortOrder().isEmpty();
+    }
+    
+    @Override
+    public void libraryChanged(Library.Change change) {
+        if (selectedPlaylist == null) {
+            return;
+        }
+        // Songs may have been added to the selected play list, and plays only change the songs of the play lists
+        // that follow what is played, since the plays column follows the play counts of the songs.
+        boolean followsPlays = selectedPlaylist instanceof MostPlayedPlaylist
+                || selectedPlaylist instanceof RecentlyPlayedPlaylist;
+        if (change == Library.Change.PLAYLISTS || followsPlays) {
+            selectPlaylist(selectedPlaylist);
+        }
+    }
+    
     @Override
     public void scroll(char letter) {}
 
@@ -333,7 +377,8 @@ public class PlaylistsController implements Initializable, SubView {
             deletePlaylistAnimation.play();
 
             // Deletes the play list from the xml file.
-            XMLEditor.deletePlaylistFromXML(selectedPlaylist.getId());
+            int playlistId = selectedPlaylist.getId();
+            Library.writeXml(() -> XMLEditor.deletePlaylistFromXML(playlistId));
 
             // Loads the artists view.
             MusicPlayer.getMainController().loadView("artists");
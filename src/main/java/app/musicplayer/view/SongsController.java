@@ -1,20 +1,34 @@
 package app.musicplayer.view;
 
 import java.net.URL;
+import java.text.CollationKey;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.Function;
 
 import app.musicplayer.MusicPlayer;
+import app.musicplayer.model.FacetIndex;
+import app.musicplayer.model.FacetIndex.Facet;
+import app.musicplayer.model.FacetIndex.LengthRange;
 import app.musicplayer.model.Library;
+import app.musicplayer.model.Library.SongOrder;
 import app.musicplayer.model.Song;
 import app.musicplayer.util.ClippedTableCell;
+import app.musicplayer.util.Collation;
+import app.musicplayer.util.CompressedBitmap;
 import app.musicplayer.util.ControlPanelTableCell;
+import app.musicplayer.util.LetterIndex;
 import app.musicplayer.util.PlayingTableCell;
+import app.musicplayer.util.SortedIndex;
 import app.musicplayer.util.SubView;
 import javafx.animation.Animation;
 import javafx.animation.Transition;
 import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
@@ -26,6 +40,8 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableView.TableViewSelectionModel;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.ClipboardContent;
@@ -33,10 +49,12 @@ import javafx.scene.input.Dragboard;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.TransferMode;
+import javafx.scene.layout.HBox;
 import javafx.util.Duration;
 
 public class SongsController implements Initializable, SubView {
 
+	@FXML private HBox facetBox;
 	@FXML private TableView<Song> tableView;
     @FXML private TableColumn<Song, Boolean> playingColumn;
     @FXML private TableColumn<Song, String> titleColumn;
@@ -54,6 +72,9 @@ public class SongsController implements Initializable, SubView {
     
     private Song selectedSong;
     
+    // Filter chips above the table by the facet they filter by. Chips of the same kind exclude each other.
+    private final Map<Facet, ToggleButton> chips = new LinkedHashMap<>();
+    
     @Override
     public void initialize(URL location, ResourceBundle resources) {
     	
@@ -87,12 +108,22 @@ public class SongsController implements Initializable, SubView {
         	event.consume();
         });
         
-        // Retrieves the list of songs in the library, sorts them, and adds them to the table.
-        ObservableList<Song> songs = Library.getSongs();
-
-        Collections.sort(songs, (x, y) -> compareSongs(x, y));
+        // Retrieves the songs in the order the library keeps them sorted by title and adds them to the table.
+        ObservableList<Song> songs = FXCollections.observableArrayList(Library.getSongs(SongOrder.TITLE).getItems());
         
         tableView.setItems(songs);
+        
+        ToggleGroup playStateChips = new ToggleGroup();
+        addChip(playStateChips, Facet.PLAYED, "Played");
+        addChip(playStateChips, Facet.NEVER_PLAYED, "Never played");
+        ToggleGroup lengthChips = new ToggleGroup();
+        addChip(lengthChips, Facet.length(LengthRange.UNDER_TWO_MINUTES), "Under 2 min");
+        addChip(lengthChips, Facet.length(LengthRange.TWO_TO_FIVE_MINUTES), "2 - 5 min");
+        addChip(lengthChips, Facet.length(LengthRange.FIVE_TO_TEN_MINUTES), "5 - 10 min");
+        addChip(lengthChips, Facet.length(LengthRange.OVER_TEN_MINUTES), "Over 10 min");
+        playStateChips.selectedToggleProperty().addListener((obs, oldChip, newChip) -> filter());
+        lengthChips.selectedToggleProperty().addListener((obs, oldChip, newChip) -> filter());
+        updateCounts(selectedFacets());
 
         tableView.setRowFactory(x -> {
             TableRow<Song> row = new TableRow<>();
@@ -200,48 +231,94 @@ public class SongsController implements Initializable, SubView {
         	}
         });
         
-        titleColumn.setComparator((x, y) -> {
-        	
-        	if (x == null && y == null) {
-				return 0;
-			} else if (x == null) {
-				return 1;
-			} else if (y == null) {
-				return -1;
-			}
-        	
-        	Song first = Library.getSong(x);
-        	Song second = Library.getSong(y);
-        	
-        	return compareSongs(first, second);
-        });
+        // Columns are sorted by the cached sort keys of their values, without looking up the songs.
+        titleColumn.setComparator(Collation::compare);
         
-        artistColumn.setComparator((first, second) -> Library.getArtist(first).compareTo(Library.getArtist(second)));
+        artistColumn.setComparator(Collation::compare);
         
-        albumColumn.setComparator((first, second) -> Library.getAlbum(first).compareTo(Library.getAlbum(second)));
+        albumColumn.setComparator(Collation::compare);
     }
     
-    private int compareSongs(Song x, Song y) {
-    	if (x == null && y == null) {
-    		return 0;
-    	} else if (x == null) {
-    		return 1;
-    	} else if (y == null) {
-    		return -1;
-    	}
-    	if (x.getTitle() == null && y.getTitle() == null) {
-    		// Both are equal.
-    		return 0;
-    	} else if (x.getTitle() == null) {
-    		// Null is after other strings.
-    		return 1;
-		} else if (y.getTitle() == null) {
-			// All other strings are before null.
-			return -1;
-		} else  /*(x.getTitle() != null && y.getTitle() != null)*/ {
-			return x.getTitle().compareTo(y.getTitle());
-		}
-	}
+    @Override
+    public void libraryChanged(Library.Change change) {
+        if (change != Library.Change.PLAYS) {
+            return;
+        }
+        // The plays column follows the play counts of the songs, so only the songs played or never played change.
+        List<Facet> filter = selectedFacets();
+        boolean byPlayState = false;
+        for (Facet facet : filter) {
+            byPlayState |= facet.getKind() == Facet.Kind.PLAY_STATE;
+        }
+        if (byPlayState) {
+            filter();
+        } else {
+            updateCounts(filter);
+        }
+    }
+    
+    private void addChip(ToggleGroup group, Facet facet, String name) {
+        ToggleButton chip = new ToggleButton(name);
+        chip.setUserData(name);
+        chip.setToggleGroup(group);
+        chip.getStyleClass().add("facet-chip");
+        chips.put(facet, chip);
+        facetBox.getChildren().add(chip);
+    }
+    
+    private List<Facet> selectedFacets() {
+        List<Facet> selected = new ArrayList<>();
+        for (Map.Entry<Facet, ToggleButton> chip : chips.entrySet()) {
+            if (chip.getValue().isSelected()) {
+                selected.add(chip.getKey());
+            }
+        }
+        return selected;
+    }
+    
+    /**
+     * Shows the songs that have the facets of the selected chips, in the order of their titles,
+     * and updates the counts on the chips.
+     */
+    private void filter() {
+        List<Facet> filter = selectedFacets();
+        List<Song> songs = Library.getSongs(SongOrder.TITLE).getItems();
+        tableView.getSelectionModel().clearSelection();
+        if (filter.isEmpty()) {
+            tableView.getItems().setAll(songs);
+        } else {
+            CompressedBitmap selected = Library.getFacets().select(filter);
+            List<Song> filtered = new ArrayList<>(selected.cardinality());
+            for (Song song : songs) {
+                if (selected.contains(song.getId())) {
+                    filtered.add(song);
+                }
+            }
+            tableView.getItems().setAll(filtered);
+        }
+        tableView.sort();
+        updateCounts(filter);
+    }
+    
+    // Each chip counts the songs it would show in place of the selected chip of its kind.
+    private void updateCounts(List<Facet> filter) {
+        FacetIndex facets = Library.getFacets();
+        for (Facet.Kind kind : new Facet.Kind[] { Facet.Kind.PLAY_STATE, Facet.Kind.LENGTH }) {
+            List<Facet> kindFacets = new ArrayList<>();
+            for (Facet facet : chips.keySet()) {
+                if (facet.getKind() == kind) {
+                    kindFacets.add(facet);
+                }
+            }
+            List<Facet> otherFilter = new ArrayList<>(filter);
+            otherFilter.removeAll(kindFacets);
+            Map<Facet, Integer> counts = facets.counts(kindFacets, otherFilter);
+            for (Facet facet : kindFacets) {
+                ToggleButton chip = chips.get(facet);
+                chip.setText(chip.getUserData() + " (" + counts.get(facet) + ")");
+            }
+        }
+    }
     
     @Override
     public void play() {
@@ -268,66 +345,45 @@ public class SongsController implements Initializable, SubView {
     	
     	// Retrieves songs from table.
     	ObservableList<Song> songTableItems = tableView.getItems();
-    	// Initializes counter for cells. Used to determine what cell to scroll to.
-    	int selectedCell = 0;
-    	int selectedLetterCount = 0;
     	
     	// Retrieves the table view scroll bar.
     	if (scrollBar == null) {
     		scrollBar = (ScrollBar) tableView.lookup(".scroll-bar");
     	}
 
+        // The library keeps the songs sorted by each column, so the rows before the letter are looked up.
+        SongOrder order;
+        Function<Song, CollationKey> key;
         switch (currentSortColumn) {
-            case "titleColumn":
-                for (Song song : songTableItems) {
-                    // Gets song title and compares first letter to selected letter.
-                    String songTitle = song.getTitle();
-                    try {
-                        char firstLetter = songTitle.charAt(0);
-                        if (firstLetter < letter) {
-                            selectedCell++;
-                        } else if (firstLetter == letter) {
-                            selectedLetterCount++;
-                        }
-                    } catch (NullPointerException npe) {
-                        System.out.println("Null Song Title");
-                    }
-
-                }
-                break;
             case "artistColumn":
-                for (Song song : songTableItems) {
-                    // Removes article from song artist and compares it to selected letter.
-                    String songArtist = song.getArtist();
-                    try {
-                        char firstLetter = removeArticle(songArtist).charAt(0);
-                        if (firstLetter < letter) {
-                            selectedCell++;
-                        } else if (firstLetter == letter) {
-                            selectedLetterCount++;
-                        }
-                    } catch (NullPointerException npe) {
-                        System.out.println("Null Song Artist");
-                    }
-                }
+                order = SongOrder.ARTIST;
+                key = Song::getArtistKey;
                 break;
             case "albumColumn":
-                for (Song song : songTableItems) {
-                    // Removes article from song album and compares it to selected letter.
-                    String songAlbum = song.getAlbum();
-                    try {
-                        char firstLetter = removeArticle(songAlbum).charAt(0);
-                        if (firstLetter < letter) {
-                            selectedCell++;
-                        } else if (firstLetter == letter) {
-                            selectedLetterCount++;
-                        }
-                    } catch (NullPointerException npe) {
-                        System.out.println("Null Song Album");
-                    }
-                }
+                order = SongOrder.ALBUM;
+                key = Song::getAlbumKey;
+                break;
+            default:
+                order = SongOrder.TITLE;
+                key = Song::getTitleKey;
                 break;
         }
+        int selectedCell;
+        int selectedLetterCount;
+        if (selectedFacets().isEmpty()) {
+            SortedIndex<Song> sortedSongs = Library.getSongs(order);
+            selectedCell = sortedSongs.offsetOf(letter);
+            selectedLetterCount = sortedSongs.countOf(letter);
+        } else {
+            // The table only shows the songs with the selected facets, so the letter is looked up in its rows.
+            List<Song> rows = new ArrayList<>(songTableItems);
+            if ("descending".equals(currentSortOrder)) {
+                Collections.reverse(rows);
+            }
+            LetterIndex<Song> letters = new LetterIndex<>(rows, key);
+            selectedCell = letters.offsetOf(letter);
+            selectedLetterCount = letters.countOf(letter);
+        }
     	
     	double startVvalue = scrollBar.getValue();
     	double finalVvalue;
@@ -351,28 +407,6 @@ public class SongsController implements Initializable, SubView {
         scrollAnimation.play();
     }
     
-    private String removeArticle(String title) {
-
-        String arr[] = title.split(" ", 2);
-
-        if (arr.length < 2) {
-            return title;
-        } else {
-
-            String firstWord = arr[0];
-            String theRest = arr[1];
-
-            switch (firstWord) {
-                case "A":
-                case "An":
-                case "The":
-                    return theRest;
-                default:
-                    return title;
-            }
-        }
-    }
-    
     public Song getSelectedSong() {
     	return selectedSong;
     }
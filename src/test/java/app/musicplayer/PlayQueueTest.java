@@ -0,0 +1,146 @@
+package app.musicplayer;
+
+import app.musicplayer.model.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayQueueTest {
+
+    private PlayQueue queue;
+    private List<PlayQueue.Change> changes;
+    private Song[] songs;
+
+    @BeforeEach
+    void setUp() {
+        queue = new PlayQueue();
+        changes = new ArrayList<>();
+        queue.addListener(changes::add);
+        songs = new Song[5];
+        for (int i = 0; i < songs.length; i++) {
+            songs[i] = new Song(i, "Song " + i, "Artist", "Album",
+                    Duration.ofSeconds(180), i + 1, 1, 0, LocalDateTime.now(), "test/location");
+        }
+    }
+
+    @Test
+    void testSetAllSkipsDuplicatesAndReportsReset() {
+        queue.setAll(Arrays.asList(songs[2], songs[0], songs[2], null, songs[1]));
+
+        assertEquals(Arrays.asList(songs[2], songs[0], songs[1]), queue.toList());
+        assertEquals(1, changes.size());
+        assertEquals(PlayQueue.Change.Type.RESET, changes.get(0).getType());
+        assertEquals(queue.toList(), changes.get(0).getSongs());
+    }
+
+    @Test
+    void testEnqueueAddsEachSongOnce() {
+        assertTrue(queue.enqueue(songs[0]));
+        assertTrue(queue.enqueue(songs[1]));
+        assertFalse(queue.enqueue(songs[0]));
+
+        assertEquals(Arrays.asList(songs[0], songs[1]), queue.toList());
+        assertEquals(2, changes.size());
+        assertEquals(PlayQueue.Change.Type.ADD, changes.get(1).getType());
+        assertSame(songs[1], changes.get(1).getSong());
+        assertEquals(1, changes.get(1).getTo());
+    }
+
+    @Test
+    void testPlayNextInsertsOrMovesAfterCurrentSong() {
+        queue.setAll(Arrays.asList(songs[0], songs[1], songs[2], songs[3]));
+        changes.clear();
+
+        queue.playNext(songs[4], songs[1]);
+        assertEquals(Arrays.asList(songs[0], songs[1], songs[4], songs[2], songs[3]), queue.toList());
+        assertEquals(PlayQueue.Change.Type.ADD, changes.get(0).getType());
+        assertEquals(2, changes.get(0).getTo());
+
+        queue.playNext(songs[3], songs[0]);
+        assertEquals(Arrays.asList(songs[0], songs[3], songs[1], songs[4], songs[2]), queue.toList());
+        assertEquals(PlayQueue.Change.Type.MOVE, changes.get(1).getType());
+        assertEquals(4, changes.get(1).getFrom());
+        assertEquals(1, changes.get(1).getTo());
+
+        queue.playNext(songs[0], songs[4]);
+        assertEquals(Arrays.asList(songs[3], songs[1], songs[4], songs[0], songs[2]), queue.toList());
+        assertEquals(0, changes.get(2).getFrom());
+        assertEquals(3, changes.get(2).getTo());
+
+        // Already next, or the current song itself: nothing changes.
+        queue.playNext(songs[0], songs[4]);
+        queue.playNext(songs[4], songs[4]);
+        assertEquals(3, changes.size());
+
+        queue.playNext(songs[2], null);
+        assertEquals(Arrays.asList(songs[2], songs[3], songs[1], songs[4], songs[0]), queue.toList());
+    }
+
+    @Test
+    void testRemoveAndMoveReportPositions() {
+        queue.setAll(Arrays.asList(songs[0], songs[1], songs[2], songs[3]));
+        changes.clear();
+
+        assertTrue(queue.remove(songs[1]));
+        assertFalse(queue.remove(songs[1]));
+        assertEquals(1, changes.size());
+        assertEquals(PlayQueue.Change.Type.REMOVE, changes.get(0).getType());
+        assertEquals(1, changes.get(0).getFrom());
+
+        assertTrue(queue.move(songs[3], 0));
+        assertFalse(queue.move(songs[1], 0));
+        assertEquals(Arrays.asList(songs[3], songs[0], songs[2]), queue.toList());
+        assertEquals(PlayQueue.Change.Type.MOVE, changes.get(1).getType());
+        assertEquals(2, changes.get(1).getFrom());
+        assertEquals(0, changes.get(1).getTo());
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.move(songs[0], 3));
+    }
+
+    @Test
+    void testEveryChangeIncrementsTheVersion() {
+        assertEquals(0, queue.snapshot().getVersion());
+        queue.setAll(Arrays.asList(songs[0], songs[1]));
+        queue.enqueue(songs[2]);
+        queue.enqueue(songs[2]);
+        queue.playNext(songs[3], songs[0]);
+        queue.move(songs[2], 0);
+        queue.move(songs[2], 0);
+        queue.remove(songs[1]);
+
+        assertEquals(5, changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals(i + 1, changes.get(i).getVersion());
+        }
+
+        PlayQueue.Change snapshot = queue.snapshot();
+        assertEquals(PlayQueue.Change.Type.RESET, snapshot.getType());
+        assertEquals(5, snapshot.getVersion());
+        assertEquals(queue.toList(), snapshot.getSongs());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getSongs().add(songs[4]));
+    }
+
+    @Test
+    void testViewFollowsQueueAndIsReadOnly() {
+        List<Song> view = queue.view();
+        assertTrue(view.isEmpty());
+
+        queue.enqueue(songs[0]);
+        queue.enqueue(songs[1]);
+        queue.playNext(songs[2], null);
+
+        assertEquals(Arrays.asList(songs[2], songs[0], songs[1]), view);
+        assertTrue(view.contains(songs[0]));
+        assertFalse(view.contains(songs[3]));
+        assertEquals(2, view.indexOf(songs[1]));
+        assertEquals(-1, view.indexOf("not a song"));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(songs[3]));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+}
@@ -0,0 +1,81 @@
+package app.musicplayer.model;
+
+import app.musicplayer.model.FacetIndex.Facet;
+import app.musicplayer.model.FacetIndex.LengthRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetIndexTest {
+
+    private Song help, yesterday, blackbird, roxanne;
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        help = song(0, "Help!", "The Beatles", "Help!", 140, 7);
+        yesterday = song(1, "Yesterday", "The Beatles", "Help!", 125, 0);
+        blackbird = song(2, "Blackbird", "The Beatles", "White Album", 95, 0);
+        roxanne = song(3, "Roxanne", "The Police", "Outlandos d'Amour", 192, 2);
+        index = new FacetIndex(Arrays.asList(help, yesterday, blackbird, roxanne));
+    }
+
+    @Test
+    void testCountsOfEachFacet() {
+        assertEquals(4, index.count(Collections.emptyList()));
+        assertEquals(3, index.count(Collections.singletonList(Facet.artist("The Beatles"))));
+        assertEquals(1, index.count(Arrays.asList(Facet.artist("The Beatles"), Facet.PLAYED)));
+        assertEquals(2, index.count(Arrays.asList(Facet.album("Help!"), Facet.length(LengthRange.TWO_TO_FIVE_MINUTES))));
+        assertEquals(0, index.count(Collections.singletonList(Facet.artist("Nobody"))));
+    }
+
+    @Test
+    void testChipCountsUnderAFilter() {
+        Map<Facet, Integer> counts = index.counts(
+                Arrays.asList(Facet.PLAYED, Facet.NEVER_PLAYED, Facet.length(LengthRange.UNDER_TWO_MINUTES)),
+                Collections.singletonList(Facet.artist("The Beatles")));
+
+        assertEquals(Integer.valueOf(1), counts.get(Facet.PLAYED));
+        assertEquals(Integer.valueOf(2), counts.get(Facet.NEVER_PLAYED));
+        assertEquals(Integer.valueOf(1), counts.get(Facet.length(LengthRange.UNDER_TWO_MINUTES)));
+    }
+
+    @Test
+    void testPlayedSongMovesToPlayed() {
+        yesterday.playCountProperty().set(1);
+        index.playCountChanged(yesterday);
+
+        assertEquals(Arrays.asList(help, yesterday, roxanne), index.songs(Collections.singletonList(Facet.PLAYED)));
+        assertEquals(Collections.singletonList(blackbird), index.songs(Collections.singletonList(Facet.NEVER_PLAYED)));
+    }
+
+    @Test
+    void testSelectionIsACopy() {
+        index.select(Collections.singletonList(Facet.PLAYED)).add(1);
+        index.select(Collections.emptyList()).remove(0);
+
+        assertEquals(2, index.count(Collections.singletonList(Facet.PLAYED)));
+        assertEquals(4, index.count(Collections.emptyList()));
+    }
+
+    @Test
+    void testRemovedSongIsNotCounted() {
+        index.remove(roxanne);
+
+        assertEquals(3, index.count(Collections.emptyList()));
+        assertFalse(index.facets(Facet.Kind.ARTIST).contains(Facet.artist("The Police")));
+        assertTrue(index.facets(Facet.Kind.ARTIST).contains(Facet.artist("The Beatles")));
+    }
+
+    private static Song song(int id, String title, String artist, String album, long seconds, int playCount) {
+        return new Song(id, title, artist, album, Duration.ofSeconds(seconds), 1, 1, playCount,
+                LocalDateTime.now(), "/path/to/song" + id);
+    }
+}
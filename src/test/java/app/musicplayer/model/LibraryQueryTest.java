@@ -0,0 +1,123 @@
+package app.musicplayer.model;
+
+import app.musicplayer.model.Library.SongOrder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryQueryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private Song help, yesterday, letItBe, blackbird, roxanne, message;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        help = song(0, "Help!", "The Beatles", "Help!", 140, 1, 7, NOW.minusDays(1));
+        yesterday = song(1, "Yesterday", "The Beatles", "Help!", 125, 13, 12, NOW.minusDays(10));
+        letItBe = song(2, "Let It Be", "The Beatles", "Let It Be", 243, 6, 0, null);
+        blackbird = song(3, "Blackbird", "The Beatles", "White Album", 138, 11, 3, NOW.minusDays(3));
+        roxanne = song(4, "Roxanne", "The Police", "Outlandos d'Amour", 192, 4, 12, NOW.minusDays(2));
+        message = song(5, "Message in a Bottle", "The Police", "Reggatta de Blanc", 290, 1, 0, null);
+
+        Album helpAlbum = new Album(0, "Help!", "The Beatles", new ArrayList<>(Arrays.asList(yesterday, help)));
+        Album letItBeAlbum = new Album(1, "Let It Be", "The Beatles", new ArrayList<>(Arrays.asList(letItBe)));
+        Album whiteAlbum = new Album(2, "White Album", "The Beatles", new ArrayList<>(Arrays.asList(blackbird)));
+        Album outlandos = new Album(3, "Outlandos d'Amour", "The Police", new ArrayList<>(Arrays.asList(roxanne)));
+        Album reggatta = new Album(4, "Reggatta de Blanc", "The Police", new ArrayList<>(Arrays.asList(message)));
+
+        setField("songs", new ArrayList<>(Arrays.asList(help, yesterday, letItBe, blackbird, roxanne, message)));
+        setField("albums", new ArrayList<>(Arrays.asList(helpAlbum, letItBeAlbum, whiteAlbum, outlandos, reggatta)));
+        setField("artists", new ArrayList<>(Arrays.asList(
+                new Artist("The Beatles", new ArrayList<>(Arrays.asList(helpAlbum, letItBeAlbum, whiteAlbum))),
+                new Artist("The Police", new ArrayList<>(Arrays.asList(outlandos, reggatta))))));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        setField("songs", null);
+        setField("albums", null);
+        setField("artists", null);
+    }
+
+    @Test
+    void testAlbumQueryReadsOnlyTheAlbum() {
+        LibraryQuery query = LibraryQuery.songs().artist("The Beatles").album("Help!");
+
+        assertEquals(LibraryQuery.Source.ALBUM, query.source());
+        assertEquals(Arrays.asList(yesterday, help), query.list());
+        assertEquals(Arrays.asList(help, yesterday), query.orderBy(SongOrder.ALBUM).list());
+    }
+
+    @Test
+    void testArtistQuerySortsTheSongsOfTheArtist() {
+        LibraryQuery query = LibraryQuery.songs().artist("The Beatles").orderBy(SongOrder.ALBUM);
+
+        assertEquals(LibraryQuery.Source.ARTIST, query.source());
+        assertEquals(Arrays.asList(help, yesterday, letItBe, blackbird), query.list());
+        assertTrue(LibraryQuery.songs().artist("Nobody").list().isEmpty());
+    }
+
+    @Test
+    void testQueryOfAnArtistDoesNotLookItUp() throws Exception {
+        Artist police = Library.getArtists().get(1);
+        setField("artists", new ArrayList<>());
+
+        LibraryQuery query = LibraryQuery.songs(police).orderBy(SongOrder.TITLE);
+
+        assertEquals(LibraryQuery.Source.ARTIST, query.source());
+        assertEquals(Arrays.asList(message, roxanne), query.list());
+        assertEquals(Arrays.asList(roxanne), LibraryQuery.songs(police).album("Outlandos d'Amour").list());
+    }
+
+    @Test
+    void testOrderedQueryReadsTheSortedOrder() {
+        LibraryQuery query = LibraryQuery.songs().playCountAtLeast(1).orderBy(SongOrder.PLAY_COUNT);
+
+        assertEquals(LibraryQuery.Source.ORDER, query.source());
+        assertEquals(Arrays.asList(roxanne, yesterday, help, blackbird), query.list());
+        assertEquals(Arrays.asList(roxanne, yesterday), query.limit(2).list());
+        assertEquals(Arrays.asList(help, blackbird), query.offset(2).list());
+        assertEquals(4, query.count());
+    }
+
+    @Test
+    void testFilters() {
+        assertEquals(Arrays.asList(letItBe, message), LibraryQuery.songs().playCountAtMost(0).list());
+        assertEquals(Arrays.asList(help, roxanne), LibraryQuery.songs().playedAfter(NOW.minusDays(2).minusHours(1)).list());
+        assertEquals(Arrays.asList(yesterday), LibraryQuery.songs().playedBefore(NOW.minusDays(5)).list());
+        assertEquals(Arrays.asList(help, yesterday, blackbird), LibraryQuery.songs().lengthBetween(0, 150).list());
+        assertEquals(Arrays.asList(letItBe), LibraryQuery.songs().titleContains("it be").list());
+        assertEquals(Arrays.asList(message, roxanne),
+                LibraryQuery.songs().artist("The Police").orderBy(SongOrder.TITLE).list());
+        assertEquals(LibraryQuery.Source.SCAN, LibraryQuery.songs().titleContains("it").source());
+    }
+
+    @Test
+    void testPagingPastTheEnd() {
+        assertEquals(Collections.emptyList(), LibraryQuery.songs().offset(10).list());
+        assertEquals(Collections.emptyList(), LibraryQuery.songs().limit(0).list());
+        assertEquals(Arrays.asList(message), LibraryQuery.songs().offset(5).limit(3).list());
+    }
+
+    private static Song song(int id, String title, String artist, String album, long seconds, int track,
+                             int playCount, LocalDateTime playDate) {
+        return new Song(id, title, artist, album, Duration.ofSeconds(seconds), track, 1, playCount, playDate,
+                "/path/to/song" + id);
+    }
+
+    private static void setField(String name, Object value) throws Exception {
+        Field field = Library.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, value);
+    }
+}
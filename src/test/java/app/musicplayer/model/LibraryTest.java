@@ -1,8 +1,10 @@
 package app.musicplayer.model;
 
 import app.musicplayer.MusicPlayer;
+import app.musicplayer.util.IdListCodec;
 import app.musicplayer.util.ImportMusicTask;
 import app.musicplayer.util.Resources;
+import app.musicplayer.util.SortedIndex;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.AudioFileIO;
 import org.jaudiotagger.audio.AudioHeader;
@@ -43,8 +45,11 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.io.FileWriter;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 @ExtendWith(MockitoExtension.class)
 class LibraryTest {
@@ -420,8 +425,6 @@ class LibraryTest {
         private Element lengthElementMock;
         private Element trackNumberElementMock;
         private Element discNumberElementMock;
-        private Element playCountElementMock;
-        private Element playDateElementMock;
         private Element locationElementMock;
 
         private AudioFile audioFileMock;
@@ -454,8 +457,6 @@ class LibraryTest {
             lengthElementMock = mock(Element.class);
             trackNumberElementMock = mock(Element.class);
             discNumberElementMock = mock(Element.class);
-            playCountElementMock = mock(Element.class);
-            playDateElementMock = mock(Element.class);
             locationElementMock = mock(Element.class);
 
             // Set up the Document.createElement behavior
@@ -467,8 +468,6 @@ class LibraryTest {
             when(docMock.createElement("length")).thenReturn(lengthElementMock);
             when(docMock.createElement("trackNumber")).thenReturn(trackNumberElementMock);
             when(docMock.createElement("discNumber")).thenReturn(discNumberElementMock);
-            when(docMock.createElement("playCount")).thenReturn(playCountElementMock);
-            when(docMock.createElement("playDate")).thenReturn(playDateElementMock);
             when(docMock.createElement("location")).thenReturn(locationElementMock);
 
             // Mock audio file classes
@@ -925,6 +924,127 @@ class LibraryTest {
         }
     }
 
+    @Nested
+    class GetSortedSongsTest {
+        private ArrayList<Song> songList;
+        private Song song1, song2, song3;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            songList = new ArrayList<>();
+            song1 = new Song(0, "The Zebra", "Beck", "Odelay",
+                    Duration.ofSeconds(180), 1, 1, 2, LocalDateTime.now(), "/path/to/song1");
+            song2 = new Song(1, "Apple", "Abba", "Gold",
+                    Duration.ofSeconds(240), 1, 1, 5, LocalDateTime.now(), "/path/to/song2");
+            song3 = new Song(2, "Mango", "The Clash", "London Calling",
+                    Duration.ofSeconds(200), 1, 1, 1, LocalDateTime.now(), "/path/to/song3");
+            songList.add(song1);
+            songList.add(song2);
+            songList.add(song3);
+            setStaticField(songList);
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            setStaticField(null);
+        }
+
+        @Test
+        void testSongsAreSortedByEachOrder() {
+            assertEquals(Arrays.asList(song2, song3, song1), Library.getSongs(Library.SongOrder.TITLE).getItems());
+            assertEquals(Arrays.asList(song2, song1, song3), Library.getSongs(Library.SongOrder.ARTIST).getItems());
+            assertEquals(Arrays.asList(song2, song3, song1), Library.getSongs(Library.SongOrder.ALBUM).getItems());
+            assertEquals(Arrays.asList(song2, song1, song3), Library.getSongs(Library.SongOrder.PLAY_COUNT).getItems());
+        }
+
+        @Test
+        void testLetterOffsets() {
+            SortedIndex<Song> byTitle = Library.getSongs(Library.SongOrder.TITLE);
+            assertEquals(1, byTitle.offsetOf('M'));
+            assertEquals(2, byTitle.offsetOf('Z'));
+            assertEquals(1, byTitle.countOf('Z'));
+            assertEquals(0, byTitle.countOf('T'));
+        }
+
+        @Test
+        void testPlayCountOrderIsUpdated() {
+            SortedIndex<Song> byPlayCount = Library.getSongs(Library.SongOrder.PLAY_COUNT);
+            Library.playCountChanged(song3, () -> song3.playCountProperty().set(10));
+
+            assertSame(byPlayCount, Library.getSongs(Library.SongOrder.PLAY_COUNT));
+            assertEquals(Arrays.asList(song3, song2, song1), byPlayCount.getItems());
+        }
+
+        @Test
+        void testOrdersAreRebuiltWhenSongsAreReplaced() throws Exception {
+            SortedIndex<Song> byTitle = Library.getSongs(Library.SongOrder.TITLE);
+            setStaticField(new ArrayList<>(Arrays.asList(song1)));
+
+            assertNotSame(byTitle, Library.getSongs(Library.SongOrder.TITLE));
+            assertEquals(1, Library.getSongs(Library.SongOrder.TITLE).size());
+        }
+
+        private void setStaticField(Object value) throws Exception {
+            Field field = Library.class.getDeclaredField("songs");
+            field.setAccessible(true);
+            field.set(null, value);
+        }
+    }
+
+    @Nested
+    class SnapshotTest {
+        private Playlist playlist1, playlist2;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            ArrayList<Song> songList = new ArrayList<>();
+            songList.add(new Song(0, "Test Song 1", "Test Artist", "Test Album",
+                    Duration.ofSeconds(180), 1, 1, 0, LocalDateTime.now(), "/path/to/song1"));
+            playlist1 = new Playlist(1, "Playlist 1", new ArrayList<>());
+            playlist2 = new Playlist(0, "Playlist 2", new ArrayList<>());
+            setStaticField("songs", songList);
+            setStaticField("albums", new ArrayList<Album>());
+            setStaticField("artists", new ArrayList<Artist>());
+            setStaticField("playlists", new ArrayList<>(Arrays.asList(playlist1, playlist2)));
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            setStaticField("songs", null);
+            setStaticField("albums", null);
+            setStaticField("artists", null);
+            setStaticField("playlists", null);
+        }
+
+        @Test
+        void testSnapshotIsReusedUntilTheLibraryChanges() {
+            LibrarySnapshot snapshot = Library.snapshot();
+
+            assertSame(snapshot, Library.snapshot());
+            assertEquals(1, snapshot.getSongs().size());
+            assertEquals(Arrays.asList(playlist1, playlist2), snapshot.getPlaylists());
+            assertThrows(UnsupportedOperationException.class, () -> snapshot.getPlaylists().clear());
+        }
+
+        @Test
+        void testChangesPublishANewSnapshot() {
+            LibrarySnapshot before = Library.snapshot();
+
+            Library.removePlaylist(playlist1);
+            LibrarySnapshot after = Library.snapshot();
+
+            assertTrue(after.getEpoch() > before.getEpoch());
+            assertEquals(Arrays.asList(playlist1, playlist2), before.getPlaylists());
+            assertEquals(Arrays.asList(playlist2), after.getPlaylists());
+        }
+
+        private void setStaticField(String fieldName, Object value) throws Exception {
+            Field field = Library.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(null, value);
+        }
+    }
+
     @Nested
     class GetSongTest {
         private ArrayList<Song> songList;
@@ -1108,6 +1228,48 @@ class LibraryTest {
             assertEquals("Song 2", songs.get(1).getTitle());
         }
 
+        @Test
+        void testPlayDataIsReadOnlyFromThePlayStatsAfterMigration() throws Exception {
+            writeSong("<playCount>5</playCount><playDate>2023-01-01T12:00:00</playDate>");
+            assertEquals(5, Library.getSongs().get(0).getPlayCount());
+
+            // Play data left in library.xml after the migration is stale.
+            setSongs(null);
+            writeSong("<playCount>9</playCount><playDate>2024-01-01T12:00:00</playDate>");
+            Song song = Library.getSongs().get(0);
+
+            assertEquals(5, song.getPlayCount());
+            assertEquals(LocalDateTime.parse("2023-01-01T12:00:00"), song.getPlayDate());
+        }
+
+        @Test
+        void testSongsWithoutPlayDataWereNeverPlayed() throws Exception {
+            writeSong("");
+            Song song = Library.getSongs().get(0);
+            assertEquals(0, song.getPlayCount());
+            assertNull(song.getPlayDate());
+
+            setSongs(null);
+            song = Library.getSongs().get(0);
+            assertEquals(0, song.getPlayCount());
+            assertNull(song.getPlayDate());
+        }
+
+        private void writeSong(String playData) throws Exception {
+            try (FileWriter writer = new FileWriter(xmlFile)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<library><songs><song><id>0</id>"
+                        + "<title>Song 1</title><artist>Artist 1</artist><album>Album 1</album><length>180</length>"
+                        + "<trackNumber>1</trackNumber><discNumber>1</discNumber>" + playData
+                        + "<location>/path/to/song1.mp3</location></song></songs></library>");
+            }
+        }
+
+        private void setSongs(List<Song> songs) throws Exception {
+            Field songsField = Library.class.getDeclaredField("songs");
+            songsField.setAccessible(true);
+            songsField.set(null, songs);
+        }
+
         @Test
         void testUpdateSongsListIncompleteXml() throws Exception {
             String xmlContent =
@@ -1895,12 +2057,15 @@ class LibraryTest {
                 Thread.sleep(100);
                 waited += 100;
 
-                // check if the playlist was added
-                if (playlists.size() > 2) {
+                // check if the XML file was written
+                if (xmlFile.length() > 0 && Files.readAllLines(xmlFile.toPath()).toString().contains("New Test Playlist")) {
                     break;
                 }
             }
 
+            // The list is copied on write, so the new list replaces the old one.
+            playlists = (ArrayList<Playlist>) getStaticField("playlists");
+
             // Verify the playlist was added to the list
             assertEquals(3, playlists.size());
             Playlist addedPlaylist = playlists.get(2);
@@ -1992,6 +2157,43 @@ class LibraryTest {
             assertTrue(updatedPlaylists.contains(playlist3));
         }
 
+        @Test
+        void testRemovePlaylistUpdatesViewsHandedOutBefore() throws Exception {
+            ArrayList<Playlist> playlists = new ArrayList<>();
+            Playlist playlist1 = new Playlist(1, "Playlist 1", new ArrayList<>());
+            Playlist playlist2 = new Playlist(0, "Playlist 2", new ArrayList<>());
+            playlists.add(playlist1);
+            playlists.add(playlist2);
+            setStaticField("playlists", playlists);
+
+            ObservableList<Playlist> view = Library.getPlaylists();
+            Library.removePlaylist(playlist1);
+
+            assertEquals(1, view.size());
+            assertSame(playlist2, view.get(0));
+            assertSame(view, Library.getPlaylists());
+        }
+
+        @Test
+        void testRemovePlaylistNotifiesChangeListeners() throws Exception {
+            ArrayList<Playlist> playlists = new ArrayList<>();
+            Playlist playlist = new Playlist(0, "Playlist 1", new ArrayList<>());
+            playlists.add(playlist);
+            setStaticField("playlists", playlists);
+
+            ArrayList<Library.Change> changes = new ArrayList<>();
+            Consumer<Library.Change> listener = changes::add;
+            Library.addChangeListener(listener);
+            try {
+                Library.removePlaylist(playlist);
+            } finally {
+                Library.removeChangeListener(listener);
+            }
+
+            assertEquals(1, changes.size());
+            assertEquals(Library.Change.PLAYLISTS, changes.get(0));
+        }
+
         @Test
         void testRemoveNonExistentPlaylist() throws Exception {
             ArrayList<Playlist> playlists = new ArrayList<>();
@@ -2096,8 +2298,8 @@ class LibraryTest {
                             "    </playlists>\n" +
                             "</library>";
 
-            // Setup mock for getSong method to return song objects
-            try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
+            // The playlists look up their songs by id in the song list.
+            try {
                 Song song0 = new Song(0, "Song 1", "Artist 1", "Album 1",
                         Duration.ofSeconds(180), 1, 1, 0, LocalDateTime.now(), "/path/song1.mp3");
                 Song song1 = new Song(1, "Song 2", "Artist 1", "Album 1",
@@ -2105,12 +2307,7 @@ class LibraryTest {
                 Song song2 = new Song(2, "Song 3", "Artist 2", "Album 2",
                         Duration.ofSeconds(220), 1, 1, 0, LocalDateTime.now(), "/path/song3.mp3");
 
-                // Mock getSong
-                mockedLibrary.when(() -> Library.getSong(String.valueOf(0))).thenReturn(song0);
-                mockedLibrary.when(() -> Library.getSong(String.valueOf(1))).thenReturn(song1);
-                mockedLibrary.when(() -> Library.getSong(String.valueOf(2))).thenReturn(song2);
-
-                mockedLibrary.when(Library::getPlaylists).thenCallRealMethod();
+                setStaticField("songs", new ArrayList<>(Arrays.asList(song0, song1, song2)));
 
                 try (FileWriter writer = new FileWriter(xmlFile)) {
                     writer.write(xmlContent);
@@ -2127,6 +2324,8 @@ class LibraryTest {
                 assertEquals(1, playlists.get(0).getSongs().size());
                 assertEquals(2, playlists.get(1).getSongs().size());
                 assertNotNull(getStaticField("playlists"));
+            } finally {
+                resetStaticField("songs");
             }
         }
 
@@ -2549,6 +2748,40 @@ class LibraryTest {
             }
         }
 
+        @Test
+        void testLoadPlayingListWithEncodedIds() throws Exception {
+            Song mockSong1 = mock(Song.class);
+            Song mockSong2 = mock(Song.class);
+
+            try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
+                Method getSongMethod = Library.class.getDeclaredMethod("getSong", int.class);
+                getSongMethod.setAccessible(true);
+                mockedLibrary.when(() -> getSongMethod.invoke(null, 1)).thenReturn(mockSong1);
+                mockedLibrary.when(() -> getSongMethod.invoke(null, 0)).thenReturn(mockSong2);
+
+                mockedLibrary.when(Library::loadPlayingList).thenCallRealMethod();
+
+                // Create XML content with the compact id list written by savePlayingList
+                String xmlContent =
+                        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                                "<library>\n" +
+                                "    <nowPlayingList>\n" +
+                                "        <ids>" + IdListCodec.encodeToString(new int[] {1, 0}) + "</ids>\n" +
+                                "    </nowPlayingList>\n" +
+                                "</library>";
+
+                try (FileWriter writer = new FileWriter(xmlFile)) {
+                    writer.write(xmlContent);
+                }
+
+                ArrayList<Song> result = Library.loadPlayingList();
+
+                assertEquals(2, result.size());
+                assertEquals(mockSong1, result.get(0));
+                assertEquals(mockSong2, result.get(1));
+            }
+        }
+
         @Test
         void testLoadPlayingListWithEmptyPlayingList() throws Exception {
             // Create XML with empty nowPlayingList
@@ -2711,49 +2944,35 @@ class LibraryTest {
         }
 
         @Test
-        void testSavePlayingListThreadRun() throws Exception {
-            // Create a mock implementation of Runnable to capture what runs in the thread
-            Runnable mockRunnable = mock(Runnable.class);
-
-            // Mock the Thread constructor to use our mock Runnable
-            try (MockedConstruction<Thread> mockedThread = Mockito.mockConstruction(Thread.class,
-                    (mock, context) -> {
-                        Runnable originalRunnable = (Runnable) context.arguments().get(0);
-                        doAnswer(invocation -> {
-                            originalRunnable.run();
-                            mockRunnable.run();
-                            return null;
-                        }).when(mock).start();
-                    })) {
-
-                // create songs
-                try (MockedStatic<MusicPlayer> musicPlayerMock = Mockito.mockStatic(MusicPlayer.class)) {
-                    ArrayList<Song> songsList = new ArrayList<>();
-                    Song song = new Song(1, "Test Song", "Test Artist", "Test Album",
-                            Duration.ofSeconds(180), 1, 1, 0,
-                            LocalDateTime.now(), "/path/to/song");
-                    songsList.add(song);
-
-                    // Mock MusicPlayer.getNowPlayingList()
-                    musicPlayerMock.when(MusicPlayer::getNowPlayingList).thenReturn(songsList);
-
-                    Library.savePlayingList();
-                    verify(mockRunnable).run();
-
-                    // Verify the song was written to the XML file
-                    Document doc = DocumentBuilderFactory.newInstance()
-                            .newDocumentBuilder().parse(xmlFile);
-                    NodeList nodes = doc.getElementsByTagName("nowPlayingList").item(0).getChildNodes();
-                    boolean foundSongId = false;
-                    for (int i = 0; i < nodes.getLength(); i++) {
-                        Node node = nodes.item(i);
-                        if (node.getNodeType() == Node.ELEMENT_NODE && node.getTextContent().equals("1")) {
-                            foundSongId = true;
-                            break;
-                        }
+        void testSavePlayingListWritesOnTheLibraryWriter() throws Exception {
+            // create songs
+            try (MockedStatic<MusicPlayer> musicPlayerMock = Mockito.mockStatic(MusicPlayer.class)) {
+                ArrayList<Song> songsList = new ArrayList<>();
+                Song song = new Song(1, "Test Song", "Test Artist", "Test Album",
+                        Duration.ofSeconds(180), 1, 1, 0,
+                        LocalDateTime.now(), "/path/to/song");
+                songsList.add(song);
+
+                // Mock MusicPlayer.getNowPlayingList()
+                musicPlayerMock.when(MusicPlayer::getNowPlayingList).thenReturn(songsList);
+
+                Library.savePlayingList();
+                Library.awaitWrites();
+
+                // Verify the song was written to the XML file
+                Document doc = DocumentBuilderFactory.newInstance()
+                        .newDocumentBuilder().parse(xmlFile);
+                NodeList nodes = doc.getElementsByTagName("nowPlayingList").item(0).getChildNodes();
+                boolean foundSongId = false;
+                for (int i = 0; i < nodes.getLength(); i++) {
+                    Node node = nodes.item(i);
+                    if (node.getNodeType() == Node.ELEMENT_NODE
+                            && Arrays.equals(new int[] {1}, IdListCodec.decode(node.getTextContent()))) {
+                        foundSongId = true;
+                        break;
                     }
-                    assertTrue(foundSongId, "Song ID should be found in the XML");
                 }
+                assertTrue(foundSongId, "Song ID should be found in the XML");
             }
         }
     }
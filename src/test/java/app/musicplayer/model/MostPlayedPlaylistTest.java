@@ -3,14 +3,20 @@ package app.musicplayer.model;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import java.time.Duration;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.musicplayer.model.Library.SongOrder;
+import app.musicplayer.util.SortedIndex;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -46,7 +52,7 @@ public class MostPlayedPlaylistTest {
         }
 
         try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
-            mockedLibrary.when(Library::getSongs).thenReturn(FXCollections.observableArrayList(zeroPlayCountSongs));
+            mockedLibrary.when(() -> Library.getSongs(SongOrder.PLAY_COUNT)).thenReturn(byPlayCount(zeroPlayCountSongs));
 
             // getSongs() method should return an empty list
             ObservableList<Song> result = playlist.getSongs();
@@ -58,7 +64,7 @@ public class MostPlayedPlaylistTest {
     @Test
     public void testGetSongsWithPlayedSongs() {
         try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
-            mockedLibrary.when(Library::getSongs).thenReturn(FXCollections.observableArrayList(testSongs));
+            mockedLibrary.when(() -> Library.getSongs(SongOrder.PLAY_COUNT)).thenReturn(byPlayCount(testSongs));
 
             ObservableList<Song> result = playlist.getSongs();
 
@@ -80,7 +86,7 @@ public class MostPlayedPlaylistTest {
         }
 
         try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
-            mockedLibrary.when(Library::getSongs).thenReturn(FXCollections.observableArrayList(manySongs));
+            mockedLibrary.when(() -> Library.getSongs(SongOrder.PLAY_COUNT)).thenReturn(byPlayCount(manySongs));
 
             ObservableList<Song> result = playlist.getSongs();
 
@@ -93,6 +99,51 @@ public class MostPlayedPlaylistTest {
         }
     }
 
+    @Test
+    public void testPlayedSongIsReadFromThePlayCountOrderOfTheLibrary() {
+        SortedIndex<Song> order = byPlayCount(testSongs);
+        try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
+            mockedLibrary.when(() -> Library.getSongs(SongOrder.PLAY_COUNT)).thenReturn(order);
+            playlist.getSongs();
+
+            Song song = testSongs.get(0);
+            order.update(song, () -> song.playCountProperty().set(20));
+            ObservableList<Song> result = playlist.getSongs();
+
+            assertEquals(10, result.size());
+            assertSame(song, result.get(0));
+            assertEquals(9, result.get(1).getPlayCount());
+            mockedLibrary.verify(Library::getSongs, never());
+        }
+    }
+
+    @Test
+    public void testWindowCountsOnlyRecentPlays(@TempDir Path directory) {
+        PlayHistory history = new PlayHistory(directory, ZoneId.systemDefault());
+        long now = System.currentTimeMillis();
+        long day = 24L * 60 * 60 * 1000;
+        history.record(3, now, 180);
+        history.record(5, now - day, 180);
+        history.record(5, now - 2 * day, 180);
+        history.record(9, now - 30 * day, 180);
+
+        try (MockedStatic<Library> mockedLibrary = mockStatic(Library.class)) {
+            mockedLibrary.when(Library::getSongs).thenReturn(FXCollections.observableArrayList(testSongs));
+            mockedLibrary.when(Library::getPlayHistory).thenReturn(history);
+
+            playlist.setWindow(7);
+            ObservableList<Song> result = playlist.getSongs();
+
+            assertEquals(2, result.size());
+            assertSame(testSongs.get(5), result.get(0));
+            assertSame(testSongs.get(3), result.get(1));
+        }
+    }
+
+    private static SortedIndex<Song> byPlayCount(List<Song> songs) {
+        return new SortedIndex<>(songs, SongOrder.PLAY_COUNT.comparator(), null);
+    }
+
     private Song createSong(int id, String title, String artist, String album, int playCount) {
         return new Song(
                 id,
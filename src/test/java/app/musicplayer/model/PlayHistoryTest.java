@@ -0,0 +1,148 @@
+package app.musicplayer.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayHistoryTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPlaysAreRolledUpByDayWeekAndMonth() {
+        PlayHistory history = new PlayHistory(directory, ZONE);
+        // Wednesday 1 May 2024 and Thursday 2 May 2024.
+        history.record(3, millis(LocalDate.of(2024, 5, 1), 10), 200);
+        history.record(3, millis(LocalDate.of(2024, 5, 2), 11), 100);
+        history.record(7, millis(LocalDate.of(2024, 5, 2), 12), 60);
+
+        assertEquals(1, history.rollup(PlayHistory.Period.DAY, LocalDate.of(2024, 5, 1)).get(3).getPlays());
+        assertEquals(2, history.rollup(PlayHistory.Period.WEEK, LocalDate.of(2024, 4, 29)).get(3).getPlays());
+        assertEquals(300, history.rollup(PlayHistory.Period.MONTH, LocalDate.of(2024, 5, 1)).get(3).getSeconds());
+        assertTrue(history.rollup(PlayHistory.Period.MONTH, LocalDate.of(2024, 4, 1)).isEmpty());
+    }
+
+    @Test
+    void testRangeTotalsEqualCountingEveryPlay() {
+        PlayHistory history = new PlayHistory(directory, ZONE);
+        Random random = new Random(7);
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        int[] songs = new int[2000];
+        int[] days = new int[2000];
+        for (int i = 0; i < songs.length; i++) {
+            songs[i] = random.nextInt(20);
+            days[i] = i * 900 / songs.length;
+            history.record(songs[i], millis(start.plusDays(days[i]), random.nextInt(24)), 180);
+        }
+
+        for (int round = 0; round < 50; round++) {
+            int from = random.nextInt(900);
+            int to = from + random.nextInt(400);
+            Map<Integer, Integer> expected = new HashMap<>();
+            for (int i = 0; i < songs.length; i++) {
+                if (days[i] >= from && days[i] < to) {
+                    expected.merge(songs[i], 1, Integer::sum);
+                }
+            }
+
+            Map<Integer, PlayHistory.Totals> totals = history.songTotals(start.plusDays(from), start.plusDays(to));
+            assertEquals(expected.keySet(), totals.keySet());
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                assertEquals(entry.getValue().intValue(), totals.get(entry.getKey()).getPlays());
+            }
+        }
+    }
+
+    @Test
+    void testTopSongsAndTotalsByKey() {
+        PlayHistory history = new PlayHistory(directory, ZONE);
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        history.record(1, millis(day, 1), 100);
+        history.record(2, millis(day, 2), 100);
+        history.record(2, millis(day, 3), 100);
+        history.record(3, millis(day, 4), 300);
+        history.record(3, millis(day.minusDays(10), 4), 300);
+
+        assertEquals(Arrays.asList(3, 2, 1), history.topSongs(day.minusDays(30), day.plusDays(1), 5));
+        assertEquals(Arrays.asList(2, 3), history.topSongs(day, day.plusDays(1), 2));
+
+        Map<String, PlayHistory.Totals> byArtist = history.totalsBy(day, day.plusDays(1), id -> id == 1 ? null : "Artist " + (id % 2));
+        assertEquals(2, byArtist.get("Artist 0").getPlays());
+        assertEquals(300, byArtist.get("Artist 1").getSeconds());
+        assertEquals(2, byArtist.size());
+    }
+
+    @Test
+    void testHistoryIsReadBackAndCutOffPlaysAreDropped() throws Exception {
+        PlayHistory history = new PlayHistory(directory, ZONE);
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        history.record(1, millis(day, 1), 100);
+        history.record(100000, millis(day, 2), 240);
+
+        // A play cut off by a crash leaves the first byte of a song id with more bytes to follow.
+        Path segment = directory.resolve("plays-2024-05.bin");
+        long length = Files.size(segment);
+        Files.write(segment, new byte[] { (byte) 0x85 }, StandardOpenOption.APPEND);
+
+        PlayHistory reopened = new PlayHistory(directory, ZONE);
+        assertEquals(length, Files.size(segment));
+        assertEquals(Arrays.asList(100000, 1), reopened.topSongs(day, day.plusDays(1), 5));
+
+        reopened.record(1, millis(day, 3), 100);
+        PlayHistory again = new PlayHistory(directory, ZONE);
+        assertEquals(2, again.rollup(PlayHistory.Period.DAY, day).get(1).getPlays());
+        assertEquals(240, again.rollup(PlayHistory.Period.DAY, day).get(100000).getSeconds());
+    }
+
+    @Test
+    void testPlaysOutOfMonthOrderAreReadBackOnTheirDays() {
+        PlayHistory history = new PlayHistory(directory, ZONE);
+        history.record(1, millis(LocalDate.of(2024, 5, 3), 10), 100);
+        history.record(2, millis(LocalDate.of(2024, 4, 20), 10), 100);
+        history.record(3, millis(LocalDate.of(2024, 5, 10), 10), 100);
+        history.record(4, millis(LocalDate.of(2024, 4, 25), 10), 100);
+
+        PlayHistory reopened = new PlayHistory(directory, ZONE);
+        assertEquals(1, reopened.rollup(PlayHistory.Period.DAY, LocalDate.of(2024, 5, 3)).get(1).getPlays());
+        assertEquals(1, reopened.rollup(PlayHistory.Period.DAY, LocalDate.of(2024, 4, 20)).get(2).getPlays());
+        assertEquals(1, reopened.rollup(PlayHistory.Period.DAY, LocalDate.of(2024, 5, 10)).get(3).getPlays());
+        assertEquals(1, reopened.rollup(PlayHistory.Period.DAY, LocalDate.of(2024, 4, 25)).get(4).getPlays());
+
+        // Appending to the segment of an earlier month after reopening continues from its last play.
+        reopened.record(5, millis(LocalDate.of(2024, 4, 28), 10), 100);
+        PlayHistory again = new PlayHistory(directory, ZONE);
+        assertEquals(1, again.rollup(PlayHistory.Period.DAY, LocalDate.of(2024, 4, 28)).get(5).getPlays());
+        assertEquals(3, again.rollup(PlayHistory.Period.MONTH, LocalDate.of(2024, 4, 1)).size());
+    }
+
+    @Test
+    void testDeleteRemovesTheHistory() throws Exception {
+        PlayHistory history = new PlayHistory(directory.resolve("history"), ZONE);
+        history.record(1, millis(LocalDate.of(2024, 5, 3), 10), 100);
+        history.record(1, millis(LocalDate.of(2024, 4, 3), 10), 100);
+
+        PlayHistory.delete(directory.resolve("history"));
+        assertFalse(Files.exists(directory.resolve("history")));
+        assertTrue(new PlayHistory(directory.resolve("history"), ZONE).rollup(PlayHistory.Period.MONTH, LocalDate.of(2024, 5, 1)).isEmpty());
+        PlayHistory.delete(directory.resolve("history"));
+    }
+
+    private static long millis(LocalDate day, int hour) {
+        return day.atTime(hour, 0).atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,69 @@
+package app.musicplayer.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayStatsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWrittenSlotsAreReadBack() throws Exception {
+        PlayStats stats = new PlayStats(directory.resolve("playstats.bin"));
+        stats.write(0, 3, 1000L);
+        stats.write(42, 7, 1714557600000L);
+
+        assertEquals(3, stats.getPlayCount(0));
+        assertEquals(1000L, stats.getPlayTime(0));
+        assertEquals(7, stats.getPlayCount(42));
+        assertEquals(1714557600000L, stats.getPlayTime(42));
+        assertEquals(0, stats.getPlayCount(41));
+        assertEquals(0L, stats.getPlayTime(41));
+    }
+
+    @Test
+    void testFileGrowsForIdsBeyondTheLastSlot() throws Exception {
+        Path file = directory.resolve("playstats.bin");
+        PlayStats stats = new PlayStats(file);
+        long size = Files.size(file);
+        assertEquals(0, stats.getPlayCount(50000));
+
+        stats.write(50000, 2, 5L);
+        stats.write(1, 1, 4L);
+
+        assertTrue(Files.size(file) > size);
+        assertEquals(2, stats.getPlayCount(50000));
+        assertEquals(1, stats.getPlayCount(1));
+    }
+
+    @Test
+    void testSlotsAndMigratedFlagSurviveReopening() throws Exception {
+        Path file = directory.resolve("playstats.bin");
+        PlayStats stats = new PlayStats(file);
+        assertFalse(stats.isMigrated());
+        stats.write(5, 9, 123L);
+        stats.write(3000, 1, 456L);
+        stats.setMigrated();
+
+        PlayStats reopened = new PlayStats(file);
+        assertTrue(reopened.isMigrated());
+        assertEquals(9, reopened.getPlayCount(5));
+        assertEquals(123L, reopened.getPlayTime(5));
+        assertEquals(1, reopened.getPlayCount(3000));
+    }
+
+    @Test
+    void testOtherFilesAreRejected() throws Exception {
+        Path file = directory.resolve("playstats.bin");
+        Files.write(file, "not a play statistics file".getBytes());
+
+        assertThrows(IOException.class, () -> new PlayStats(file));
+    }
+}
@@ -3,32 +3,24 @@ package app.musicplayer.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathFactory;
+import java.io.File;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import app.musicplayer.util.IdListCodec;
 import app.musicplayer.util.Resources;
 import javafx.collections.ObservableList;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class PlaylistTest {
@@ -37,39 +29,6 @@ public class PlaylistTest {
     private ArrayList<Song> songs;
     private Song mockSong;
 
-    @Mock
-    private DocumentBuilderFactory mockDocFactory;
-
-    @Mock
-    private DocumentBuilder mockDocBuilder;
-
-    @Mock
-    private Document mockDoc;
-
-    @Mock
-    private XPathFactory mockXPathFactory;
-
-    @Mock
-    private XPath mockXPath;
-
-    @Mock
-    private XPathExpression mockExpr;
-
-    @Mock
-    private NodeList mockNodeList;
-
-    @Mock
-    private Node mockNode;
-
-    @Mock
-    private Element mockElement;
-
-    @Mock
-    private TransformerFactory mockTransformerFactory;
-
-    @Mock
-    private Transformer mockTransformer;
-
     @BeforeEach
     public void setUp() {
         songs = new ArrayList<>();
@@ -120,10 +79,11 @@ public class PlaylistTest {
     }
 
     @Test
-    public void testAddSongWhenSongNotInPlaylist() throws Exception {
+    public void testAddSongWhenSongNotInPlaylist(@TempDir Path directory) throws Exception {
         // Create a new song not in the playlist
         Song newSong = new Song(2, "New Song", "Test Artist", "Test Album",
                 Duration.ofSeconds(180), 1, 1, 0, LocalDateTime.now(), "test/location");
+        Path xmlFile = writeLibrary(directory);
 
         // Use reflection to access and modify the JAR static field
         Field jarField = Resources.class.getDeclaredField("JAR");
@@ -132,41 +92,52 @@ public class PlaylistTest {
         String originalValue = (String) jarField.get(null);
 
         try {
-            jarField.set(null, "test/path/");
+            jarField.set(null, directory + File.separator);
 
-            // Mock the XML document
-            try (MockedStatic<DocumentBuilderFactory> docFactoryMockedStatic = Mockito.mockStatic(DocumentBuilderFactory.class);
-                 MockedStatic<XPathFactory> xPathFactoryMockedStatic = Mockito.mockStatic(XPathFactory.class);
-                 MockedStatic<TransformerFactory> transformerFactoryMockedStatic = Mockito.mockStatic(TransformerFactory.class)) {
+            playlist.addSong(newSong);
 
-                docFactoryMockedStatic.when(DocumentBuilderFactory::newInstance).thenReturn(mockDocFactory);
-                when(mockDocFactory.newDocumentBuilder()).thenReturn(mockDocBuilder);
-                when(mockDocBuilder.parse("test/path/library.xml")).thenReturn(mockDoc);
+            // Verify song was added to the internal list
+            assertEquals(2, playlist.getSongs().size());
+            assertTrue(playlist.getSongs().contains(newSong));
 
-                xPathFactoryMockedStatic.when(XPathFactory::newInstance).thenReturn(mockXPathFactory);
-                when(mockXPathFactory.newXPath()).thenReturn(mockXPath);
-                when(mockXPath.compile(anyString())).thenReturn(mockExpr);
-                when(mockExpr.evaluate(mockDoc, XPathConstants.NODESET)).thenReturn(mockNodeList);
-                when(mockNodeList.item(0)).thenReturn(mockNode);
+            // Verify the IDs of both songs were written
+            Library.awaitWrites();
+            assertArrayEquals(new int[] {1, 2}, savedSongIds(xmlFile));
+        } finally {
+            jarField.set(null, originalValue);
+        }
+    }
 
-                when(mockDoc.createElement("songId")).thenReturn(mockElement);
+    @Test
+    public void testMissingSongsAreLeftOut() {
+        ArrayList<Song> withMissing = new ArrayList<>(Arrays.asList(null, mockSong, null));
+        Playlist playlist = new Playlist(1, "Test Playlist", withMissing);
 
-                transformerFactoryMockedStatic.when(TransformerFactory::newInstance).thenReturn(mockTransformerFactory);
-                when(mockTransformerFactory.newTransformer()).thenReturn(mockTransformer);
+        assertEquals(Arrays.asList(mockSong), playlist.getSongs());
+        assertTrue(playlist.contains(mockSong));
+    }
 
-                playlist.addSong(newSong);
+    @Test
+    public void testChangesQueuedTogetherAreSavedInTheirLastOrder(@TempDir Path directory) throws Exception {
+        Song second = new Song(2, "Second", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 2, 1, 0, LocalDateTime.now(), "test/location");
+        Song third = new Song(3, "Third", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 3, 1, 0, LocalDateTime.now(), "test/location");
+        Path xmlFile = writeLibrary(directory);
 
-                // Verify song was added to the internal list
-                assertEquals(2, playlist.getSongs().size());
-                assertTrue(playlist.getSongs().contains(newSong));
+        java.lang.reflect.Field jarField = Resources.class.getDeclaredField("JAR");
+        jarField.setAccessible(true);
+        String originalValue = (String) jarField.get(null);
 
-                // Verify the XML operations were performed
-                verify(mockXPath).compile("/library/playlists/playlist[@id=\"1\"]");
-                verify(mockDoc).createElement("songId");
-                verify(mockElement).setTextContent("2");  // ID of the new song
-                verify(mockNode).appendChild(mockElement);
-                verify(mockTransformer).transform(any(DOMSource.class), any(StreamResult.class));
-            }
+        try {
+            jarField.set(null, directory + File.separator);
+            playlist.addSong(second);
+            playlist.addSong(third);
+            playlist.moveSong(3, 0);
+            playlist.removeSong(1);
+
+            Library.awaitWrites();
+            assertArrayEquals(new int[] {3, 2}, savedSongIds(xmlFile));
         } finally {
             jarField.set(null, originalValue);
         }
@@ -226,4 +197,126 @@ public class PlaylistTest {
         // No song should be removed
         assertEquals(1, playlist.getSongs().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAddSongsSkipsDuplicatesAndWritesOnce(@TempDir Path directory) throws Exception {
+        Song second = new Song(2, "Second", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 2, 1, 0, LocalDateTime.now(), "test/location");
+        Song third = new Song(3, "Third", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 3, 1, 0, LocalDateTime.now(), "test/location");
+        Path xmlFile = writeLibrary(directory);
+
+        java.lang.reflect.Field jarField = Resources.class.getDeclaredField("JAR");
+        jarField.setAccessible(true);
+        String originalValue = (String) jarField.get(null);
+
+        try {
+            jarField.set(null, directory + File.separator);
+
+            assertEquals(2, playlist.addSongs(Arrays.asList(mockSong, second, third, second)));
+            assertEquals(Arrays.asList(mockSong, second, third), playlist.getSongs());
+            Library.awaitWrites();
+            assertArrayEquals(new int[] {1, 2, 3}, savedSongIds(xmlFile));
+
+            assertEquals(0, playlist.addSongs(Arrays.asList(second, third)));
+        } finally {
+            jarField.set(null, originalValue);
+        }
+    }
+
+    @Test
+    public void testRemoveSongsRemovesFromListAndXml(@TempDir Path directory) throws Exception {
+        Song second = new Song(2, "Second", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 2, 1, 0, LocalDateTime.now(), "test/location");
+        Song missing = new Song(9, "Missing", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 9, 1, 0, LocalDateTime.now(), "test/location");
+        Path xmlFile = writeLibrary(directory);
+
+        java.lang.reflect.Field jarField = Resources.class.getDeclaredField("JAR");
+        jarField.setAccessible(true);
+        String originalValue = (String) jarField.get(null);
+
+        try {
+            jarField.set(null, directory + File.separator);
+            playlist.addSongs(Arrays.asList(second));
+
+            assertEquals(1, playlist.removeSongs(Arrays.asList(mockSong, missing)));
+            assertEquals(Arrays.asList(second), playlist.getSongs());
+            Library.awaitWrites();
+            assertArrayEquals(new int[] {2}, savedSongIds(xmlFile));
+
+            // A removed song can be added again.
+            assertEquals(1, playlist.addSongs(Arrays.asList(mockSong)));
+        } finally {
+            jarField.set(null, originalValue);
+        }
+    }
+
+    @Test
+    public void testRemoveSongByIdSavesThePlaylist(@TempDir Path directory) throws Exception {
+        Song second = new Song(2, "Second", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 2, 1, 0, LocalDateTime.now(), "test/location");
+        Path xmlFile = writeLibrary(directory);
+
+        java.lang.reflect.Field jarField = Resources.class.getDeclaredField("JAR");
+        jarField.setAccessible(true);
+        String originalValue = (String) jarField.get(null);
+
+        try {
+            jarField.set(null, directory + File.separator);
+            playlist.addSongs(Arrays.asList(second));
+
+            playlist.removeSong(1);
+            assertEquals(Arrays.asList(second), playlist.getSongs());
+            Library.awaitWrites();
+            assertArrayEquals(new int[] {2}, savedSongIds(xmlFile));
+        } finally {
+            jarField.set(null, originalValue);
+        }
+    }
+
+    @Test
+    public void testMoveSongSavesTheNewOrder(@TempDir Path directory) throws Exception {
+        Song second = new Song(2, "Second", "Test Artist", "Test Album",
+                Duration.ofSeconds(180), 2, 1, 0, LocalDateTime.now(), "test/location");
+        Path xmlFile = writeLibrary(directory);
+
+        java.lang.reflect.Field jarField = Resources.class.getDeclaredField("JAR");
+        jarField.setAccessible(true);
+        String originalValue = (String) jarField.get(null);
+
+        try {
+            jarField.set(null, directory + File.separator);
+            playlist.addSongs(Arrays.asList(second));
+
+            playlist.moveSong(2, 0);
+            assertEquals(Arrays.asList(second, mockSong), playlist.getSongs());
+            Library.awaitWrites();
+            assertArrayEquals(new int[] {2, 1}, savedSongIds(xmlFile));
+        } finally {
+            jarField.set(null, originalValue);
+        }
+    }
+
+    // Song ids saved for the playlist, which replace the single songId elements of the written library.
+    private static int[] savedSongIds(Path xmlFile) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(xmlFile.toFile());
+        assertEquals(0, doc.getElementsByTagName("songId").getLength());
+        return IdListCodec.decode(doc.getElementsByTagName("songIds").item(0).getTextContent());
+    }
+
+    private static Path writeLibrary(Path directory) throws Exception {
+        String xmlContent =
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                        "<library>\n" +
+                        "  <playlists>\n" +
+                        "    <playlist id=\"1\" title=\"Test Playlist\">\n" +
+                        "      <songId>1</songId>\n" +
+                        "    </playlist>\n" +
+                        "  </playlists>\n" +
+                        "</library>";
+        Path xmlFile = directory.resolve("library.xml");
+        Files.write(xmlFile, xmlContent.getBytes());
+        return xmlFile;
+    }
+}
@@ -157,4 +157,27 @@ public class RecentlyPlayedPlaylistTest {
             assertEquals(0, result.size());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPlayedSongMovesToTheTopWithoutRescanningTheLibrary() {
+        try (MockedStatic<Library> mockedLibrary = Mockito.mockStatic(Library.class)) {
+            mockedLibrary.when(Library::getSongs).thenReturn(FXCollections.observableArrayList(testSongs));
+            ObservableList<Song> before = playlist.getSongs();
+            Song oldest = before.get(before.size() - 1);
+
+            playlist.songPlayed(oldest);
+            ObservableList<Song> after = playlist.getSongs();
+
+            assertEquals(100, after.size());
+            assertSame(oldest, after.get(0));
+            assertEquals(before.subList(0, 99), after.subList(1, 100));
+
+            Song unplayed = testSongs.get(0);
+            playlist.songPlayed(unplayed);
+            after = playlist.getSongs();
+            assertSame(unplayed, after.get(0));
+            assertFalse(after.contains(before.get(98)));
+            mockedLibrary.verify(Library::getSongs, Mockito.times(1));
+        }
+    }
+}
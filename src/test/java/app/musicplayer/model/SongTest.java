@@ -12,6 +12,10 @@ import java.io.File;
 import java.lang.reflect.Field;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,6 +76,24 @@ class SongTest {
         assertEquals("testfile", songWithNullTitle.getTitle());
     }
 
+    @Test
+    void testSongsWithNullTagsCanBeSorted() {
+        Song untagged = new Song(2, null, null, null, length,
+                trackNumber, discNumber, playCount,
+                playDate, "/music/untagged.mp3");
+
+        assertNotNull(untagged.getTitleKey());
+        assertNotNull(untagged.getArtistKey());
+        assertNotNull(untagged.getAlbumKey());
+        for (Library.SongOrder order : Library.SongOrder.values()) {
+            List<Song> songs = new ArrayList<>(Arrays.asList(untagged, song));
+            assertDoesNotThrow(() -> songs.sort(order.comparator()), order.name());
+        }
+        List<Song> byArtist = new ArrayList<>(Arrays.asList(untagged, song));
+        byArtist.sort(Library.SongOrder.ARTIST.comparator());
+        assertEquals(Arrays.asList(song, untagged), byArtist);
+    }
+
     @Test
     void testConstructorWithNullAlbum() {
         Song songWithNullAlbum = new Song(id, title, artist, null, length,
@@ -262,18 +284,22 @@ class SongTest {
         try {
             jarField.set(null, tempDir + File.separator);
             song.played();
-            Thread.sleep(500);
             // Verify memory updates
             assertEquals(initialPlayCount + 1, song.getPlayCount());
-            // Read back the XML file to verify it was updated
+            // Read back the play statistics file to verify it was updated
+            PlayStats stats = new PlayStats(tempDir.resolve("playstats.bin"));
+            assertEquals(initialPlayCount + 1, stats.getPlayCount(id));
+            assertEquals(song.getPlayDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                    stats.getPlayTime(id));
+            // The XML file is no longer rewritten on every play
             String updatedXml = new String(Files.readAllBytes(xmlFile.toPath()));
-            assertTrue(updatedXml.contains("<playCount>" + (initialPlayCount + 1) + "</playCount>"));
-            assertTrue(updatedXml.contains("<playDate>" + song.getPlayDate().toString() + "</playDate>"));
+            assertTrue(updatedXml.contains("<playCount>" + playCount + "</playCount>"));
 
         } finally {
             jarField.set(null, originalValue);
             // Clean up
             Files.deleteIfExists(xmlFile.toPath());
+            Files.deleteIfExists(tempDir.resolve("playstats.bin"));
             Files.deleteIfExists(tempDir);
         }
     }
@@ -0,0 +1,217 @@
+package app.musicplayer.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtworkFetcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private String base;
+    private final AtomicInteger infoRequests = new AtomicInteger();
+    private final AtomicInteger imageRequests = new AtomicInteger();
+    private volatile int failuresBeforeSuccess;
+    private volatile int failureStatus = 503;
+    private volatile boolean hasImage = true;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        server.createContext("/api", exchange -> {
+            infoRequests.incrementAndGet();
+            if (failuresBeforeSuccess > 0) {
+                failuresBeforeSuccess--;
+                respond(exchange, failureStatus, new byte[0]);
+                return;
+            }
+            String image = hasImage ? base + "/image.png" : "";
+            String xml = "<lfm status=\"ok\"><artist>"
+                    + "<image size=\"small\">" + base + "/small.png</image>"
+                    + "<image size=\"extralarge\">" + image + "</image>"
+                    + "</artist></lfm>";
+            respond(exchange, 200, xml.getBytes(StandardCharsets.UTF_8));
+        });
+
+        server.createContext("/image.png", exchange -> {
+            imageRequests.incrementAndGet();
+            BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            respond(exchange, 200, out.toByteArray());
+        });
+
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private ArtworkFetcher createFetcher() {
+        return new ArtworkFetcher(base + "/api?", "key", tempDir.toFile(), 4, 0, 1);
+    }
+
+    @Test
+    void testFetchArtistImageWritesCacheFile() throws Exception {
+        ArtworkFetcher fetcher = createFetcher();
+
+        File file = fetcher.fetchArtistImage("Test Artist").get(5, TimeUnit.SECONDS);
+
+        assertNotNull(file);
+        assertEquals(fetcher.getArtistImageFile("Test Artist"), file);
+        assertTrue(file.exists());
+        assertNotNull(ImageIO.read(file));
+        fetcher.shutdown();
+    }
+
+    @Test
+    void testFetchAlbumArtworkWritesToAlbumsDirectory() throws Exception {
+        ArtworkFetcher fetcher = createFetcher();
+
+        File file = fetcher.fetchAlbumArtwork("Test Artist", "Test/Album").get(5, TimeUnit.SECONDS);
+
+        assertNotNull(file);
+        assertTrue(file.exists());
+        assertEquals(new File(tempDir.toFile(), "albums"), file.getParentFile());
+        assertEquals("Test Artist - Test_Album.jpg", file.getName());
+        fetcher.shutdown();
+    }
+
+    @Test
+    void testConcurrentRequestsAreDeduplicated() throws Exception {
+        ArtworkFetcher fetcher = new ArtworkFetcher(base + "/api?", "key", tempDir.toFile(), 4, 100, 1);
+
+        CompletableFuture<File> first = fetcher.fetchArtistImage("Test Artist");
+        CompletableFuture<File> second = fetcher.fetchArtistImage("Test Artist");
+
+        assertSame(first, second);
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(1, infoRequests.get());
+        assertEquals(1, imageRequests.get());
+        fetcher.shutdown();
+    }
+
+    @Test
+    void testLedgerSkipsFetchedImagesAcrossInstances() throws Exception {
+        ArtworkFetcher fetcher = createFetcher();
+        fetcher.fetchArtistImage("Test Artist").get(5, TimeUnit.SECONDS);
+        fetcher.shutdown();
+
+        ArtworkFetcher reopened = createFetcher();
+        assertTrue(reopened.isFetched("artist:Test Artist"));
+
+        File file = reopened.fetchArtistImage("Test Artist").get(5, TimeUnit.SECONDS);
+
+        assertNotNull(file);
+        assertEquals(1, infoRequests.get());
+        assertTrue(Files.readAllLines(tempDir.resolve("fetched.txt")).contains("artist:Test Artist"));
+        reopened.shutdown();
+    }
+
+    @Test
+    void testMissingImageIsRecordedWithoutFile() throws Exception {
+        hasImage = false;
+        ArtworkFetcher fetcher = createFetcher();
+
+        File file = fetcher.fetchArtistImage("Unknown").get(5, TimeUnit.SECONDS);
+
+        assertNull(file);
+        assertTrue(fetcher.isFetched("artist:Unknown"));
+        assertEquals(0, imageRequests.get());
+        fetcher.shutdown();
+    }
+
+    @Test
+    void testServerErrorsAreRetried() throws Exception {
+        failuresBeforeSuccess = 2;
+        ArtworkFetcher fetcher = createFetcher();
+
+        File file = fetcher.fetchArtistImage("Test Artist").get(5, TimeUnit.SECONDS);
+
+        assertNotNull(file);
+        assertEquals(3, infoRequests.get());
+        fetcher.shutdown();
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() throws Exception {
+        failuresBeforeSuccess = 1;
+        failureStatus = 403;
+        ArtworkFetcher fetcher = createFetcher();
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> fetcher.fetchArtistImage("Test Artist").get(5, TimeUnit.SECONDS));
+
+        assertTrue(ex.getCause() instanceof IOException);
+        assertEquals(1, infoRequests.get());
+        assertFalse(fetcher.isFetched("artist:Test Artist"));
+        fetcher.shutdown();
+    }
+
+    @Test
+    void testNotFoundIsRecordedAcrossInstances() throws Exception {
+        failuresBeforeSuccess = 1;
+        failureStatus = 404;
+        ArtworkFetcher fetcher = createFetcher();
+
+        assertNull(fetcher.fetchArtistImage("Unknown").get(5, TimeUnit.SECONDS));
+        assertTrue(fetcher.isFetched("artist:Unknown"));
+        fetcher.shutdown();
+
+        ArtworkFetcher reopened = createFetcher();
+        assertNull(reopened.fetchArtistImage("Unknown").get(5, TimeUnit.SECONDS));
+        assertEquals(1, infoRequests.get());
+        reopened.shutdown();
+    }
+
+    @Test
+    void testRequestsToSameHostAreSpacedOut() throws Exception {
+        ArtworkFetcher fetcher = new ArtworkFetcher(base + "/api?", "key", tempDir.toFile(), 4, 50, 1);
+
+        long start = System.nanoTime();
+        CompletableFuture.allOf(
+                fetcher.fetchArtistImage("First"),
+                fetcher.fetchArtistImage("Second")).get(5, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Two info requests and two image requests share one host, so at least three intervals pass.
+        assertTrue(elapsed >= 150, "elapsed " + elapsed + "ms");
+        fetcher.shutdown();
+    }
+}
@@ -0,0 +1,70 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollationTest {
+
+    @Test
+    void testRemoveArticle() {
+        assertEquals("Beatles", Collation.removeArticle("The Beatles"));
+        assertEquals("Perfect Circle", Collation.removeArticle("A Perfect Circle"));
+        assertEquals("Unkindness of Ravens", Collation.removeArticle("An Unkindness of Ravens"));
+        assertEquals("Theory", Collation.removeArticle("Theory"));
+        assertEquals("Anthem", Collation.removeArticle("Anthem"));
+        assertEquals("The", Collation.removeArticle("The"));
+    }
+
+    @Test
+    void testCompareIgnoresArticleCaseAndAccents() {
+        assertTrue(Collation.compare("The Beatles", "Coldplay") < 0);
+        assertTrue(Collation.compare("abba", "Beck") < 0);
+        assertEquals(0, Collation.compare("Beyonce", "Beyonc\u00e9"));
+        assertEquals(0, Collation.compare("The xx", "XX"));
+    }
+
+    @Test
+    void testNullsSortFirstLikeEmptyTitles() {
+        assertTrue(Collation.compare(null, "Abba") < 0);
+        assertTrue(Collation.compare("Abba", null) > 0);
+        assertEquals(0, Collation.compare(null, null));
+        assertEquals(0, Collation.compare(null, ""));
+    }
+
+    @Test
+    void testCompareAgreesWithKeys() {
+        String[] titles = { null, "", "The Beatles", "abba", "Beyonc\u00e9", "2Pac", "-hyphen", "\u00c6on" };
+        for (String first : titles) {
+            for (String second : titles) {
+                assertEquals(Integer.signum(Collation.key(first).compareTo(Collation.key(second))),
+                        Integer.signum(Collation.compare(first, second)), first + " " + second);
+            }
+        }
+    }
+
+    @Test
+    void testKeysAreCached() {
+        assertSame(Collation.key("Muse"), Collation.key("Muse"));
+    }
+
+    @Test
+    void testNullKeyIsTheEmptyKey() {
+        assertNotNull(Collation.key(null));
+        assertEquals(0, Collation.key(null).compareTo(Collation.key("")));
+        assertTrue(Collation.key(null).compareTo(Collation.key("Abba")) < 0);
+    }
+
+    @Test
+    void testTitlesSortBetweenTheKeysOfTheirLetter() {
+        String[] titles = { "The Beatles", "beck", "\u00c9dith Piaf", "-hyphen", "\u00c6on", "\u00c4rzte", "Zzzz" };
+        char[] letters = { 'B', 'B', 'E', 'H', 'A', 'A', 'Z' };
+        for (int i = 0; i < titles.length; i++) {
+            assertTrue(Collation.letterStart(letters[i]).compareTo(Collation.key(titles[i])) <= 0, titles[i]);
+            assertTrue(Collation.letterEnd(letters[i]).compareTo(Collation.key(titles[i])) > 0, titles[i]);
+            assertTrue(Collation.letterEnd((char) (letters[i] - 1)).compareTo(Collation.key(titles[i])) <= 0, titles[i]);
+        }
+        assertTrue(Collation.letterStart('A').compareTo(Collation.key("")) > 0);
+        assertTrue(Collation.letterStart('A').compareTo(Collation.key("2Pac")) > 0);
+    }
+}
@@ -0,0 +1,78 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    @Test
+    void testAddRemoveContains() {
+        CompressedBitmap bitmap = CompressedBitmap.of(5, 70000, 3);
+
+        assertArrayEquals(new int[] { 3, 5, 70000 }, bitmap.toArray());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(4));
+        assertFalse(bitmap.add(5));
+        assertTrue(bitmap.remove(70000));
+        assertFalse(bitmap.remove(70000));
+        assertEquals(2, bitmap.cardinality());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    @Test
+    void testDenseChunksSwitchToBitmapsAndBack() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i <= 4096; i++) {
+            bitmap.add(i * 2);
+        }
+        assertTrue(bitmap.isBitmapChunk(0));
+        assertEquals(4097, bitmap.cardinality());
+
+        bitmap.remove(0);
+        assertFalse(bitmap.isBitmapChunk(0));
+        assertEquals(4096, bitmap.cardinality());
+        assertTrue(bitmap.contains(8192));
+    }
+
+    @Test
+    void testAndOrEqualToSets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // Mixes sparse and dense chunks, so every pair of container kinds is combined.
+            int range = round % 2 == 0 ? 300000 : 70000;
+            int count = random.nextInt(20000);
+            TreeSet<Integer> first = new TreeSet<>();
+            TreeSet<Integer> second = new TreeSet<>();
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            for (int i = 0; i < count; i++) {
+                int x = random.nextInt(range);
+                int y = random.nextInt(range / 4);
+                first.add(x);
+                a.add(x);
+                second.add(y);
+                b.add(y);
+            }
+
+            TreeSet<Integer> intersection = new TreeSet<>(first);
+            intersection.retainAll(second);
+            TreeSet<Integer> union = new TreeSet<>(first);
+            union.addAll(second);
+
+            assertArrayEquals(toArray(intersection), a.and(b).toArray());
+            assertEquals(intersection.size(), a.andCardinality(b));
+            assertEquals(intersection.size(), b.andCardinality(a));
+            assertArrayEquals(toArray(union), a.or(b).toArray());
+            assertArrayEquals(toArray(first), a.toArray());
+            assertEquals(a, a.copy());
+        }
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,124 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyIndexTest {
+
+    private static final List<String> TITLES = Arrays.asList(
+            "The Beatles", "Abbey Road", "Beat It", "Don't Stop Me Now", "Caf\u00e9 del Mar", "Yellow Submarine");
+
+    @Test
+    void testTypingMistakesAreFound() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(TITLES, Function.identity());
+
+        assertEquals(Collections.singletonList("The Beatles"), index.search("beetles ", 3));
+        assertEquals(Collections.singletonList("Yellow Submarine"), index.search("yelow submarien ", 3));
+        assertEquals(Collections.singletonList("Abbey Road"), index.search("abey rod ", 3));
+    }
+
+    @Test
+    void testTitlesAreNormalized() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(TITLES, Function.identity());
+
+        assertEquals("CAFE DEL MAR", FuzzyIndex.normalize("Caf\u00e9  del-Mar!"));
+        assertEquals(Collections.singletonList("Caf\u00e9 del Mar"), index.search("cafe ", 3));
+        assertEquals(Collections.singletonList("Don't Stop Me Now"), index.search("dont stop ", 3));
+    }
+
+    @Test
+    void testLastWordMayBeIncomplete() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(TITLES, Function.identity());
+
+        assertEquals(Collections.singletonList("The Beatles"), index.search("the beetl", 3));
+        assertTrue(index.search("the beetl ", 3).isEmpty());
+    }
+
+    @Test
+    void testClosestMatchesComeFirst() {
+        List<String> titles = Arrays.asList("Beatles", "Beadles", "Beetles", "Bottles");
+        FuzzyIndex<String> index = new FuzzyIndex<>(titles, Function.identity());
+
+        assertEquals(Arrays.asList("Beetles", "Beatles", "Beadles"), index.search("beetles ", 3));
+        assertEquals(Collections.singletonList("Beetles"), index.search("beetles ", 1));
+        assertTrue(index.search("beetles ", 0).isEmpty());
+    }
+
+    @Test
+    void testShortWordsMustBeExact() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(TITLES, Function.identity());
+
+        assertEquals(Collections.singletonList("Beat It"), index.search("beat it ", 3));
+        assertTrue(index.search("beat id ", 3).isEmpty());
+        assertTrue(index.search("", 3).isEmpty());
+    }
+
+    @Test
+    void testDistance() {
+        assertEquals(1, FuzzyIndex.distance("BEETLES", "BEATLES", false, 2));
+        assertEquals(3, FuzzyIndex.distance("ABC", "XYZ", false, 2));
+        assertEquals(0, FuzzyIndex.distance("BEAT", "BEATLES", true, 2));
+        assertEquals(3, FuzzyIndex.distance("BEAT", "BEATLES", false, 2));
+    }
+
+    @Test
+    void testMatchesEqualToComparingAllWords() {
+        List<String> titles = new ArrayList<>();
+        String[] words = { "Love", "Glove", "Lover", "Story", "Stori", "Day", "Dey", "Night" };
+        for (int i = 0; i < 500; i++) {
+            titles.add(words[i % 8] + " " + words[(i / 8) % 8] + (i % 3 == 0 ? "" : " " + words[(i / 64) % 8]));
+        }
+        FuzzyIndex<String> index = new FuzzyIndex<>(titles, Function.identity());
+
+        for (String text : new String[] { "lvoe ", "stroy", "love day ", "nite", "glov stori ", "dya " }) {
+            assertEquals(bruteForce(titles, text), index.search(text, titles.size()), text);
+        }
+    }
+
+    @Test
+    void testCancelledSearchStops() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(TITLES, Function.identity());
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        assertThrows(CancellationException.class, () -> index.search("beetles", 3, token));
+    }
+
+    // Compares every word of the text with every word of every title.
+    private static List<String> bruteForce(List<String> titles, String text) {
+        String[] query = FuzzyIndex.normalize(text).split(" ");
+        boolean typing = !text.endsWith(" ");
+        List<List<String>> ranks = new ArrayList<>();
+        for (int i = 0; i <= 2 * query.length; i++) {
+            ranks.add(new ArrayList<>());
+        }
+        for (String title : titles) {
+            int total = 0;
+            for (int i = 0; i < query.length && total >= 0; i++) {
+                int maximum = query[i].length() < 3 ? 0 : query[i].length() < 6 ? 1 : 2;
+                int fewest = -1;
+                for (String word : FuzzyIndex.normalize(title).split(" ")) {
+                    int distance = FuzzyIndex.distance(query[i], word, typing && i == query.length - 1, maximum);
+                    if (distance <= maximum && (fewest < 0 || distance < fewest)) {
+                        fewest = distance;
+                    }
+                }
+                total = fewest < 0 ? -1 : total + fewest;
+            }
+            if (total >= 0) {
+                ranks.get(total).add(title);
+            }
+        }
+        List<String> results = new ArrayList<>();
+        ranks.forEach(results::addAll);
+        return results;
+    }
+}
@@ -0,0 +1,60 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdListCodecTest {
+
+    @Test
+    void testListsRoundTrip() {
+        int[][] lists = {
+                {},
+                {0},
+                {7, 3, 3, 12},
+                {5, 6, 7, 1, 2, 3, 100},
+                {Integer.MAX_VALUE, Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE - 1, Integer.MAX_VALUE}
+        };
+        for (int[] ids : lists) {
+            assertArrayEquals(ids, IdListCodec.decode(IdListCodec.encode(ids)));
+            assertArrayEquals(ids, IdListCodec.decode(IdListCodec.encodeToString(ids)));
+        }
+
+        Random random = new Random(3);
+        int[] shuffled = new int[2000];
+        for (int i = 0; i < shuffled.length; i++) {
+            shuffled[i] = random.nextInt(50000);
+        }
+        assertArrayEquals(shuffled, IdListCodec.decode(IdListCodec.encode(shuffled)));
+    }
+
+    @Test
+    void testContiguousIdsAreStoredAsOneRun() {
+        int[] ids = new int[20000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        // Three bytes for the count, one for the start of the run and three for its length.
+        assertEquals(7, IdListCodec.encode(ids).length);
+        assertEquals(12, IdListCodec.encodeToString(ids).length());
+    }
+
+    @Test
+    void testInvalidEncodingsAreRejected() {
+        byte[] encoded = IdListCodec.encode(new int[] {1, 2, 3, 9});
+
+        byte[] truncated = new byte[encoded.length - 1];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class, () -> IdListCodec.decode(truncated));
+
+        byte[] extra = new byte[encoded.length + 1];
+        System.arraycopy(encoded, 0, extra, 0, encoded.length);
+        assertThrows(IllegalArgumentException.class, () -> IdListCodec.decode(extra));
+
+        // Two ids, but a run of three.
+        assertThrows(IllegalArgumentException.class, () -> IdListCodec.decode(new byte[] {2, 0, 2}));
+        assertThrows(IllegalArgumentException.class, () -> IdListCodec.decode("not base64!"));
+    }
+}
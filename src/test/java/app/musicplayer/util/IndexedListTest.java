@@ -0,0 +1,89 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedListTest {
+
+    @Test
+    void testItemsKeepInsertionOrderWithoutDuplicates() {
+        IndexedList<Integer> list = new IndexedList<>(x -> x);
+        assertTrue(list.add(5));
+        assertTrue(list.add(2));
+        assertTrue(list.add(9));
+        assertFalse(list.add(2));
+
+        assertEquals(Arrays.asList(5, 2, 9), list.toList());
+        assertEquals(3, list.size());
+        assertEquals(Integer.valueOf(2), list.get(1));
+        assertEquals(2, list.indexOf(9));
+        assertEquals(-1, list.indexOf(7));
+        assertTrue(list.contains(5));
+        assertFalse(list.contains(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+    }
+
+    @Test
+    void testRemoveAndMove() {
+        IndexedList<Integer> list = new IndexedList<>(x -> x);
+        for (int i = 0; i < 5; i++) {
+            list.add(i);
+        }
+
+        assertTrue(list.remove(2));
+        assertFalse(list.remove(2));
+        assertEquals(Arrays.asList(0, 1, 3, 4), list.toList());
+
+        assertTrue(list.move(4, 0));
+        assertEquals(Arrays.asList(4, 0, 1, 3), list.toList());
+        assertTrue(list.move(4, 3));
+        assertEquals(Arrays.asList(0, 1, 3, 4), list.toList());
+        assertFalse(list.move(7, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.move(0, 4));
+
+        assertTrue(list.add(2));
+        assertEquals(4, list.indexOf(2));
+        assertTrue(list.add(0, 8));
+        assertTrue(list.add(3, 6));
+        assertFalse(list.add(1, 6));
+        assertEquals(Arrays.asList(8, 0, 1, 6, 3, 4, 2), list.toList());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(8, 5));
+        assertEquals(Collections.emptyList(), new IndexedList<Integer>(x -> x).toList());
+    }
+
+    @Test
+    void testMatchesArrayListUnderRandomChanges() {
+        Random random = new Random(7);
+        IndexedList<Integer> list = new IndexedList<>(x -> x);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int id = random.nextInt(300);
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                assertEquals(!expected.contains(id), list.add(id));
+                if (!expected.contains(id)) {
+                    expected.add(id);
+                }
+            } else if (operation == 1) {
+                assertEquals(expected.remove(Integer.valueOf(id)), list.remove(id));
+            } else if (!expected.isEmpty() && expected.contains(id)) {
+                int index = random.nextInt(expected.size());
+                expected.remove(Integer.valueOf(id));
+                expected.add(index, id);
+                assertTrue(list.move(id, index));
+            }
+            assertEquals(expected.indexOf(id), list.indexOf(id));
+        }
+        assertEquals(expected, list.toList());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LetterIndexTest {
+
+    @Test
+    void testOffsetCountsTitlesBeforeLetter() {
+        LetterIndex<String> index = index("Abba", "Adele", "Beck", "Coldplay", "Coldplay II", "Muse");
+
+        assertEquals(0, index.offsetOf('A'));
+        assertEquals(2, index.offsetOf('B'));
+        assertEquals(3, index.offsetOf('C'));
+        assertEquals(5, index.offsetOf('D'));
+        assertEquals(5, index.offsetOf('M'));
+        assertEquals(6, index.offsetOf('N'));
+        assertEquals(6, index.offsetOf('Z'));
+        assertEquals(2, index.countOf('C'));
+        assertEquals(0, index.countOf('D'));
+        assertEquals(1, index.countOf('M'));
+    }
+
+    @Test
+    void testDigitsAndSymbolsSortBeforeLetters() {
+        LetterIndex<String> index = index("2Pac", "50 Cent", "Air");
+
+        assertEquals(2, index.offsetOf('A'));
+        assertEquals(3, index.offsetOf('B'));
+    }
+
+    @Test
+    void testEmptyTitlesSortBeforeEveryLetter() {
+        List<String> titles = sorted("", "Beck", null, "Coldplay");
+        LetterIndex<String> index = new LetterIndex<>(titles, Collation::key);
+
+        assertEquals(2, index.offsetOf('A'));
+        assertEquals(2, index.offsetOf('B'));
+        assertEquals(3, index.offsetOf('C'));
+        assertEquals("Coldplay", titles.get(index.offsetOf('C')));
+    }
+
+    @Test
+    void testLeadingPunctuationIsListedByTheLetterItSortsUnder() {
+        List<String> titles = sorted("Zed", "-hyphen", "Air", "Gorillaz", "Muse");
+        LetterIndex<String> index = new LetterIndex<>(titles, Collation::key);
+
+        assertEquals("-hyphen", titles.get(index.offsetOf('H')));
+        assertEquals(1, index.countOf('H'));
+        assertEquals("Muse", titles.get(index.offsetOf('I')));
+    }
+
+    @Test
+    void testLigaturesAndUmlautsAreListedUnderTheirBaseLetter() {
+        List<String> titles = sorted("Beck", "\u00c6on", "Abba", "\u00c4rzte", "Zed");
+        LetterIndex<String> index = new LetterIndex<>(titles, Collation::key);
+
+        assertEquals(0, index.offsetOf('A'));
+        assertEquals(3, index.countOf('A'));
+        assertEquals("Beck", titles.get(index.offsetOf('B')));
+        assertEquals(1, index.countOf('Z'));
+    }
+
+    @Test
+    void testEmptyList() {
+        LetterIndex<String> index = index();
+
+        assertEquals(0, index.offsetOf('A'));
+        assertEquals(0, index.countOf('A'));
+        assertEquals(0, index.offsetOf('\u00c9'));
+    }
+
+    @Test
+    void testTitlesAreListedWithoutArticleCaseOrAccent() {
+        LetterIndex<String> index = index("The Beatles", "abba", "\u00c9dith Piaf");
+
+        assertEquals(0, index.offsetOf('A'));
+        assertEquals(1, index.offsetOf('B'));
+        assertEquals(2, index.offsetOf('E'));
+        assertEquals(3, index.offsetOf('F'));
+    }
+
+    @Test
+    void testOffsetsFollowChangesOfTheList() {
+        List<String> titles = sorted("Abba", "Muse");
+        LetterIndex<String> index = new LetterIndex<>(titles, Collation::key);
+        assertEquals(1, index.offsetOf('M'));
+
+        titles.add(1, "Coldplay");
+        assertEquals(2, index.offsetOf('M'));
+        assertEquals(1, index.countOf('C'));
+    }
+
+    private static LetterIndex<String> index(String... titles) {
+        return new LetterIndex<>(sorted(titles), Collation::key);
+    }
+
+    // Titles in the order the library sorts them in.
+    private static List<String> sorted(String... titles) {
+        List<String> list = new ArrayList<>(Arrays.asList(titles));
+        Collections.sort(list, Collation::compare);
+        return list;
+    }
+}
@@ -0,0 +1,104 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    private static final List<String> TITLES = Arrays.asList(
+            "Yellow Submarine", "Love", "Lovely Day", "All You Need Is Love", "Glove Story", "love");
+
+    @Test
+    void testMatchesAreRankedExactPrefixWordPrefixSubstring() {
+        SearchIndex<String> index = new SearchIndex<>(TITLES, Function.identity());
+
+        assertEquals(Arrays.asList("Love", "love", "Lovely Day", "All You Need Is Love", "Glove Story"),
+                index.search("love", 10));
+    }
+
+    @Test
+    void testOnlyTheBestMatchesAreReturned() {
+        SearchIndex<String> index = new SearchIndex<>(TITLES, Function.identity());
+
+        assertEquals(Arrays.asList("Love", "love", "Lovely Day"), index.search("LOVE", 3));
+        assertEquals(Collections.singletonList("Glove Story"), index.search("glo", 3));
+        assertTrue(index.search("love", 0).isEmpty());
+    }
+
+    @Test
+    void testTextWithSeveralWords() {
+        SearchIndex<String> index = new SearchIndex<>(TITLES, Function.identity());
+
+        assertEquals(Collections.singletonList("All You Need Is Love"), index.search("need is", 5));
+        assertEquals(Collections.singletonList("Lovely Day"), index.search("ly da", 5));
+        assertTrue(index.search("submarine yellow", 5).isEmpty());
+    }
+
+    @Test
+    void testWordMatchesComeFromThePostings() {
+        SearchIndex<String> index = new SearchIndex<>(TITLES, Function.identity());
+
+        // Glove Story only contains the text inside a word.
+        assertArrayEquals(new int[] { 1, 2, 3, 5 }, index.wordMatches("love", CancellationToken.NONE));
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, index.matches("love", CancellationToken.NONE));
+        assertArrayEquals(new int[] { 2 }, index.wordMatches("lovel", new int[] { 2, 4, 5 }, CancellationToken.NONE));
+        assertArrayEquals(new int[] { 3 }, index.wordMatches("is love", CancellationToken.NONE));
+        assertNull(index.wordMatches(" love", CancellationToken.NONE));
+    }
+
+    @Test
+    void testCancelledSearchStops() {
+        SearchIndex<String> index = new SearchIndex<>(TITLES, Function.identity());
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        assertThrows(CancellationException.class, () -> index.search("ove", 3, token));
+        assertEquals(Collections.singletonList("Glove Story"), index.search("glo", 3, CancellationToken.NONE));
+    }
+
+    @Test
+    void testMatchesEqualToScanningAllTitles() {
+        List<String> titles = new ArrayList<>();
+        String[] words = { "The", "Love", "Glove", "Story", "Day", "Night", "Lovely", "A" };
+        for (int i = 0; i < 500; i++) {
+            titles.add(words[i % 8] + " " + words[(i / 8) % 8] + (i % 3 == 0 ? "" : " " + words[(i / 64) % 8]));
+        }
+        SearchIndex<String> index = new SearchIndex<>(titles, Function.identity());
+
+        for (String text : new String[] { "love", "lo", "day n", "ove", "a", "t", "zzz", "y " }) {
+            assertEquals(scan(titles, text, 7), index.search(text, 7), text);
+        }
+    }
+
+    // Ranks all titles the way the search box did before it had an index.
+    private static List<String> scan(List<String> titles, String text, int limit) {
+        String query = text.toUpperCase();
+        List<List<String>> ranks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ranks.add(new ArrayList<>());
+        }
+        for (String title : titles) {
+            String upperTitle = title.toUpperCase();
+            if (upperTitle.equals(query)) {
+                ranks.get(0).add(title);
+            } else if (upperTitle.startsWith(query)) {
+                ranks.get(1).add(title);
+            } else if (upperTitle.contains(" " + query)) {
+                ranks.get(2).add(title);
+            } else if (upperTitle.contains(query)) {
+                ranks.get(3).add(title);
+            }
+        }
+        List<String> results = new ArrayList<>();
+        ranks.forEach(results::addAll);
+        return results.size() > limit ? results.subList(0, limit) : results;
+    }
+}
@@ -0,0 +1,82 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSchedulerTest {
+
+    @Test
+    void testResultIsDeliveredToTheCallback() throws Exception {
+        SearchScheduler scheduler = new SearchScheduler(0, Runnable::run);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<String> future = scheduler.schedule(token -> "beat", delivered::add);
+
+        assertEquals("beat", future.get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("beat"), delivered);
+    }
+
+    @Test
+    void testNewSearchCancelsTheRunningOne() throws Exception {
+        SearchScheduler scheduler = new SearchScheduler(0, Runnable::run);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> first = scheduler.schedule(token -> {
+            started.countDown();
+            while (true) {
+                token.throwIfCancelled();
+                Thread.yield();
+            }
+        }, delivered::add);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = scheduler.schedule(token -> "beatles", delivered::add);
+
+        assertEquals("beatles", second.get(5, TimeUnit.SECONDS));
+        assertTrue(first.isCancelled());
+        assertEquals(Collections.singletonList("beatles"), delivered);
+    }
+
+    @Test
+    void testSearchesWithinTheDebounceDelayAreSkipped() throws Exception {
+        SearchScheduler scheduler = new SearchScheduler(200, Runnable::run);
+        List<String> searched = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<String> first = scheduler.schedule(token -> {
+            searched.add("b");
+            return "b";
+        }, null);
+        CompletableFuture<String> second = scheduler.schedule(token -> {
+            searched.add("be");
+            return "be";
+        }, null);
+
+        assertEquals("be", second.get(5, TimeUnit.SECONDS));
+        assertTrue(first.isCancelled());
+        assertEquals(Collections.singletonList("be"), searched);
+    }
+
+    @Test
+    void testCancelledSearchIsNotDelivered() throws Exception {
+        List<Runnable> callbacks = Collections.synchronizedList(new ArrayList<>());
+        SearchScheduler scheduler = new SearchScheduler(0, callbacks::add);
+        List<String> delivered = new ArrayList<>();
+
+        CompletableFuture<String> future = scheduler.schedule(token -> "beat", delivered::add);
+        future.get(5, TimeUnit.SECONDS);
+        // The callback is still waiting for the application thread when the search is cancelled.
+        scheduler.cancel();
+        callbacks.forEach(Runnable::run);
+
+        assertTrue(delivered.isEmpty());
+    }
+}
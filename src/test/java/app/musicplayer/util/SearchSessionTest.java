@@ -0,0 +1,58 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSessionTest {
+
+    private static List<String> titles() {
+        List<String> titles = new ArrayList<>();
+        String[] words = { "Beat", "Beatles", "Be", "Abbey", "Road", "Bear", "Beats", "It" };
+        for (int i = 0; i < 300; i++) {
+            titles.add(words[i % 8] + " " + words[(i / 8) % 8] + (i % 5 == 0 ? "" : " " + words[(i / 64) % 8]));
+        }
+        return titles;
+    }
+
+    @Test
+    void testTypingAndBackspaceGiveTheSameResultsAsTheIndex() {
+        List<String> titles = titles();
+        SearchIndex<String> index = new SearchIndex<>(titles, Function.identity());
+        SearchSession<String> session = new SearchSession<>(index);
+
+        for (String text : new String[] { "b", "be", "bea", "beat", "beatl", "beat", "bea", "be", "bear", "x", "" }) {
+            assertEquals(index.search(text, 5), session.search(text, 5), text);
+        }
+    }
+
+    @Test
+    void testMatchesInsideWordsAreFoundWhenThereAreTooFewWordMatches() {
+        List<String> titles = titles();
+        SearchIndex<String> index = new SearchIndex<>(titles, Function.identity());
+        SearchSession<String> session = new SearchSession<>(index);
+
+        for (String text : new String[] { "e", "ea", "eat", "eatl", "t", "t ", "t r", " b", "oa", "ro", "road" }) {
+            assertEquals(index.search(text, 5), session.search(text, 5), text);
+            assertEquals(index.search(text, 300), session.search(text, 300), text);
+        }
+    }
+
+    @Test
+    void testRecentQueriesAreRemembered() {
+        SearchSession<String> session = new SearchSession<>(new SearchIndex<>(titles(), Function.identity()), 2);
+
+        session.search("b", 3);
+        session.search("be", 3);
+        assertTrue(session.isRemembered("B"));
+
+        session.search("bea", 3);
+        assertFalse(session.isRemembered("b"));
+        assertTrue(session.isRemembered("be"));
+        assertTrue(session.isRemembered("bea"));
+    }
+}
@@ -0,0 +1,122 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedIndexTest {
+
+    @Test
+    void testItemsAreSortedWhenBuilt() {
+        SortedIndex<String> index = new SortedIndex<>(Arrays.asList("Muse", "Abba", "Coldplay", "Beck"),
+                Collation::compare, Collation::key);
+
+        assertEquals(Arrays.asList("Abba", "Beck", "Coldplay", "Muse"), index.getItems());
+        assertEquals(2, index.offsetOf('C'));
+        assertEquals(1, index.countOf('C'));
+        assertEquals(0, index.countOf('D'));
+    }
+
+    @Test
+    void testAddAndRemoveKeepOrderAndLetters() {
+        SortedIndex<String> index = new SortedIndex<>(Arrays.asList("Abba", "Muse"),
+                Collation::compare, Collation::key);
+
+        index.add("Coldplay");
+        index.add("Adele");
+        assertEquals(Arrays.asList("Abba", "Adele", "Coldplay", "Muse"), index.getItems());
+        assertEquals(2, index.countOf('A'));
+        assertEquals(3, index.offsetOf('D'));
+
+        assertTrue(index.remove("Abba"));
+        assertFalse(index.remove("Beck"));
+        assertEquals(Arrays.asList("Adele", "Coldplay", "Muse"), index.getItems());
+        assertEquals(1, index.offsetOf('B'));
+    }
+
+    @Test
+    void testRemoveFindsItemAmongEqualItems() {
+        String first = new String("Same");
+        String second = new String("Same");
+        SortedIndex<String> index = new SortedIndex<>(Arrays.asList(first, second),
+                Collation::compare, Collation::key);
+
+        assertTrue(index.remove(second));
+        assertEquals(1, index.size());
+        assertSame(first, index.getItems().get(0));
+    }
+
+    @Test
+    void testUpdateMovesItemAfterKeyChange() {
+        int[] counts = { 5, 3, 1 };
+        List<Integer> items = new ArrayList<>(Arrays.asList(0, 1, 2));
+        SortedIndex<Integer> index = new SortedIndex<>(items,
+                Comparator.comparingInt((Integer i) -> counts[i]).reversed(), null);
+        assertEquals(Arrays.asList(0, 1, 2), index.getItems());
+
+        index.update(2, () -> counts[2] = 4);
+        assertEquals(Arrays.asList(0, 2, 1), index.getItems());
+        assertThrows(UnsupportedOperationException.class, () -> index.offsetOf('A'));
+    }
+
+    @Test
+    void testUpdateKeepsEveryOrderOfRandomChanges() {
+        Random random = new Random(3);
+        // Items are found by identity, so they are kept among the integers that are boxed to shared instances.
+        int[] counts = new int[100];
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = random.nextInt(10);
+            items.add(i);
+        }
+        Comparator<Integer> order = Comparator.comparingInt((Integer i) -> counts[i]).reversed()
+                .thenComparingInt(i -> i);
+        SortedIndex<Integer> index = new SortedIndex<>(items, order, null);
+
+        for (int round = 0; round < 1000; round++) {
+            int item = random.nextInt(counts.length);
+            int count = random.nextInt(10);
+            index.update(item, () -> counts[item] = count);
+            items.sort(order);
+            assertEquals(items, index.getItems());
+        }
+    }
+
+    @Test
+    void testLettersCountEveryItemTheyList() {
+        SortedIndex<String> index = new SortedIndex<>(Arrays.asList("", "Zed", "\u00c6on", "-hyphen", "Abba", "Zzzz"),
+                Collation::compare, Collation::key);
+
+        assertEquals(1, index.offsetOf('A'));
+        assertEquals(2, index.countOf('A'));
+        assertEquals(1, index.countOf('H'));
+        assertEquals(2, index.countOf('Z'));
+        assertEquals(index.size(), index.offsetOf('Z') + index.countOf('Z'));
+        assertEquals(0, index.countOf('B'));
+    }
+
+    @Test
+    void testHeadCopiesTheFirstItems() {
+        SortedIndex<String> index = new SortedIndex<>(Arrays.asList("Muse", "Abba", "Coldplay"),
+                Collation::compare, Collation::key);
+
+        List<String> head = index.head(2);
+        index.add("Adele");
+        assertEquals(Arrays.asList("Abba", "Coldplay"), head);
+        assertEquals(Arrays.asList("Abba", "Adele", "Coldplay", "Muse"), index.head(10));
+        assertTrue(index.head(0).isEmpty());
+    }
+
+    @Test
+    void testItemsCannotBeModified() {
+        SortedIndex<String> index = new SortedIndex<>(Arrays.asList("Abba"), Collation::compare, Collation::key);
+
+        assertThrows(UnsupportedOperationException.class, () -> index.getItems().add("Beck"));
+    }
+}
@@ -0,0 +1,112 @@
+package app.musicplayer.util;
+
+import app.musicplayer.util.UiScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UiSchedulerTest {
+
+    @AfterEach
+    void tearDown() {
+        // Runs whatever a test left behind so that it does not leak into the next test.
+        while (UiScheduler.drain(Long.MAX_VALUE)) {
+            // keep draining
+        }
+    }
+
+    @Test
+    void testDrainRunsHighBeforeNormalBeforeLow() {
+        List<String> order = new ArrayList<>();
+        UiScheduler.enqueue(Priority.LOW, () -> order.add("low"));
+        UiScheduler.enqueue(Priority.NORMAL, () -> order.add("normal"));
+        UiScheduler.enqueue(Priority.HIGH, () -> order.add("high"));
+
+        assertFalse(UiScheduler.drain(Long.MAX_VALUE));
+        assertEquals(3, order.size());
+        assertEquals("high", order.get(0));
+        assertEquals("normal", order.get(1));
+        assertEquals("low", order.get(2));
+    }
+
+    @Test
+    void testHighPriorityIgnoresBudget() {
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int k = i;
+            UiScheduler.enqueue(Priority.HIGH, () -> ran.add(k));
+        }
+        UiScheduler.enqueue(Priority.NORMAL, () -> ran.add(-1));
+
+        assertTrue(UiScheduler.drain(0));
+        assertEquals(5, ran.size());
+
+        assertFalse(UiScheduler.drain(Long.MAX_VALUE));
+        assertEquals(6, ran.size());
+    }
+
+    @Test
+    void testBudgetSpreadsNormalWorkOverPulses() {
+        List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int k = i;
+            UiScheduler.enqueue(Priority.NORMAL, () -> {
+                ran.add(k);
+                sleep(2);
+            });
+        }
+
+        assertTrue(UiScheduler.drain(TimeUnit.MILLISECONDS.toNanos(3)));
+        assertTrue(ran.size() < 10);
+
+        int pulses = 1;
+        while (UiScheduler.drain(TimeUnit.MILLISECONDS.toNanos(3))) {
+            pulses++;
+        }
+
+        assertTrue(pulses > 1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, ran.get(i).intValue());
+        }
+    }
+
+    @Test
+    void testWorkPostedDuringPulseRunsInNextPulse() {
+        List<String> order = new ArrayList<>();
+        UiScheduler.enqueue(Priority.HIGH, () -> {
+            order.add("first");
+            UiScheduler.enqueue(Priority.HIGH, () -> order.add("second"));
+        });
+
+        assertTrue(UiScheduler.drain(Long.MAX_VALUE));
+        assertEquals(1, order.size());
+
+        assertFalse(UiScheduler.drain(Long.MAX_VALUE));
+        assertEquals(2, order.size());
+    }
+
+    @Test
+    void testFailingWorkDoesNotStopDrain() {
+        List<String> ran = new ArrayList<>();
+        UiScheduler.enqueue(Priority.NORMAL, () -> {
+            throw new IllegalStateException("test");
+        });
+        UiScheduler.enqueue(Priority.NORMAL, () -> ran.add("after"));
+
+        assertFalse(UiScheduler.drain(Long.MAX_VALUE));
+        assertEquals(1, ran.size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedListTest {
+
+    @Test
+    void testViewReadsBackingListWithoutCopying() {
+        List<String> source = new ArrayList<>(Arrays.asList("Muse", "Abba"));
+        VersionedList<String> view = new VersionedList<>(source);
+
+        source.add("Beck");
+        assertEquals(Arrays.asList("Muse", "Abba", "Beck"), view);
+        assertTrue(view.isViewOf(source));
+        assertEquals(0, view.getVersion());
+    }
+
+    @Test
+    void testViewCannotBeModified() {
+        VersionedList<String> view = new VersionedList<>(new ArrayList<>(Arrays.asList("Muse")));
+
+        assertThrows(UnsupportedOperationException.class, () -> view.add("Abba"));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+
+    @Test
+    void testReportedChangesReachWrappingLists() {
+        List<String> source = new ArrayList<>(Arrays.asList("Muse", "Abba"));
+        VersionedList<String> view = new VersionedList<>(source);
+        SortedList<String> sorted = new SortedList<>(view, Comparator.naturalOrder());
+        FilteredList<String> filtered = new FilteredList<>(view, title -> title.startsWith("B"));
+
+        source.add("Beck");
+        view.added(2, 3);
+        assertEquals(Arrays.asList("Abba", "Beck", "Muse"), sorted);
+        assertEquals(Arrays.asList("Beck"), filtered);
+
+        source.remove(1);
+        view.removed(1, "Abba");
+        assertEquals(Arrays.asList("Beck", "Muse"), sorted);
+        assertEquals(2, view.getVersion());
+    }
+
+    @Test
+    void testSetSourceReplacesAllItems() {
+        VersionedList<String> view = new VersionedList<>(new ArrayList<>(Arrays.asList("Muse")));
+        SortedList<String> sorted = new SortedList<>(view, Comparator.naturalOrder());
+        List<String> replacement = Arrays.asList("Coldplay", "Abba");
+
+        view.setSource(replacement);
+        assertTrue(view.isViewOf(replacement));
+        assertEquals(Arrays.asList("Abba", "Coldplay"), sorted);
+        assertEquals(1, view.getVersion());
+    }
+}
@@ -0,0 +1,23 @@
+package app.musicplayer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewLoaderTest {
+
+    @Test
+    void testViewsAreCompiledByTheBuild() {
+        String[] views = { "Main.fxml", "Albums.fxml", "Artists.fxml", "ArtistsMain.fxml", "Songs.fxml",
+                "Playlists.fxml", "NowPlaying.fxml", "ControlPanel.fxml", "ControlPanelPlaylists.fxml",
+                "PlayingIcon.fxml", "PlaylistCell.fxml" };
+        for (String view : views) {
+            assertTrue(ViewLoader.isCompiled(view), view);
+        }
+    }
+
+    @Test
+    void testUnknownViewIsNotCompiled() {
+        assertFalse(ViewLoader.isCompiled("Missing.fxml"));
+    }
+}